@@ -1,14 +1,24 @@
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Scanner;
 
+import javax.swing.SwingUtilities;
+
 import controlador.ControladorBatalla;
+import eventos.BatallaTerminada;
+import eventos.EventoBatalla;
+import eventos.PublicadorEventos;
 import modelo.Batalla;
 import modelo.Enemigo;
 import modelo.Heroe;
 import modelo.Tipo_Enemigo;
 import modelo.Tipo_Heroe;
+import simulacion.BusquedaHeroes;
+import vista.MotorSonido;
 import vista.VistaGUI;
 import vista.VistaJuego;
 import vista.VistaTerminal;
+import vista.VistaTerminalAnsi;
 
 public class App {
     public static void main(String[] args) throws Exception {
@@ -20,31 +30,93 @@ public class App {
         Scanner sc = new Scanner(System.in);
         System.out.println("1. Terminal");
         System.out.println("2. GUI");
+        System.out.println("3. Terminal (pantalla ANSI)");
+        System.out.println("4. Juego automatico (prueba larga)");
         int op = sc.nextInt();
 
+        // los heroes juegan solos con la busqueda; con varias batallas solo se muestra el resumen
+        if (op == 4) {
+            System.out.println("Cantidad de batallas:");
+            jugarAutomatico(Math.max(1, sc.nextInt()));
+            return;
+        }
+
         // dependiendo de la opcion llama a la vista terminal o la gui 
         if (op == 1) vista = new VistaTerminal();
+        else if (op == 3) vista = new VistaTerminalAnsi();
         else vista = new VistaGUI();
 
         // creacion de heroes y enemigos
-        Heroe[] heroes = {
+        Heroe[] heroes = crearHeroes();
+        Enemigo[] enemigos = crearEnemigos();
+
+
+        // objeto controlador que permitira llamar el iniciarBatalla para inciar nuestro juego
+        ControladorBatalla controlador = new ControladorBatalla(batalla, heroes, enemigos, vista);
+
+        // en la GUI los eventos se pintan en el hilo de Swing sin frenar la batalla
+        if (vista instanceof VistaGUI) {
+            PublicadorEventos publicador = new PublicadorEventos();
+            controlador.publicarEventos(publicador);
+            publicador.suscribir(vista, SwingUtilities::invokeLater, 1024, false);
+
+            // el sonido escucha directo al controlador para no sumar la demora del publicador
+            controlador.agregarOyente(MotorSonido.crear());
+
+            // lo que el controlador dibuja o pide a la vista va al hilo de Swing
+            controlador.setEjecutorVista(SwingUtilities::invokeLater);
+            // el boton de sugerencia le pregunta al controlador
+            ((VistaGUI) vista).setControlador(controlador);
+
+            // la batalla avanza con cada click, sin un hilo esperando
+            controlador.iniciarBatallaAsync().exceptionally(error -> {
+                System.err.println("La batalla se detuvo por un error: " + error);
+                return null;
+            });
+            return;
+        }
+
+        controlador.iniciarBatalla();
+    }
+
+    private static Heroe[] crearHeroes() {
+        return new Heroe[] {
             new Heroe("Angelo", Tipo_Heroe.GUERRERO, 50, 25, 18, 30, 55),
             new Heroe("Yangus", Tipo_Heroe.GUERRERO, 40, 5, 20, 35, 25),
             new Heroe("Hero", Tipo_Heroe.GUERRERO, 40, 5, 20, 35, 25),
             new Heroe("Jessica", Tipo_Heroe.GUERRERO, 40, 5, 20, 35, 25),
         };
+    }
 
-        Enemigo[] enemigos = {
+    private static Enemigo[] crearEnemigos() {
+        return new Enemigo[] {
             new Enemigo("Slime", 30, 0, 23, 6, 30, Tipo_Enemigo.GOLEM),
             new Enemigo("Dracky", 25, 0, 12, 10, 21, Tipo_Enemigo.NOMUERTO),
             new Enemigo("Golem", 25, 0, 12, 10, 21, Tipo_Enemigo.NOMUERTO),
             new Enemigo("Gengar", 25, 0, 12, 10, 21, Tipo_Enemigo.NOMUERTO),
         };
+    }
 
+    // una batalla se ve en la terminal; varias se juegan sin mostrar nada, con equipos
+    // nuevos cada vez, para dejar el juego corriendo y contar los resultados
+    private static void jugarAutomatico(int batallas) {
+        BusquedaHeroes busqueda = new BusquedaHeroes();
+        int[] victorias = new int[1];
+        long inicio = System.nanoTime();
 
-        // objeto controlador que permitira llamar el iniciarBatalla para inciar nuestro juego
-        ControladorBatalla controlador = new ControladorBatalla(batalla, heroes, enemigos, vista);
-
-        controlador.iniciarBatalla();
+        for (int i = 0; i < batallas; i++) {
+            VistaJuego vista = batallas == 1 ? new VistaTerminal()
+                    : new VistaTerminal(InputStream.nullInputStream(), OutputStream.nullOutputStream());
+            ControladorBatalla controlador = new ControladorBatalla(new Batalla(), crearHeroes(), crearEnemigos(), vista);
+            controlador.setAutoJuego(busqueda);
+            controlador.agregarOyente(evento -> {
+                if (evento.getTipo() == EventoBatalla.Tipo.BATALLA_TERMINADA && ((BatallaTerminada) evento).esVictoria()) {
+                    victorias[0]++;
+                }
+            });
+            controlador.iniciarBatalla();
+        }
+        System.out.printf("%d batallas: %d victorias, %d derrotas en %.1f s%n", batallas, victorias[0],
+                batallas - victorias[0], (System.nanoTime() - inicio) / 1e9);
     }
 }
\ No newline at end of file
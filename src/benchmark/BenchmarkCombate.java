@@ -0,0 +1,152 @@
+package benchmark;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import controlador.ControladorBatalla;
+import controlador.MotorBatalla;
+import eventos.EmisorEventos;
+import modelo.Enemigo;
+import modelo.Heroe;
+import modelo.Tipo_Enemigo;
+import modelo.Tipo_Heroe;
+import simulacion.EstadoCombate;
+import simulacion.SimuladorLote;
+
+/**
+ * Benchmarks de las rutas calientes del combate, parametrizados por tamaño de equipo.
+ *
+ * Uso: java -cp out benchmark.BenchmarkCombate [tamaños...]
+ * por defecto 1 4 16 64. Los resultados de referencia estan en resultados.txt.
+ */
+public class BenchmarkCombate {
+
+    private static final int[] TAMAÑOS_POR_DEFECTO = {1, 4, 16, 64};
+
+    public static void main(String[] args) {
+        int[] tamaños = TAMAÑOS_POR_DEFECTO;
+        if (args.length > 0) {
+            tamaños = new int[args.length];
+            for (int i = 0; i < args.length; i++) tamaños[i] = Integer.parseInt(args[i]);
+        }
+
+        // salida en UTF-8 aunque la consola use otra codificacion por defecto
+        PrintStream out = new PrintStream(new FileOutputStream(FileDescriptor.out), true, StandardCharsets.UTF_8);
+
+        Medidor medidor = new Medidor(5, 10, 200);
+        out.println("java " + System.getProperty("java.version") + " | "
+                + Runtime.getRuntime().availableProcessors() + " nucleos");
+
+        // las operaciones sobre un solo personaje no dependen del tamaño del equipo
+        out.println(medidor.medir("Personaje.recibir_daño", recibirDaño()));
+        out.println(medidor.medir("Heroe.atacar", heroeAtacar()));
+        out.println(medidor.medir("Enemigo.atacar+evento", enemigoAtacarConEvento()));
+
+        for (int n : tamaños) {
+            out.println(medidor.medir("Enemigo.buscarHeroeVivo n=" + n, buscarHeroeVivo(n)));
+            out.println(medidor.medir("ControladorBatalla.ordenAtaque n=" + n, ordenAtaque(n)));
+            out.println(medidor.medir("MotorBatalla.ejecutar n=" + n, batallaCompleta(n)));
+            out.println(medidor.medir("SimuladorLote.simular n=" + n, batallaLote(n)));
+        }
+    }
+
+    static Medidor.Operacion recibirDaño() {
+        Heroe h = heroe(0);
+        int hp = h.getHp();
+        return () -> {
+            int daño = h.recibir_daño(40);
+            h.setHp(hp);
+            return daño;
+        };
+    }
+
+    static Medidor.Operacion heroeAtacar() {
+        Heroe h = heroe(0);
+        Enemigo e = enemigo(0);
+        int hp = e.getHp();
+        return () -> {
+            int daño = h.atacar(e);
+            e.setHp(hp);
+            return daño;
+        };
+    }
+
+    // el ataque de un enemigo como lo reporta el controlador: golpe y evento a un oyente
+    static Medidor.Operacion enemigoAtacarConEvento() {
+        Enemigo e = enemigo(0);
+        Heroe h = heroe(0);
+        int hp = h.getHp();
+        int[] recibidos = new int[1];
+        EmisorEventos eventos = new EmisorEventos();
+        eventos.agregarOyente(evento -> recibidos[0]++);
+        return () -> {
+            e.atacar(h);
+            eventos.ataqueResuelto(e, h, hp - h.getHp(), false);
+            h.setHp(hp);
+            return recibidos[0];
+        };
+    }
+
+    static Medidor.Operacion buscarHeroeVivo(int n) {
+        Heroe[] heroes = heroes(n);
+        // la mitad de los heroes muertos para que el recorrido tenga que saltarlos
+        for (int i = 0; i < n; i += 2) if (n > 1) heroes[i].setHp(0);
+        Enemigo e = enemigo(0);
+        return () -> e.buscarHeroeVivo(heroes).getHp();
+    }
+
+    static Medidor.Operacion ordenAtaque(int n) {
+        ControladorBatalla controlador = new ControladorBatalla(null, heroes(n), enemigos(n), null);
+        return () -> controlador.ordenAtaque().size();
+    }
+
+    static Medidor.Operacion batallaCompleta(int n) {
+        Heroe[] heroes = heroes(n);
+        Enemigo[] enemigos = enemigos(n);
+        return () -> {
+            Heroe[] h = new Heroe[n];
+            Enemigo[] e = new Enemigo[n];
+            for (int i = 0; i < n; i++) {
+                h[i] = heroes[i].copiar();
+                e[i] = enemigos[i].copiar();
+            }
+            MotorBatalla motor = new MotorBatalla(h, e);
+            return motor.ejecutar().ordinal() + motor.getRondas();
+        };
+    }
+
+    static Medidor.Operacion batallaLote(int n) {
+        EstadoCombate plantilla = new EstadoCombate(heroes(n), enemigos(n));
+        EstadoCombate estado = plantilla.copiar();
+        SimuladorLote simulador = new SimuladorLote(false);
+        return () -> {
+            estado.copiarDe(plantilla);
+            return simulador.simular(estado).ordinal() + simulador.getRondas();
+        };
+    }
+
+    // equipos con los mismos valores que App, repetidos hasta n
+    static Heroe[] heroes(int n) {
+        Heroe[] h = new Heroe[n];
+        for (int i = 0; i < n; i++) h[i] = heroe(i);
+        return h;
+    }
+
+    static Enemigo[] enemigos(int n) {
+        Enemigo[] e = new Enemigo[n];
+        for (int i = 0; i < n; i++) e[i] = enemigo(i);
+        return e;
+    }
+
+    static Heroe heroe(int i) {
+        if (i % 4 == 0) return new Heroe("Angelo" + i, Tipo_Heroe.GUERRERO, 50, 25, 18, 30, 55);
+        return new Heroe("Yangus" + i, Tipo_Heroe.GUERRERO, 40, 5, 20, 35, 25);
+    }
+
+    static Enemigo enemigo(int i) {
+        if (i % 4 == 0) return new Enemigo("Slime" + i, 30, 0, 23, 6, 30, Tipo_Enemigo.GOLEM);
+        return new Enemigo("Dracky" + i, 25, 0, 12, 10, 21, Tipo_Enemigo.NOMUERTO);
+    }
+}
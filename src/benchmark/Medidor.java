@@ -0,0 +1,93 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Arnes minimo de microbenchmarks: calentamiento, iteraciones cronometradas y
+ * bytes reservados por operacion (lo mismo que reporta el perfilador gc de JMH),
+ * medidos con el contador de asignaciones por hilo de la JVM.
+ */
+public final class Medidor {
+
+    // lo que se mide; el valor devuelto se consume para que el JIT no elimine el trabajo
+    public interface Operacion {
+        long ejecutar();
+    }
+
+    private static final com.sun.management.ThreadMXBean HILOS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static volatile long sumidero;
+
+    private final int calentamiento;
+    private final int iteraciones;
+    private final long nanosPorIteracion;
+
+    public Medidor(int calentamiento, int iteraciones, long milisPorIteracion) {
+        this.calentamiento = calentamiento;
+        this.iteraciones = iteraciones;
+        this.nanosPorIteracion = milisPorIteracion * 1_000_000L;
+    }
+
+    public Resultado medir(String nombre, Operacion op) {
+        for (int i = 0; i < calentamiento; i++) iteracion(op);
+
+        double[] opsPorSegundo = new double[iteraciones];
+        long totalOps = 0, totalBytes = 0;
+
+        for (int i = 0; i < iteraciones; i++) {
+            long hilo = Thread.currentThread().getId();
+            long bytesAntes = HILOS.getThreadAllocatedBytes(hilo);
+            long inicio = System.nanoTime();
+            long ops = iteracion(op);
+            long duracion = System.nanoTime() - inicio;
+            long bytes = HILOS.getThreadAllocatedBytes(hilo) - bytesAntes;
+
+            opsPorSegundo[i] = ops * 1e9 / duracion;
+            totalOps += ops;
+            totalBytes += bytes;
+        }
+        return new Resultado(nombre, opsPorSegundo, (double) totalBytes / totalOps);
+    }
+
+    // repite la operacion durante la ventana de tiempo, revisando el reloj cada 64 llamadas
+    private long iteracion(Operacion op) {
+        long fin = System.nanoTime() + nanosPorIteracion;
+        long ops = 0, acc = 0;
+        do {
+            for (int i = 0; i < 64; i++) acc += op.ejecutar();
+            ops += 64;
+        } while (System.nanoTime() < fin);
+        sumidero += acc;
+        return ops;
+    }
+
+
+    public static final class Resultado {
+        private final String nombre;
+        private final double media;
+        private final double error;
+        private final double bytesPorOp;
+
+        Resultado(String nombre, double[] muestras, double bytesPorOp) {
+            this.nombre = nombre;
+            double suma = 0;
+            for (double m : muestras) suma += m;
+            this.media = suma / muestras.length;
+            double var = 0;
+            for (double m : muestras) var += (m - media) * (m - media);
+            this.error = muestras.length > 1 ? Math.sqrt(var / (muestras.length - 1)) : 0;
+            this.bytesPorOp = bytesPorOp;
+        }
+
+        public String getNombre() { return nombre; }
+        public double getOpsPorSegundo() { return media; }
+        public double getError() { return error; }
+        public double getBytesPorOp() { return bytesPorOp; }
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %,16.0f +- %,12.0f ops/s %10.1f B/op", nombre, media, error, bytesPorOp);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package controlador;
+
+import eventos.EmisorEventos;
+import eventos.EstadoAplicado;
+import modelo.Enemigo;
+import modelo.Heroe;
+import modelo.Personaje;
+import modelo.Tipo_Efecto;
+import persistencia.DiarioBatalla;
+
+/**
+ * Aplica sobre los objetos del modelo la decision de un heroe (ataque o habilidad
+ * concreta) y emite el evento y el registro del diario que corresponden. Lo usan
+ * el controlador y la partida por pasos para no repetir el reparto de casos.
+ */
+final class AccionesHeroe {
+
+    private AccionesHeroe() {
+    }
+
+    /**
+     * Devuelve false si la decision no se pudo aplicar: objetivo fuera de rango o
+     * muerto, o el heroe no tiene el tipo o el mana para esa habilidad. PASAR y
+     * HABILIDAD (sin habilidad concreta) gastan el turno sin efecto.
+     */
+    static boolean aplicar(Heroe heroe, int accion, int objetivo, Heroe[] heroes, Enemigo[] enemigos,
+                           EmisorEventos eventos, DiarioBatalla diario) {
+        if (accion == DecisionTurno.PASAR || accion == DecisionTurno.HABILIDAD) return true;
+
+        Personaje[] equipo = DecisionTurno.esSobreAliado(accion) ? heroes : enemigos;
+        if (objetivo < 0 || objetivo >= equipo.length) return false;
+        Personaje p = equipo[objetivo];
+        // solo revivir y curar (que tambien levanta a un caido) aceptan un objetivo muerto
+        if (!p.esta_vivo() && accion != DecisionTurno.REVIVIR && accion != DecisionTurno.CURAR) return false;
+
+        int hpAntes = p.getHp();
+        switch (accion) {
+            case DecisionTurno.ATACAR:
+                if (heroe.atacar(p) < 0) return false;
+                golpe(heroe, p, hpAntes, false, eventos, diario);
+                return true;
+            case DecisionTurno.DORMIR:
+                if (!heroe.LanzaHechizoSueño(p)) return false;
+                // el hechizo golpea y despues duerme; si el golpe lo mato no hay a quien dormir
+                golpe(heroe, p, hpAntes, false, eventos, diario);
+                if (p.esta_vivo()) efecto(true, heroe, p, EstadoAplicado.Efecto.SUEÑO, Heroe.DURACION_SUEÑO, eventos, diario);
+                return true;
+            case DecisionTurno.CURAR:
+                return efecto(heroe.curar(p), heroe, p, EstadoAplicado.Efecto.CURACION, 0, eventos, diario);
+            case DecisionTurno.REVIVIR:
+                return efecto(heroe.revivir(p), heroe, p, EstadoAplicado.Efecto.RESURRECCION, 0, eventos, diario);
+            case DecisionTurno.RESTAURAR_MANA:
+                return efecto(heroe.restaurarMana(p), heroe, p, EstadoAplicado.Efecto.MANA, 0, eventos, diario);
+            case DecisionTurno.DEFENDER:
+                return efecto(heroe.defender(p), heroe, p, EstadoAplicado.Efecto.DEFENSA, Tipo_Efecto.SIN_VENCIMIENTO, eventos, diario);
+            case DecisionTurno.REFORZAR:
+                return efecto(heroe.LanzaHechizoRefuerzo(p), heroe, p, EstadoAplicado.Efecto.REFUERZO, Heroe.DURACION_REFUERZO, eventos, diario);
+            case DecisionTurno.PROVOCAR:
+                return efecto(heroe.provocarEnemigo(p), heroe, p, EstadoAplicado.Efecto.PROVOCACION, Heroe.DURACION_PROVOCACION, eventos, diario);
+            case DecisionTurno.PARALIZAR:
+                return efecto(heroe.LanzaHechizoParalisis(p), heroe, p, EstadoAplicado.Efecto.PARALISIS, Heroe.DURACION_PARALISIS, eventos, diario);
+            default:
+                return false;
+        }
+    }
+
+    private static void golpe(Heroe heroe, Personaje objetivo, int hpAntes, boolean especial,
+                              EmisorEventos eventos, DiarioBatalla diario) {
+        int daño = hpAntes - objetivo.getHp();
+        if (diario != null) diario.registrarAtaque(heroe, objetivo, daño);
+        eventos.ataqueResuelto(heroe, objetivo, daño, especial);
+    }
+
+    private static boolean efecto(boolean aplicado, Heroe heroe, Personaje objetivo, EstadoAplicado.Efecto efecto,
+                                  int turnos, EmisorEventos eventos, DiarioBatalla diario) {
+        if (!aplicado) return false;
+        if (diario != null) diario.registrarEstado(objetivo, (byte) efecto.ordinal(), turnos);
+        eventos.estadoAplicado(heroe, objetivo, efecto, turnos);
+        return true;
+    }
+}
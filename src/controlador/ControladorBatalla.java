@@ -3,8 +3,25 @@ package controlador;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import eventos.AnilloEventos;
+import eventos.AvisoVista;
+import eventos.EmisorEventos;
+import eventos.OyenteBatalla;
+import eventos.PublicadorEventos;
 import modelo.*;
+import persistencia.DiarioBatalla;
+import persistencia.InstantaneaBatalla;
+import simulacion.BusquedaHeroes;
+import simulacion.BusquedaJefe;
+import simulacion.EstadoCombate;
 import vista.*;
 
 
@@ -15,6 +32,29 @@ public class ControladorBatalla{
     private Enemigo[] enemigos;
     private VistaJuego vista;
     private Object[] ordenTurnos;
+    private PoliticaEnemigo politicaEnemigo = PoliticaEnemigo.PRIMER_HEROE_VIVO;
+    private DiarioBatalla diario;
+    private InstantaneaBatalla instantanea;
+    private final EmisorEventos eventos = new EmisorEventos();
+    private PublicadorEventos publicador;
+    private int rondas;
+    // vence los efectos de estado al terminar cada ronda; una por batalla
+    private RuedaEfectos rueda;
+
+    // los jefes deciden buscando sobre una copia de la batalla; null vuelve a la politica
+    private BusquedaJefe busquedaJefe = new BusquedaJefe();
+    private EstadoCombate estadoJefe;
+
+    // si hay juego automatico los heroes no le preguntan a la vista
+    private EntradaTurno autoJuego;
+    private BusquedaHeroes sugeridor;
+
+    // estado del bucle asincrono
+    private int posicion;
+    private long limiteTurnoMs;
+    private volatile CompletableFuture<?> entradaPendiente;
+    // donde corren las llamadas directas a la vista; la GUI necesita el hilo de Swing
+    private Executor ejecutorVista = Runnable::run;
 
 
     public ControladorBatalla(Batalla batalla, Heroe[] heroes, Enemigo[] enemigos, VistaJuego vista){
@@ -22,11 +62,65 @@ public class ControladorBatalla{
         this.enemigos = enemigos;
         this.vista = vista;
         this.batalla = batalla;
+        if (vista != null) eventos.agregarOyente(vista);
+    }
+
+    // ademas de la vista, otros pueden escuchar los eventos de la batalla
+    public void agregarOyente(OyenteBatalla oyente) {
+        eventos.agregarOyente(oyente);
+    }
+
+    // los eventos dejan de llegarle directo a la vista y salen por el publicador;
+    // quien llama decide en que ejecutor se suscribe la vista (y quien mas). Al terminar
+    // la batalla el controlador cierra el publicador
+    public void publicarEventos(PublicadorEventos publicador) {
+        eventos.quitarOyente(vista);
+        eventos.agregarOyente(publicador);
+        this.publicador = publicador;
+    }
+
+    // abre la batalla a espectadores: la batalla escribe cada evento una vez en el
+    // anillo y cada espectador lo lee a su ritmo con su propio LectorAnillo
+    public AnilloEventos abrirEspectadores(int capacidad) {
+        AnilloEventos anillo = new AnilloEventos(heroes, enemigos, capacidad);
+        eventos.agregarOyente(anillo);
+        return anillo;
+    }
+
+    // permite cambiar como eligen objetivo los enemigos (por defecto el primer heroe vivo)
+    public void setPoliticaEnemigo(PoliticaEnemigo politicaEnemigo) {
+        this.politicaEnemigo = politicaEnemigo;
+    }
+
+    // juego automatico de los heroes (ej. new BusquedaHeroes()); null vuelve a preguntar a la vista
+    public void setAutoJuego(EntradaTurno autoJuego) {
+        this.autoJuego = autoJuego;
+    }
+
+    // la jugada que la busqueda elegiria para este heroe, para el boton de sugerencia
+    public DecisionTurno sugerirJugada(Heroe heroe) {
+        if (sugeridor == null) sugeridor = new BusquedaHeroes();
+        return sugeridor.decidir(heroe, heroes, enemigos);
+    }
+
+    // tiempo que puede pensar un jefe en su turno; 0 lo deja atacar como un enemigo comun
+    public void setPresupuestoJefe(long tiempo, TimeUnit unidad) {
+        this.busquedaJefe = tiempo > 0 ? new BusquedaJefe(unidad.toNanos(tiempo)) : null;
+    }
+
+    // opcional: registra cada accion de la batalla en un diario binario
+    public void setDiario(DiarioBatalla diario) {
+        this.diario = diario;
+    }
+
+    // opcional: guarda el estado al terminar cada ronda, creada con estos mismos equipos
+    public void setInstantanea(InstantaneaBatalla instantanea) {
+        this.instantanea = instantanea;
     }
 
 
     // funcion para generar el orden de ataque segun la velocidad
-    private ArrayList<Object> ordenAtaque(){
+    public ArrayList<Object> ordenAtaque(){
         ArrayList<Object> todos = new ArrayList<>();
 
         for (Heroe h : heroes){
@@ -61,21 +155,21 @@ public class ControladorBatalla{
 
     // funcion que da inicio a la batalla
     public void iniciarBatalla() {
-
-        vista.mostrarMensaje("¡La batalla comienza!");
-        vista.mostrarHeroes(heroes);
-        vista.mostrarEnemigos(enemigos);
-        vista.mostrarMensaje("El orden de ataque es: " + ordenAtaque());
+        comenzarBatalla();
 
         // empieza un bucle si hay enemigos y heroes vivos
         while (hayHeroesVivos() && hayEnemigosVivos()) {
+            rondas++;
+            if (diario != null) diario.registrarRonda();
 
             for (Heroe heroe : heroes) {
                 if (heroe.esta_vivo()) {
-                    turnoHeroe(heroe);
+                    eventos.turnoIniciado(heroe, rondas);
+                    if (heroe.puedeActuar()) turnoHeroe(heroe);
+                    else perderTurno(heroe);
 
                     if (!hayEnemigosVivos()) {
-                        vista.mostrarVictoria();
+                        terminarBatalla(ResultadoBatalla.VICTORIA);
                         return;
                     }
                 }
@@ -84,48 +178,370 @@ public class ControladorBatalla{
             // El enemigo ataca después
             for (Enemigo enemigo : enemigos) {
                 if (enemigo.esta_vivo()) {
-                    turnoEnemigo(enemigo);
+                    eventos.turnoIniciado(enemigo, rondas);
+                    if (enemigo.puedeActuar()) turnoEnemigo(enemigo);
+                    else perderTurno(enemigo);
 
                     if (!hayHeroesVivos()) {
-                        vista.mostrarDerrota();
+                        terminarBatalla(ResultadoBatalla.DERROTA);
                         return;
                     }
                 }
             }
+
+            // fin de la ronda: vencen los efectos y se guarda el punto de control si hay instantanea
+            rueda.terminarRonda(this::efectoVencido);
+            batalla.siguienteTurno();
+            if (instantanea != null) instantanea.guardar(batalla, heroes, enemigos);
+        }
+    }
+
+    private void comenzarBatalla() {
+        mostrarMensaje("¡La batalla comienza!");
+        ejecutorVista.execute(() -> {
+            vista.mostrarHeroes(heroes);
+            vista.mostrarEnemigos(enemigos);
+        });
+        mostrarMensaje("El orden de ataque es: " + ordenAtaque());
+
+        rondas = 0;
+        rueda = new RuedaEfectos();
+        rueda.vincular(heroes);
+        rueda.vincular(enemigos);
+        batalla.iniciar();
+        if (diario != null) diario.iniciarBatalla(heroes, enemigos);
+    }
+
+    // ejecutor para lo que el controlador le pide directo a la vista (dibujar los equipos,
+    // pedir una eleccion). Por defecto en el mismo hilo; la GUI pasa SwingUtilities::invokeLater
+    public void setEjecutorVista(Executor ejecutorVista) {
+        this.ejecutorVista = ejecutorVista;
+    }
+
+    // si el jugador no decide en este tiempo pierde el turno; 0 es sin limite (solo iniciarBatallaAsync)
+    public void setTiempoLimiteTurno(long tiempo, TimeUnit unidad) {
+        this.limiteTurnoMs = unidad.toMillis(tiempo);
+    }
+
+    public CompletableFuture<ResultadoBatalla> iniciarBatallaAsync() {
+        return iniciarBatallaAsync(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Igual que iniciarBatalla pero sin dejar un hilo esperando al jugador: los turnos
+     * de heroe se piden con elegirAccionAsync/seleccionarEnemigoAsync y la batalla
+     * sigue en el ejecutor cuando la vista completa la decision. Cancelar el futuro
+     * devuelto detiene la batalla y cancela la eleccion pendiente.
+     */
+    public CompletableFuture<ResultadoBatalla> iniciarBatallaAsync(Executor ejecutor) {
+        CompletableFuture<ResultadoBatalla> fin = new CompletableFuture<>();
+        fin.whenComplete((r, error) -> {
+            CompletableFuture<?> entrada = entradaPendiente;
+            if (fin.isCancelled() && entrada != null) entrada.cancel(false);
+        });
+
+        try {
+            comenzarBatalla();
+            posicion = 0;
+            avanzar(fin, ejecutor);
+        } catch (RuntimeException e) {
+            fallar(fin, e);
+        }
+        return fin;
+    }
+
+    // trampolin: juega turnos mientras no haya que esperar al jugador; si hay que
+    // esperar, se retoma desde aqui al llegar la decision, sin recursion ni hilos parados
+    private void avanzar(CompletableFuture<ResultadoBatalla> fin, Executor ejecutor) {
+        int total = heroes.length + enemigos.length;
+
+        while (!fin.isDone()) {
+            if (!hayEnemigosVivos()) {
+                terminarBatalla(ResultadoBatalla.VICTORIA);
+                fin.complete(ResultadoBatalla.VICTORIA);
+                return;
+            }
+            if (!hayHeroesVivos()) {
+                terminarBatalla(ResultadoBatalla.DERROTA);
+                fin.complete(ResultadoBatalla.DERROTA);
+                return;
+            }
+
+            if (posicion == total) {
+                rueda.terminarRonda(this::efectoVencido);
+                batalla.siguienteTurno();
+                if (instantanea != null) instantanea.guardar(batalla, heroes, enemigos);
+                posicion = 0;
+            }
+            if (posicion == 0) {
+                rondas++;
+                if (diario != null) diario.registrarRonda();
+            }
+
+            int actual = posicion++;
+            if (actual >= heroes.length) {
+                Enemigo enemigo = enemigos[actual - heroes.length];
+                if (enemigo.esta_vivo()) {
+                    eventos.turnoIniciado(enemigo, rondas);
+                    if (enemigo.puedeActuar()) turnoEnemigo(enemigo);
+                    else perderTurno(enemigo);
+                }
+                continue;
+            }
+
+            Heroe heroe = heroes[actual];
+            if (!heroe.esta_vivo()) continue;
+            eventos.turnoIniciado(heroe, rondas);
+            if (!heroe.puedeActuar()) {
+                perderTurno(heroe);
+                continue;
+            }
+            if (autoJuego != null) {
+                turnoAutomatico(heroe);
+                continue;
+            }
+
+            CompletableFuture<Integer> turno = turnoHeroeAsync(heroe);
+            if (limiteTurnoMs > 0) turno = turno.orTimeout(limiteTurnoMs, TimeUnit.MILLISECONDS);
+
+            if (!turno.isDone()) {
+                turno.whenCompleteAsync((objetivo, error) -> {
+                    // nadie mira el futuro que devuelve whenCompleteAsync: un fallo aqui
+                    // dejaria la batalla colgada si no terminara fin
+                    try {
+                        if (resolverTurnoHeroe(heroe, objetivo, error, fin)) avanzar(fin, ejecutor);
+                    } catch (RuntimeException e) {
+                        fallar(fin, e);
+                    }
+                }, ejecutor);
+                return;
+            }
+            // la vista ya respondio (ej. la terminal): se sigue en el mismo bucle
+            if (!turno.handle((objetivo, error) -> resolverTurnoHeroe(heroe, objetivo, error, fin)).join()) return;
         }
     }
 
+    // aplica la decision ya tomada; false si la batalla no debe seguir
+    private boolean resolverTurnoHeroe(Heroe heroe, Integer objetivo, Throwable error, CompletableFuture<ResultadoBatalla> fin) {
+        CompletableFuture<?> entrada = entradaPendiente;
+        entradaPendiente = null;
+        if (fin.isDone()) return false;
+
+        if (error != null) {
+            Throwable causa = error instanceof CompletionException ? error.getCause() : error;
+            if (!(causa instanceof TimeoutException)) {
+                fallar(fin, causa);
+                return false;
+            }
+            // la eleccion que seguia abierta en la vista ya no sirve
+            if (entrada != null) entrada.cancel(false);
+            mostrarMensaje(heroe.getNombre() + " no eligió a tiempo y pierde el turno.");
+            return true;
+        }
+        if (objetivo >= 0) atacarEnemigo(heroe, objetivo);
+        return true;
+    }
+
+    // la batalla no puede seguir: se avisa en la vista y quien espera fin recibe la causa
+    private void fallar(CompletableFuture<ResultadoBatalla> fin, Throwable causa) {
+        CompletableFuture<?> entrada = entradaPendiente;
+        entradaPendiente = null;
+        if (entrada != null) entrada.cancel(false);
+        if (!fin.completeExceptionally(causa)) return;
+        mostrarMensaje("La batalla se detuvo por un error: " + causa);
+        if (publicador != null) publicador.close();
+    }
+
+    // la decision del turno como futuro: el indice del enemigo a atacar, o -1 si no ataca.
+    // solo se decide aqui; el ataque lo aplica avanzar, asi una respuesta tardia no pisa otro turno
+    private CompletableFuture<Integer> turnoHeroeAsync(Heroe heroe) {
+        CompletableFuture<Integer> accion;
+        // una opcion invalida que llega enseguida (ej. la terminal) se vuelve a pedir
+        // en este bucle y no recursivamente, asi no crece la pila
+        while (true) {
+            Enemigo enemigo = primerEnemigoVivo();
+            accion = pedirEnVista(() -> {
+                vista.mostrarEstado(heroe, enemigo);
+                return vista.elegirAccionAsync(heroe);
+            });
+            if (!accion.isDone() || accion.isCompletedExceptionally() || esAccionValida(accion.join())) break;
+            mostrarMensaje("Opción inválida.");
+        }
+
+        return accion.thenCompose(elegida -> {
+            switch (elegida) {
+                case 1: // Atacar
+                    return pedirEnVista(() -> vista.seleccionarEnemigoAsync(enemigos));
+
+                case 2: // Habilidad
+                    mostrarMensaje("no esta implementada por temas de presupuesto");
+                    return CompletableFuture.completedFuture(-1);
+
+                default:
+                    // respuesta tardia: cada reintento espera otra respuesta, no apila llamadas
+                    mostrarMensaje("Opción inválida.");
+                    return turnoHeroeAsync(heroe);
+            }
+        });
+    }
+
+    private static boolean esAccionValida(int accion) {
+        return accion == 1 || accion == 2;
+    }
+
+    // pide la eleccion en el hilo de la vista y la recuerda para poder cancelarla;
+    // cancelar la respuesta cancela tambien lo que la vista dejo abierto
+    private <T> CompletableFuture<T> pedirEnVista(Supplier<CompletableFuture<T>> pedido) {
+        CompletableFuture<T> respuesta = new CompletableFuture<>();
+        entradaPendiente = respuesta;
+        ejecutorVista.execute(() -> {
+            CompletableFuture<T> entrada;
+            try {
+                entrada = pedido.get();
+            } catch (RuntimeException e) {
+                respuesta.completeExceptionally(e);
+                return;
+            }
+            entrada.whenComplete((valor, error) -> {
+                if (error != null) respuesta.completeExceptionally(error);
+                else respuesta.complete(valor);
+            });
+            respuesta.whenComplete((valor, error) -> {
+                if (respuesta.isCancelled()) entrada.cancel(false);
+            });
+        });
+        return respuesta;
+    }
+
+    private void terminarBatalla(ResultadoBatalla resultado) {
+        batalla.finalizar();
+        eventos.batallaTerminada(resultado == ResultadoBatalla.VICTORIA, rondas);
+        if (diario != null) diario.finBatalla(resultado.ordinal(), rondas);
+        if (instantanea != null) instantanea.guardar(batalla, heroes, enemigos);
+        eventos.avisar(resultado == ResultadoBatalla.VICTORIA ? AvisoVista.Aviso.VICTORIA : AvisoVista.Aviso.DERROTA, null);
+        // lo emitido ya esta encolado: el publicador lo entrega y recien despues cierra
+        if (publicador != null) publicador.close();
+    }
+
+    // lo que el controlador le pide a la vista va por los eventos, asi llega en orden
+    // con ellos aunque la vista los reciba por el publicador
+    private void mostrarMensaje(String mensaje) {
+        eventos.avisar(AvisoVista.Aviso.MENSAJE, mensaje);
+    }
+
+    private void actualizarBarras() {
+        eventos.avisar(AvisoVista.Aviso.BARRAS, null);
+    }
+
     // controla el turno de los heroes 
     private void turnoHeroe(Heroe heroe) {
-        vista.mostrarEstado(heroe, primerEnemigoVivo());
+        if (autoJuego != null) {
+            turnoAutomatico(heroe);
+            return;
+        }
+        // la opcion invalida se vuelve a pedir en un bucle: un cliente remoto que insiste
+        // no puede desbordar la pila
+        while (true) {
+            vista.mostrarEstado(heroe, primerEnemigoVivo());
+
+            int accion = vista.elegirAccion(heroe);
 
-        int accion = vista.elegirAccion(heroe);
+            switch (accion) {
+                case 1: // Atacar
+                    atacarEnemigo(heroe, vista.seleccionarEnemigo(enemigos));
+                    return;
 
-        switch (accion) {
-            case 1: // Atacar
-                int idx = vista.seleccionarEnemigo(enemigos);
-                Enemigo objetivo = enemigos[idx];
-                heroe.atacar(objetivo);
-                vista.mostrarMensaje(heroe.getNombre() + " atacó a " + objetivo.getNombre());
-                vista.actualizarBarras();
-                break;
 
+                case 2: // Habilidad
+                    mostrarMensaje("no esta implementada por temas de presupuesto");
+                    return;
+
+                default:
+                    mostrarMensaje("Opción inválida.");
+            }
+        }
+    }
 
-            case 2: // Habilidad
-                vista.mostrarMensaje("no esta implementada por temas de presupuesto");
-                break;
+    // una decision que no se puede aplicar (sin mana, objetivo muerto) pierde el turno
+    private void turnoAutomatico(Heroe heroe) {
+        DecisionTurno decision = autoJuego.decidir(heroe, heroes, enemigos);
+        if (!AccionesHeroe.aplicar(heroe, decision.getAccion(), decision.getObjetivo(), heroes, enemigos, eventos, diario)) {
+            mostrarMensaje(heroe.getNombre() + " no pudo actuar y pierde el turno.");
+        }
+        actualizarBarras();
+    }
 
-            default:
-                vista.mostrarMensaje("Opción inválida.");
-                turnoHeroe(heroe);
+    // el indice viene de la vista (o de un cliente remoto): fuera de rango se pierde el turno
+    private void atacarEnemigo(Heroe heroe, int idx) {
+        if (idx < 0 || idx >= enemigos.length) {
+            mostrarMensaje("Enemigo inválido, " + heroe.getNombre() + " pierde el turno.");
+            return;
         }
+        Enemigo objetivo = enemigos[idx];
+        int hpAntes = objetivo.getHp();
+        // un objetivo que ya estaba muerto no recibe el ataque (atacar devuelve -1)
+        if (heroe.atacar(objetivo) >= 0) {
+            if (diario != null) diario.registrarAtaque(heroe, objetivo, hpAntes - objetivo.getHp());
+            eventos.ataqueResuelto(heroe, objetivo, hpAntes - objetivo.getHp(), false);
+        }
+        actualizarBarras();
+    }
+
+    // un efecto que vencio solo tambien queda en los eventos y en el diario
+    private void efectoVencido(Personaje personaje, Tipo_Efecto efecto) {
+        if (diario != null) diario.registrarVencimiento(personaje, efecto);
+        eventos.efectoVencido(personaje, efecto, rondas);
+    }
+
+    // dormido o paralizado: el turno se pierde sin hacer nada (un jefe tampoco carga el especial)
+    private void perderTurno(Personaje personaje) {
+        mostrarMensaje(personaje.getNombre() + " no puede actuar este turno.");
     }
 
     // controla el turno "Automatico" de los enemigos
     private void turnoEnemigo(Enemigo enemigo) {
-        Heroe objetivo = primerHeroeVivo();
+        if (busquedaJefe != null && enemigo instanceof JefeEnemigo) {
+            turnoJefe((JefeEnemigo) enemigo);
+            return;
+        }
+        Heroe objetivo = MotorBatalla.provocadorVivo(enemigo);
+        if (objetivo == null) objetivo = politicaEnemigo.seleccionarObjetivo(enemigo, heroes);
+        int hpAntes = objetivo.getHp();
         enemigo.atacar(objetivo);
-        vista.mostrarMensaje(enemigo.getNombre() + " atacó a " + objetivo.getNombre());
+        if (diario != null) diario.registrarAtaque(enemigo, objetivo, hpAntes - objetivo.getHp());
+        eventos.ataqueResuelto(enemigo, objetivo, hpAntes - objetivo.getHp(), false);
+    }
+
+    // el jefe elige entre golpear, su especial o atacar a todos segun lo que encuentre la busqueda
+    private void turnoJefe(JefeEnemigo jefe) {
+        if (estadoJefe == null) estadoJefe = new EstadoCombate(heroes, enemigos);
+        else estadoJefe.cargar(heroes, enemigos);
+
+        int slot = heroes.length;
+        while (enemigos[slot - heroes.length] != jefe) slot++;
+        DecisionTurno decision = busquedaJefe.decidir(estadoJefe, slot);
+
+        if (decision.getAccion() == DecisionTurno.ATACAR_TODOS) {
+            int[] hpAntes = new int[heroes.length];
+            for (int i = 0; i < heroes.length; i++) hpAntes[i] = heroes[i].getHp();
+            jefe.atacarATodos(heroes);
+            for (int i = 0; i < heroes.length; i++) {
+                if (hpAntes[i] > 0) registrarGolpe(jefe, heroes[i], hpAntes[i], true);
+            }
+        } else if (decision.getAccion() != DecisionTurno.PASAR) {
+            Heroe objetivo = heroes[decision.getObjetivo()];
+            int hpAntes = objetivo.getHp();
+            boolean especial = decision.getAccion() == DecisionTurno.HABILIDAD;
+            if (especial) jefe.usarHabilidadEspecial(objetivo);
+            else jefe.atacar(objetivo);
+            registrarGolpe(jefe, objetivo, hpAntes, especial);
+        }
+        jefe.terminarTurno();
+    }
+
+    private void registrarGolpe(Personaje atacante, Personaje objetivo, int hpAntes, boolean especial) {
+        if (diario != null) diario.registrarAtaque(atacante, objetivo, hpAntes - objetivo.getHp());
+        eventos.ataqueResuelto(atacante, objetivo, hpAntes - objetivo.getHp(), especial);
     }
 
     private boolean hayHeroesVivos() {
@@ -140,11 +556,6 @@ public class ControladorBatalla{
         return false;
     }
 
-    private Heroe primerHeroeVivo() {
-        for (Heroe h : heroes) if (h.esta_vivo()) return h;
-        return null;
-    }
-
     private Enemigo primerEnemigoVivo() {
         for (Enemigo e : enemigos) if (e.esta_vivo()) return e;
         return null;
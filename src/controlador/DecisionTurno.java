@@ -0,0 +1,77 @@
+package controlador;
+
+/**
+ * Lo que decide un bando para el personaje que tiene el turno: una accion y el
+ * indice del objetivo dentro del equipo contrario. Es inmutable; las decisiones
+ * sin objetivo (PASAR, ATACAR_TODOS) usan -1.
+ *
+ * Las habilidades concretas de los heroes (CURAR en adelante) apuntan al equipo
+ * contrario o al propio segun esSobreAliado.
+ */
+public final class DecisionTurno {
+
+    public static final int PASAR = 0;
+    public static final int ATACAR = PoliticaHeroe.ATACAR;
+    public static final int HABILIDAD = PoliticaHeroe.HABILIDAD;
+    // solo jefes con el especial cargado: golpea a todo el equipo contrario
+    public static final int ATACAR_TODOS = 3;
+
+    // habilidades de heroe sobre un aliado
+    public static final int CURAR = 4;
+    public static final int REVIVIR = 5;
+    public static final int RESTAURAR_MANA = 6;
+    public static final int DEFENDER = 7;
+    public static final int REFORZAR = 8;
+    // habilidades de heroe sobre un enemigo
+    public static final int PROVOCAR = 9;
+    public static final int DORMIR = 10;
+    public static final int PARALIZAR = 11;
+
+    private static final String[] NOMBRES = {
+        "PASAR", "ATACAR", "HABILIDAD", "ATACAR_TODOS", "CURAR", "REVIVIR", "RESTAURAR_MANA",
+        "DEFENDER", "REFORZAR", "PROVOCAR", "DORMIR", "PARALIZAR"
+    };
+
+    public static final DecisionTurno PASA = new DecisionTurno(PASAR, -1);
+    public static final DecisionTurno A_TODOS = new DecisionTurno(ATACAR_TODOS, -1);
+
+    private final int accion;
+    private final int objetivo;
+
+    private DecisionTurno(int accion, int objetivo) {
+        this.accion = accion;
+        this.objetivo = objetivo;
+    }
+
+    public static DecisionTurno atacar(int objetivo) {
+        return new DecisionTurno(ATACAR, objetivo);
+    }
+
+    public static DecisionTurno habilidad(int objetivo) {
+        return new DecisionTurno(HABILIDAD, objetivo);
+    }
+
+    // cualquier accion con su objetivo, para quien las genera por codigo (ej. las busquedas)
+    public static DecisionTurno de(int accion, int objetivo) {
+        if (accion < PASAR || accion > PARALIZAR) {
+            throw new IllegalArgumentException("Accion desconocida: " + accion);
+        }
+        if (accion == PASAR) return PASA;
+        if (accion == ATACAR_TODOS) return A_TODOS;
+        return new DecisionTurno(accion, objetivo);
+    }
+
+    // true si el objetivo es un indice del equipo propio
+    public static boolean esSobreAliado(int accion) {
+        return accion >= CURAR && accion <= REFORZAR;
+    }
+
+    public int getAccion() { return accion; }
+    public int getObjetivo() { return objetivo; }
+
+    @Override
+    public String toString() {
+        if (accion == PASAR || accion == ATACAR_TODOS) return NOMBRES[accion];
+        return NOMBRES[accion] + " " + objetivo;
+    }
+}
@@ -0,0 +1,37 @@
+package controlador;
+
+import modelo.Enemigo;
+import modelo.Heroe;
+import modelo.Personaje;
+
+/**
+ * Quien decide los turnos de un bando: el mismo contrato sirve para heroes y para
+ * enemigos, asi cualquiera de los dos lados puede ser un jugador, una politica
+ * automatica o una conexion remota. Las politicas existentes se adaptan con de(...).
+ */
+public interface EntradaTurno {
+
+    // actor es el personaje del bando que tiene el turno
+    DecisionTurno decidir(Personaje actor, Heroe[] heroes, Enemigo[] enemigos);
+
+
+    static EntradaTurno de(PoliticaHeroe politica) {
+        return (actor, heroes, enemigos) -> {
+            Heroe heroe = (Heroe) actor;
+            int accion = politica.elegirAccion(heroe, heroes, enemigos);
+            if (accion == PoliticaHeroe.ATACAR) return DecisionTurno.atacar(politica.seleccionarEnemigo(heroe, enemigos));
+            if (accion == PoliticaHeroe.HABILIDAD) return DecisionTurno.habilidad(-1);
+            return DecisionTurno.PASA;
+        };
+    }
+
+    static EntradaTurno de(PoliticaEnemigo politica) {
+        return (actor, heroes, enemigos) -> {
+            Heroe objetivo = politica.seleccionarObjetivo((Enemigo) actor, heroes);
+            for (int i = 0; i < heroes.length; i++) {
+                if (heroes[i] == objetivo) return DecisionTurno.atacar(i);
+            }
+            return DecisionTurno.PASA;
+        };
+    }
+}
@@ -0,0 +1,166 @@
+package controlador;
+
+import eventos.EmisorEventos;
+import eventos.OyenteBatalla;
+import modelo.Enemigo;
+import modelo.Heroe;
+import modelo.JefeEnemigo;
+import modelo.Personaje;
+import modelo.RuedaEfectos;
+import modelo.Tipo_Efecto;
+import persistencia.DiarioBatalla;
+
+/**
+ * Ejecuta el mismo bucle de turnos que ControladorBatalla pero sin ninguna vista:
+ * las decisiones las toman una PoliticaHeroe y una PoliticaEnemigo y no se arma
+ * ningun texto. Sirve para simulaciones y corridas de balance sin un usuario.
+ * Los jefes no buscan: usan el especial cada vez que lo tienen cargado.
+ */
+public class MotorBatalla {
+
+    // tope de seguridad por si las politicas nunca atacan (ej. solo eligen HABILIDAD)
+    public static final int MAX_RONDAS = 10_000;
+
+    private final Heroe[] heroes;
+    private final Enemigo[] enemigos;
+    private final PoliticaHeroe politicaHeroe;
+    private final PoliticaEnemigo politicaEnemigo;
+    private int rondas;
+    private DiarioBatalla diario;
+    private final EmisorEventos eventos = new EmisorEventos();
+    private RuedaEfectos rueda;
+
+    public MotorBatalla(Heroe[] heroes, Enemigo[] enemigos) {
+        this(heroes, enemigos, PoliticaHeroe.PRIMER_ENEMIGO_VIVO, PoliticaEnemigo.PRIMER_HEROE_VIVO);
+    }
+
+    public MotorBatalla(Heroe[] heroes, Enemigo[] enemigos, PoliticaHeroe politicaHeroe, PoliticaEnemigo politicaEnemigo) {
+        this.heroes = heroes;
+        this.enemigos = enemigos;
+        this.politicaHeroe = politicaHeroe;
+        this.politicaEnemigo = politicaEnemigo;
+    }
+
+    // opcional: si hay diario cada accion queda registrada en binario
+    public void setDiario(DiarioBatalla diario) {
+        this.diario = diario;
+    }
+
+    // sin oyentes (lo normal en simulaciones) emitir eventos no cuesta nada
+    public void agregarOyente(OyenteBatalla oyente) {
+        eventos.agregarOyente(oyente);
+    }
+
+    // corre la batalla completa, los personajes quedan con el estado final
+    public ResultadoBatalla ejecutar() {
+        rondas = 0;
+        rueda = new RuedaEfectos();
+        rueda.vincular(heroes);
+        rueda.vincular(enemigos);
+        if (diario != null) diario.iniciarBatalla(heroes, enemigos);
+
+        ResultadoBatalla resultado = jugar();
+
+        eventos.batallaTerminada(resultado == ResultadoBatalla.VICTORIA, rondas);
+        if (diario != null) diario.finBatalla(resultado.ordinal(), rondas);
+        return resultado;
+    }
+
+    private ResultadoBatalla jugar() {
+        while (hayVivos(heroes) && hayVivos(enemigos)) {
+            if (rondas == MAX_RONDAS) return ResultadoBatalla.LIMITE_RONDAS;
+            rondas++;
+            if (diario != null) diario.registrarRonda();
+
+            for (Heroe heroe : heroes) {
+                if (heroe.esta_vivo()) {
+                    eventos.turnoIniciado(heroe, rondas);
+                    if (heroe.puedeActuar()) turnoHeroe(heroe);
+
+                    if (!hayVivos(enemigos)) return ResultadoBatalla.VICTORIA;
+                }
+            }
+
+            for (Enemigo enemigo : enemigos) {
+                if (enemigo.esta_vivo()) {
+                    eventos.turnoIniciado(enemigo, rondas);
+                    if (enemigo.puedeActuar()) turnoEnemigo(enemigo);
+
+                    if (!hayVivos(heroes)) return ResultadoBatalla.DERROTA;
+                }
+            }
+            rueda.terminarRonda(this::efectoVencido);
+        }
+        return hayVivos(heroes) ? ResultadoBatalla.VICTORIA : ResultadoBatalla.DERROTA;
+    }
+
+    // a diferencia del controlador una accion invalida no se vuelve a pedir,
+    // una politica deterministica la repetiria para siempre: el heroe pierde el turno
+    private void turnoHeroe(Heroe heroe) {
+        int accion = politicaHeroe.elegirAccion(heroe, heroes, enemigos);
+
+        if (accion == PoliticaHeroe.ATACAR) {
+            int idx = politicaHeroe.seleccionarEnemigo(heroe, enemigos);
+            if (idx >= 0 && idx < enemigos.length) {
+                Enemigo objetivo = enemigos[idx];
+                int hpAntes = objetivo.getHp();
+                if (heroe.atacar(objetivo) >= 0) {
+                    if (diario != null) diario.registrarAtaque(heroe, objetivo, hpAntes - objetivo.getHp());
+                    eventos.ataqueResuelto(heroe, objetivo, hpAntes - objetivo.getHp(), false);
+                }
+            }
+        }
+    }
+
+    private void turnoEnemigo(Enemigo enemigo) {
+        Heroe objetivo = provocadorVivo(enemigo);
+        if (objetivo == null) objetivo = politicaEnemigo.seleccionarObjetivo(enemigo, heroes);
+        if (objetivo == null) return;
+
+        int hpAntes = objetivo.getHp();
+        // un jefe con el especial cargado lo usa, igual que en SimuladorLote
+        JefeEnemigo jefe = enemigo instanceof JefeEnemigo ? (JefeEnemigo) enemigo : null;
+        boolean especial = jefe != null && jefe.especialCargado();
+        if (especial) jefe.usarHabilidadEspecial(objetivo);
+        else enemigo.atacar(objetivo);
+        if (jefe != null) jefe.terminarTurno();
+        if (diario != null) diario.registrarAtaque(enemigo, objetivo, hpAntes - objetivo.getHp());
+        eventos.ataqueResuelto(enemigo, objetivo, hpAntes - objetivo.getHp(), especial);
+    }
+
+    // rondas completas o parciales jugadas en la ultima ejecucion
+    public int getRondas() { return rondas; }
+
+    public Heroe[] getHeroes() { return heroes; }
+    public Enemigo[] getEnemigos() { return enemigos; }
+
+    public int getHpHeroes() {
+        int total = 0;
+        for (Heroe h : heroes) total += h.getHp();
+        return total;
+    }
+
+    public int getHpEnemigos() {
+        int total = 0;
+        for (Enemigo e : enemigos) total += e.getHp();
+        return total;
+    }
+
+    // un enemigo provocado golpea a quien lo provoco mientras siga vivo, sin importar la politica
+    static Heroe provocadorVivo(Enemigo enemigo) {
+        Personaje p = enemigo.getProvocador();
+        return enemigo.estaProvocado() && p instanceof Heroe && p.esta_vivo() ? (Heroe) p : null;
+    }
+
+    static boolean hayVivos(Personaje[] personajes) {
+        for (Personaje p : personajes)
+            if (p.esta_vivo()) return true;
+        return false;
+    }
+
+    // un efecto que vencio solo tambien queda en los eventos y en el diario
+    private void efectoVencido(Personaje personaje, Tipo_Efecto efecto) {
+        if (diario != null) diario.registrarVencimiento(personaje, efecto);
+        eventos.efectoVencido(personaje, efecto, rondas);
+    }
+}
@@ -0,0 +1,208 @@
+package controlador;
+
+import eventos.EmisorEventos;
+import eventos.OyenteBatalla;
+import modelo.Enemigo;
+import modelo.Heroe;
+import modelo.JefeEnemigo;
+import modelo.Personaje;
+import modelo.RuedaEfectos;
+import modelo.Tipo_Efecto;
+import persistencia.DiarioBatalla;
+
+/**
+ * El bucle de turnos de ControladorBatalla convertido en una maquina de estados:
+ * en vez de pedir la decision y bloquearse, la partida queda esperando en el actor
+ * actual y avanza cuando alguien llama aplicar(). Asi un solo hilo puede llevar
+ * muchas partidas a la vez, cada una al ritmo de sus jugadores.
+ *
+ * Mismo orden que el controlador: en cada ronda los heroes vivos en orden y luego
+ * los enemigos vivos; quien esta dormido o paralizado se saltea. Los slots siguen la convencion del diario: heroes en
+ * [0, heroes) y enemigos a continuacion.
+ */
+public class PartidaPorPasos {
+
+    private final Heroe[] heroes;
+    private final Enemigo[] enemigos;
+    private final EmisorEventos eventos = new EmisorEventos();
+    private DiarioBatalla diario;
+    private RuedaEfectos rueda;
+
+    private int ronda;
+    private int slot = -1;
+    private ResultadoBatalla resultado;
+
+    public PartidaPorPasos(Heroe[] heroes, Enemigo[] enemigos) {
+        this.heroes = heroes;
+        this.enemigos = enemigos;
+    }
+
+    public void agregarOyente(OyenteBatalla oyente) {
+        eventos.agregarOyente(oyente);
+    }
+
+    public void setDiario(DiarioBatalla diario) {
+        this.diario = diario;
+    }
+
+    // arranca la primera ronda y deja la partida esperando al primer actor
+    public void comenzar() {
+        ronda = 0;
+        slot = -1;
+        resultado = null;
+        rueda = new RuedaEfectos();
+        rueda.vincular(heroes);
+        rueda.vincular(enemigos);
+        if (diario != null) diario.iniciarBatalla(heroes, enemigos);
+        avanzar();
+    }
+
+    /**
+     * Aplica la decision del bando que tiene el turno. Devuelve false si la decision
+     * no es valida (objetivo fuera de rango o muerto); en ese caso la partida no
+     * cambia y el mismo actor sigue esperando. Los heroes pueden usar las habilidades
+     * concretas de DecisionTurno; HABILIDAD a secas, igual que en el controlador,
+     * gasta el turno sin efecto.
+     */
+    public boolean aplicar(int accion, int objetivo) {
+        if (resultado != null) return false;
+
+        if (slot < heroes.length) {
+            Heroe heroe = heroes[slot];
+            if (accion == DecisionTurno.ATACAR) {
+                if (!objetivoValido(enemigos, objetivo)) return false;
+                Enemigo e = enemigos[objetivo];
+                int hpAntes = e.getHp();
+                heroe.atacar(e);
+                resolver(heroe, e, hpAntes, false);
+            } else if (accion >= DecisionTurno.CURAR) {
+                if (!AccionesHeroe.aplicar(heroe, accion, objetivo, heroes, enemigos, eventos, diario)) return false;
+            } else if (accion != DecisionTurno.HABILIDAD && accion != DecisionTurno.PASAR) {
+                return false;
+            }
+        } else {
+            Enemigo enemigo = enemigos[slot - heroes.length];
+            if (accion == DecisionTurno.ATACAR || accion == DecisionTurno.HABILIDAD) {
+                // provocado: el golpe va al provocador, elija lo que elija el bando
+                Heroe h = MotorBatalla.provocadorVivo(enemigo);
+                if (h == null) {
+                    if (!objetivoValido(heroes, objetivo)) return false;
+                    h = heroes[objetivo];
+                }
+                int hpAntes = h.getHp();
+                // el especial de un jefe solo sale cuando esta cargado, si no es un ataque comun
+                boolean especial = accion == DecisionTurno.HABILIDAD && enemigo instanceof JefeEnemigo
+                        && ((JefeEnemigo) enemigo).debeUsarHabilidadEspecial();
+                if (especial) enemigo.usarHabilidadEspecial(h);
+                else enemigo.atacar(h);
+                resolver(enemigo, h, hpAntes, especial);
+            } else if (accion == DecisionTurno.ATACAR_TODOS) {
+                if (!(enemigo instanceof JefeEnemigo) || !((JefeEnemigo) enemigo).especialCargado()) return false;
+                int[] hpAntes = new int[heroes.length];
+                for (int i = 0; i < heroes.length; i++) hpAntes[i] = heroes[i].getHp();
+                ((JefeEnemigo) enemigo).atacarATodos(heroes);
+                for (int i = 0; i < heroes.length; i++) {
+                    if (hpAntes[i] > 0) resolver(enemigo, heroes[i], hpAntes[i], true);
+                }
+            } else if (accion != DecisionTurno.PASAR) {
+                return false;
+            }
+            if (enemigo instanceof JefeEnemigo) ((JefeEnemigo) enemigo).terminarTurno();
+        }
+        avanzar();
+        return true;
+    }
+
+    public boolean aplicar(DecisionTurno decision) {
+        return aplicar(decision.getAccion(), decision.getObjetivo());
+    }
+
+    /**
+     * Juega la partida completa pidiendo cada turno a la entrada del bando que
+     * corresponde. Como en MotorBatalla, una decision invalida hace perder el turno
+     * en vez de volver a pedirse.
+     */
+    public ResultadoBatalla jugar(EntradaTurno entradaHeroes, EntradaTurno entradaEnemigos) {
+        comenzar();
+        while (resultado == null) {
+            EntradaTurno entrada = esTurnoDeHeroes() ? entradaHeroes : entradaEnemigos;
+            if (!aplicar(entrada.decidir(getActor(), heroes, enemigos))) aplicar(DecisionTurno.PASA);
+        }
+        return resultado;
+    }
+
+    private static boolean objetivoValido(Personaje[] equipo, int objetivo) {
+        return objetivo >= 0 && objetivo < equipo.length && equipo[objetivo].esta_vivo();
+    }
+
+    private void resolver(Personaje atacante, Personaje objetivo, int hpAntes, boolean especial) {
+        int daño = hpAntes - objetivo.getHp();
+        if (diario != null) diario.registrarAtaque(atacante, objetivo, daño);
+        eventos.ataqueResuelto(atacante, objetivo, daño, especial);
+    }
+
+    // pasa al siguiente personaje vivo, abriendo ronda si hace falta, o termina la partida
+    private void avanzar() {
+        int total = heroes.length + enemigos.length;
+        while (true) {
+            if (!MotorBatalla.hayVivos(enemigos)) {
+                terminar(ResultadoBatalla.VICTORIA);
+                return;
+            }
+            if (!MotorBatalla.hayVivos(heroes)) {
+                terminar(ResultadoBatalla.DERROTA);
+                return;
+            }
+
+            slot++;
+            if (slot == total) rueda.terminarRonda(this::efectoVencido);
+            if (slot == total || ronda == 0) {
+                if (ronda == MotorBatalla.MAX_RONDAS) {
+                    terminar(ResultadoBatalla.LIMITE_RONDAS);
+                    return;
+                }
+                slot = 0;
+                ronda++;
+                if (diario != null) diario.registrarRonda();
+            }
+
+            // dormido o paralizado pierde el turno sin esperar decision
+            Personaje actor = getActor();
+            if (actor.esta_vivo() && actor.puedeActuar()) {
+                eventos.turnoIniciado(actor, ronda);
+                return;
+            }
+        }
+    }
+
+    private void terminar(ResultadoBatalla fin) {
+        resultado = fin;
+        eventos.batallaTerminada(fin == ResultadoBatalla.VICTORIA, ronda);
+        if (diario != null) diario.finBatalla(fin.ordinal(), ronda);
+    }
+
+    public boolean estaTerminada() { return resultado != null; }
+
+    // null mientras la partida sigue
+    public ResultadoBatalla getResultado() { return resultado; }
+
+    public int getRonda() { return ronda; }
+
+    // slot del actor que espera decision
+    public int getSlotActor() { return slot; }
+
+    public Personaje getActor() {
+        return slot < heroes.length ? heroes[slot] : enemigos[slot - heroes.length];
+    }
+
+    public boolean esTurnoDeHeroes() { return slot < heroes.length; }
+
+    public Heroe[] getHeroes() { return heroes; }
+    public Enemigo[] getEnemigos() { return enemigos; }
+
+    // un efecto que vencio solo tambien queda en los eventos y en el diario
+    private void efectoVencido(Personaje personaje, Tipo_Efecto efecto) {
+        if (diario != null) diario.registrarVencimiento(personaje, efecto);
+        eventos.efectoVencido(personaje, efecto, ronda);
+    }
+}
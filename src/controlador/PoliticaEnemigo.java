@@ -0,0 +1,29 @@
+package controlador;
+
+import modelo.Enemigo;
+import modelo.GeneradorAleatorio;
+import modelo.Heroe;
+
+/**
+ * Decide a que heroe ataca un enemigo en su turno automatico.
+ */
+public interface PoliticaEnemigo {
+
+    Heroe seleccionarObjetivo(Enemigo enemigo, Heroe[] heroes);
+
+
+    // el comportamiento original de turnoEnemigo: golpear al primer heroe vivo
+    PoliticaEnemigo PRIMER_HEROE_VIVO = (enemigo, heroes) -> {
+        for (Heroe h : heroes) if (h.esta_vivo()) return h;
+        return null;
+    };
+
+    // un heroe vivo al azar con el generador del hilo, varias simulaciones
+    // en paralelo no compiten por un mismo generador
+    PoliticaEnemigo HEROE_ALEATORIO = heroeAleatorio(GeneradorAleatorio.delHilo());
+
+    // un heroe vivo al azar con el generador dado; con semilla la batalla se puede repetir
+    static PoliticaEnemigo heroeAleatorio(GeneradorAleatorio aleatorio) {
+        return (enemigo, heroes) -> enemigo.buscarHeroeVivo(heroes, aleatorio);
+    }
+}
@@ -0,0 +1,36 @@
+package controlador;
+
+import modelo.Enemigo;
+import modelo.Heroe;
+
+/**
+ * Decide la accion de un heroe cuando no hay una vista preguntandole al usuario.
+ * Usa los mismos codigos de accion que VistaJuego.elegirAccion.
+ */
+public interface PoliticaHeroe {
+
+    int ATACAR = 1;
+    int HABILIDAD = 2;
+
+    int elegirAccion(Heroe heroe, Heroe[] heroes, Enemigo[] enemigos);
+
+    // indice dentro de enemigos, igual que VistaJuego.seleccionarEnemigo
+    int seleccionarEnemigo(Heroe heroe, Enemigo[] enemigos);
+
+
+    // politica por defecto: siempre ataca al primer enemigo vivo
+    PoliticaHeroe PRIMER_ENEMIGO_VIVO = new PoliticaHeroe() {
+        @Override
+        public int elegirAccion(Heroe heroe, Heroe[] heroes, Enemigo[] enemigos) {
+            return ATACAR;
+        }
+
+        @Override
+        public int seleccionarEnemigo(Heroe heroe, Enemigo[] enemigos) {
+            for (int i = 0; i < enemigos.length; i++) {
+                if (enemigos[i].esta_vivo()) return i;
+            }
+            return 0;
+        }
+    };
+}
@@ -0,0 +1,10 @@
+package controlador;
+
+/**
+ * Como termino una batalla ejecutada por MotorBatalla.
+ */
+public enum ResultadoBatalla {
+    VICTORIA,       // no quedan enemigos vivos
+    DERROTA,        // no quedan heroes vivos
+    LIMITE_RONDAS   // se corto la batalla por exceder el maximo de rondas
+}
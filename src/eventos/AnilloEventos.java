@@ -0,0 +1,201 @@
+package eventos;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import modelo.Enemigo;
+import modelo.Heroe;
+import modelo.Personaje;
+
+/**
+ * Anillo de eventos para espectadores. La batalla escribe cada evento una sola
+ * vez (un unico productor, sin locks ni esperas) y cualquier cantidad de
+ * LectorAnillo lo recorre a su ritmo. El productor nunca espera a nadie: si un
+ * lector se atrasa mas que la capacidad, sus eventos se pisan y al notarlo salta
+ * al ultimo fotograma clave (la vida de todos al empezar una ronda o un turno).
+ *
+ * Cada evento ocupa una fila de enteros con los slots de los personajes (heroes en
+ * [0, heroes) y enemigos despues). La fila lleva un numero de secuencia que se
+ * marca como invalido mientras se escribe, asi el lector detecta si leyo una fila
+ * a medio pisar y la descarta.
+ *
+ * Se conecta como un oyente mas: controlador.agregarOyente(anillo).
+ */
+public class AnilloEventos implements OyenteBatalla {
+
+    // columnas de cada fila: tipo y hasta cuatro campos
+    static final int ANCHO = 8;
+    static final int TIPO = 0, A = 1, B = 2, C = 3, D = 4;
+
+    static final int FOTOGRAMAS = 4;
+    private static final long ESCRIBIENDO = -1;
+    // reintentos de leerFotograma antes de ceder el procesador al productor
+    private static final int INTENTOS_ACTIVOS = 64;
+
+    private final Heroe[] heroes;
+    private final Enemigo[] enemigos;
+    private final int mascara;
+
+    private final int[] filas;
+    private final AtomicLongArray secuencias;
+    // ultima secuencia publicada, -1 si todavia no hubo eventos
+    private final AtomicLong cursor = new AtomicLong(-1);
+
+    // fotogramas clave: vida de cada slot y la secuencia desde la que valen
+    private final int[][] vidas;
+    private final AtomicLongArray sellos;
+    private final AtomicLong ultimoFotograma = new AtomicLong(-1);
+    private int rondaActual = -1;
+
+    // solo lo toca el productor
+    private long siguiente;
+    private long desdeUltimo;
+
+    public AnilloEventos(Heroe[] heroes, Enemigo[] enemigos, int capacidad) {
+        if (Integer.bitCount(capacidad) != 1) throw new IllegalArgumentException("La capacidad debe ser potencia de 2.");
+        this.heroes = heroes;
+        this.enemigos = enemigos;
+        this.mascara = capacidad - 1;
+        this.filas = new int[capacidad * ANCHO];
+        this.secuencias = new AtomicLongArray(capacidad);
+        for (int i = 0; i < capacidad; i++) secuencias.set(i, ESCRIBIENDO);
+
+        this.vidas = new int[FOTOGRAMAS][heroes.length + enemigos.length];
+        this.sellos = new AtomicLongArray(FOTOGRAMAS);
+        tomarFotograma(0);
+    }
+
+    @Override
+    public void alEvento(EventoBatalla evento) {
+        switch (evento.getTipo()) {
+            case TURNO_INICIADO: {
+                TurnoIniciado t = (TurnoIniciado) evento;
+                // cada ronda nueva es un punto seguro para que un lector atrasado retome
+                if (t.getRonda() != rondaActual) {
+                    rondaActual = t.getRonda();
+                    tomarFotograma(siguiente);
+                }
+                publicar(EventoBatalla.Tipo.TURNO_INICIADO, slotDe(t.getActor()), t.getRonda(), 0, 0);
+                break;
+            }
+            case ATAQUE_RESUELTO: {
+                AtaqueResuelto a = (AtaqueResuelto) evento;
+                publicar(EventoBatalla.Tipo.ATAQUE_RESUELTO, slotDe(a.getAtacante()), slotDe(a.getObjetivo()),
+                        a.getDaño(), a.esEspecial() ? 1 : 0);
+                break;
+            }
+            case ESTADO_APLICADO: {
+                EstadoAplicado e = (EstadoAplicado) evento;
+                publicar(EventoBatalla.Tipo.ESTADO_APLICADO, slotDe(e.getOrigen()), slotDe(e.getObjetivo()),
+                        e.getEfecto().ordinal(), e.getTurnos());
+                break;
+            }
+            case PERSONAJE_DERROTADO: {
+                PersonajeDerrotado d = (PersonajeDerrotado) evento;
+                publicar(EventoBatalla.Tipo.PERSONAJE_DERROTADO, slotDe(d.getDerrotado()), slotDe(d.getVencedor()), 0, 0);
+                break;
+            }
+            case EFECTO_VENCIDO: {
+                EfectoVencido v = (EfectoVencido) evento;
+                publicar(EventoBatalla.Tipo.EFECTO_VENCIDO, slotDe(v.getPersonaje()), v.getEfecto().ordinal(), v.getRonda(), 0);
+                break;
+            }
+            case BATALLA_TERMINADA: {
+                BatallaTerminada f = (BatallaTerminada) evento;
+                publicar(EventoBatalla.Tipo.BATALLA_TERMINADA, f.esVictoria() ? 1 : 0, f.getRondas(), 0, 0);
+                break;
+            }
+        }
+    }
+
+    private void publicar(EventoBatalla.Tipo tipo, int a, int b, int c, int d) {
+        long sec = siguiente++;
+        int i = (int) sec & mascara;
+        int base = i * ANCHO;
+
+        secuencias.set(i, ESCRIBIENDO);
+        VarHandle.storeStoreFence();
+        filas[base + TIPO] = tipo.ordinal();
+        filas[base + A] = a;
+        filas[base + B] = b;
+        filas[base + C] = c;
+        filas[base + D] = d;
+        secuencias.lazySet(i, sec);
+        cursor.lazySet(sec);
+
+        // una ronda muy larga no puede dejar sin fotograma a lo que sigue en el anillo.
+        // la vida ya incluye este evento, asi que el fotograma vale desde el siguiente
+        if (siguiente - desdeUltimo >= (mascara + 1) / 2) tomarFotograma(siguiente);
+    }
+
+    // copia la vida actual de todos; vale para los eventos desde la secuencia indicada
+    private void tomarFotograma(long desde) {
+        long numero = ultimoFotograma.get() + 1;
+        int f = (int) (numero % FOTOGRAMAS);
+        desdeUltimo = desde;
+        int[] vida = vidas[f];
+
+        sellos.set(f, ESCRIBIENDO);
+        VarHandle.storeStoreFence();
+        for (int i = 0; i < heroes.length; i++) vida[i] = heroes[i].getHp();
+        for (int i = 0; i < enemigos.length; i++) vida[heroes.length + i] = enemigos[i].getHp();
+        sellos.lazySet(f, desde);
+        ultimoFotograma.lazySet(numero);
+    }
+
+    private int slotDe(Personaje p) {
+        for (int i = 0; i < heroes.length; i++) if (heroes[i] == p) return i;
+        for (int i = 0; i < enemigos.length; i++) if (enemigos[i] == p) return heroes.length + i;
+        return -1;
+    }
+
+    public LectorAnillo nuevoLector() {
+        return new LectorAnillo(this);
+    }
+
+    public int getCapacidad() { return mascara + 1; }
+    public int getHeroes() { return heroes.length; }
+    public int getPersonajes() { return heroes.length + enemigos.length; }
+
+    public String getNombre(int slot) {
+        return slot < heroes.length ? heroes[slot].getNombre() : enemigos[slot - heroes.length].getNombre();
+    }
+
+    // para los lectores, todos en el mismo paquete
+
+    long getCursor() { return cursor.get(); }
+
+    // copia la fila de la secuencia dada en destino; false si ya fue pisada
+    boolean leer(long sec, int[] destino) {
+        int i = (int) sec & mascara;
+        if (secuencias.get(i) != sec) return false;
+        System.arraycopy(filas, i * ANCHO, destino, 0, ANCHO);
+        VarHandle.loadLoadFence();
+        return secuencias.get(i) == sec;
+    }
+
+    // copia el ultimo fotograma completo en vida y devuelve su secuencia de inicio.
+    // si el productor esta escribiendo el ultimo se usa el anterior, que ya esta entero:
+    // el lector solo vuelve a aplicar algunos eventos mas
+    long leerFotograma(int[] vida) {
+        for (int intento = 0; ; intento++) {
+            long numero = ultimoFotograma.get();
+            int f = (int) (numero % FOTOGRAMAS);
+            long desde = sellos.get(f);
+            if (desde == ESCRIBIENDO && numero > 0) {
+                f = (int) ((numero - 1) % FOTOGRAMAS);
+                desde = sellos.get(f);
+            }
+            if (desde != ESCRIBIENDO) {
+                System.arraycopy(vidas[f], 0, vida, 0, vida.length);
+                VarHandle.loadLoadFence();
+                if (sellos.get(f) == desde) return desde;
+            }
+            // el productor dio toda la vuelta mientras se copiaba: se reintenta sin
+            // acaparar el nucleo, y pasados unos intentos se le cede el procesador
+            if (intento < INTENTOS_ACTIVOS) Thread.onSpinWait();
+            else Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package eventos;
+
+import modelo.Personaje;
+
+/**
+ * Un ataque ya aplicado. daño es la vida que realmente perdio el objetivo.
+ */
+public final class AtaqueResuelto extends EventoBatalla {
+
+    private Personaje atacante;
+    private Personaje objetivo;
+    private int daño;
+    private boolean especial;
+
+    public AtaqueResuelto() {
+        super(Tipo.ATAQUE_RESUELTO);
+    }
+
+    AtaqueResuelto preparar(Personaje atacante, Personaje objetivo, int daño, boolean especial) {
+        this.atacante = atacante;
+        this.objetivo = objetivo;
+        this.daño = daño;
+        this.especial = especial;
+        return this;
+    }
+
+    public Personaje getAtacante() { return atacante; }
+    public Personaje getObjetivo() { return objetivo; }
+    public int getDaño() { return daño; }
+
+    // true si fue una habilidad especial y no un ataque basico
+    public boolean esEspecial() { return especial; }
+
+    @Override
+    public AtaqueResuelto copiar() {
+        return new AtaqueResuelto().preparar(atacante, objetivo, daño, especial);
+    }
+}
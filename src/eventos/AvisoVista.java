@@ -0,0 +1,33 @@
+package eventos;
+
+/**
+ * Pedido del controlador a la vista que no es una accion de la batalla: un
+ * mensaje, repintar las barras o la pantalla de victoria o derrota. Viaja con los
+ * demas eventos para que la vista lo reciba en el mismo orden, tambien cuando le
+ * llegan por el publicador en otro hilo. texto solo se usa en MENSAJE.
+ */
+public final class AvisoVista extends EventoBatalla {
+
+    public enum Aviso { MENSAJE, BARRAS, VICTORIA, DERROTA }
+
+    private Aviso aviso;
+    private String texto;
+
+    public AvisoVista() {
+        super(Tipo.AVISO_VISTA);
+    }
+
+    AvisoVista preparar(Aviso aviso, String texto) {
+        this.aviso = aviso;
+        this.texto = texto;
+        return this;
+    }
+
+    public Aviso getAviso() { return aviso; }
+    public String getTexto() { return texto; }
+
+    @Override
+    public AvisoVista copiar() {
+        return new AvisoVista().preparar(aviso, texto);
+    }
+}
@@ -0,0 +1,28 @@
+package eventos;
+
+/**
+ * La batalla termino; victoria es true si ganaron los heroes.
+ */
+public final class BatallaTerminada extends EventoBatalla {
+
+    private boolean victoria;
+    private int rondas;
+
+    public BatallaTerminada() {
+        super(Tipo.BATALLA_TERMINADA);
+    }
+
+    BatallaTerminada preparar(boolean victoria, int rondas) {
+        this.victoria = victoria;
+        this.rondas = rondas;
+        return this;
+    }
+
+    public boolean esVictoria() { return victoria; }
+    public int getRondas() { return rondas; }
+
+    @Override
+    public BatallaTerminada copiar() {
+        return new BatallaTerminada().preparar(victoria, rondas);
+    }
+}
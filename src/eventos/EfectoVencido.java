@@ -0,0 +1,36 @@
+package eventos;
+
+import modelo.Personaje;
+import modelo.Tipo_Efecto;
+
+/**
+ * Un efecto de estado que se termino solo al cerrar la ronda en que vencia.
+ */
+public final class EfectoVencido extends EventoBatalla {
+
+    private Personaje personaje;
+    private Tipo_Efecto efecto;
+    private int ronda;
+
+    public EfectoVencido() {
+        super(Tipo.EFECTO_VENCIDO);
+    }
+
+    EfectoVencido preparar(Personaje personaje, Tipo_Efecto efecto, int ronda) {
+        this.personaje = personaje;
+        this.efecto = efecto;
+        this.ronda = ronda;
+        return this;
+    }
+
+    public Personaje getPersonaje() { return personaje; }
+    public Tipo_Efecto getEfecto() { return efecto; }
+
+    // la ronda que termino
+    public int getRonda() { return ronda; }
+
+    @Override
+    public EfectoVencido copiar() {
+        return new EfectoVencido().preparar(personaje, efecto, ronda);
+    }
+}
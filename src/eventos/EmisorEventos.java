@@ -0,0 +1,81 @@
+package eventos;
+
+import modelo.Personaje;
+import modelo.Tipo_Efecto;
+
+/**
+ * Reparte los eventos de una batalla a sus oyentes. Tiene una sola instancia de
+ * cada tipo de evento y la rellena en cada emision; si no hay oyentes no hace nada.
+ * No es seguro entre hilos: cada batalla tiene su propio emisor.
+ */
+public class EmisorEventos {
+
+    private OyenteBatalla[] oyentes = new OyenteBatalla[0];
+
+    private final TurnoIniciado turno = new TurnoIniciado();
+    private final AtaqueResuelto ataque = new AtaqueResuelto();
+    private final EstadoAplicado estado = new EstadoAplicado();
+    private final PersonajeDerrotado derrota = new PersonajeDerrotado();
+    private final BatallaTerminada fin = new BatallaTerminada();
+    private final AvisoVista aviso = new AvisoVista();
+    private final EfectoVencido vencido = new EfectoVencido();
+
+    public void agregarOyente(OyenteBatalla oyente) {
+        OyenteBatalla[] nuevos = new OyenteBatalla[oyentes.length + 1];
+        System.arraycopy(oyentes, 0, nuevos, 0, oyentes.length);
+        nuevos[oyentes.length] = oyente;
+        oyentes = nuevos;
+    }
+
+    public void quitarOyente(OyenteBatalla oyente) {
+        for (int i = 0; i < oyentes.length; i++) {
+            if (oyentes[i] == oyente) {
+                OyenteBatalla[] nuevos = new OyenteBatalla[oyentes.length - 1];
+                System.arraycopy(oyentes, 0, nuevos, 0, i);
+                System.arraycopy(oyentes, i + 1, nuevos, i, oyentes.length - i - 1);
+                oyentes = nuevos;
+                return;
+            }
+        }
+    }
+
+    public boolean hayOyentes() {
+        return oyentes.length > 0;
+    }
+
+    public void turnoIniciado(Personaje actor, int ronda) {
+        if (oyentes.length == 0) return;
+        emitir(turno.preparar(actor, ronda));
+    }
+
+    // si el golpe dejo al objetivo sin vida se emite tambien PersonajeDerrotado
+    public void ataqueResuelto(Personaje atacante, Personaje objetivo, int daño, boolean especial) {
+        if (oyentes.length == 0) return;
+        emitir(ataque.preparar(atacante, objetivo, daño, especial));
+        if (daño > 0 && !objetivo.esta_vivo()) emitir(derrota.preparar(objetivo, atacante));
+    }
+
+    public void estadoAplicado(Personaje origen, Personaje objetivo, EstadoAplicado.Efecto efecto, int turnos) {
+        if (oyentes.length == 0) return;
+        emitir(estado.preparar(origen, objetivo, efecto, turnos));
+    }
+
+    public void efectoVencido(Personaje personaje, Tipo_Efecto efecto, int ronda) {
+        if (oyentes.length == 0) return;
+        emitir(vencido.preparar(personaje, efecto, ronda));
+    }
+
+    public void batallaTerminada(boolean victoria, int rondas) {
+        if (oyentes.length == 0) return;
+        emitir(fin.preparar(victoria, rondas));
+    }
+
+    public void avisar(AvisoVista.Aviso tipo, String texto) {
+        if (oyentes.length == 0) return;
+        emitir(aviso.preparar(tipo, texto));
+    }
+
+    private void emitir(EventoBatalla evento) {
+        for (OyenteBatalla o : oyentes) o.alEvento(evento);
+    }
+}
@@ -0,0 +1,50 @@
+package eventos;
+
+import modelo.Personaje;
+
+/**
+ * Un efecto de estado que se aplico (o se limpio) sobre un personaje.
+ */
+public final class EstadoAplicado extends EventoBatalla {
+
+    public enum Efecto {
+        PARALISIS,
+        SUEÑO,
+        PROVOCACION,
+        DEFENSA,
+        REFUERZO,
+        LIMPIEZA,
+        CURACION,
+        RESURRECCION,
+        MANA
+    }
+
+    private Personaje origen;
+    private Personaje objetivo;
+    private Efecto efecto;
+    private int turnos;
+
+    public EstadoAplicado() {
+        super(Tipo.ESTADO_APLICADO);
+    }
+
+    EstadoAplicado preparar(Personaje origen, Personaje objetivo, Efecto efecto, int turnos) {
+        this.origen = origen;
+        this.objetivo = objetivo;
+        this.efecto = efecto;
+        this.turnos = turnos;
+        return this;
+    }
+
+    public Personaje getOrigen() { return origen; }
+    public Personaje getObjetivo() { return objetivo; }
+    public Efecto getEfecto() { return efecto; }
+
+    // 0 si el efecto no tiene duracion
+    public int getTurnos() { return turnos; }
+
+    @Override
+    public EstadoAplicado copiar() {
+        return new EstadoAplicado().preparar(origen, objetivo, efecto, turnos);
+    }
+}
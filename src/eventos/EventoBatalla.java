@@ -0,0 +1,32 @@
+package eventos;
+
+/**
+ * Base de los eventos tipados que emiten el controlador y el motor de batalla.
+ * Las instancias se preasignan y se reutilizan, asi emitir un evento no reserva
+ * memoria ni arma texto; cada vista decide si lo formatea y como.
+ */
+public abstract class EventoBatalla {
+
+    public enum Tipo {
+        TURNO_INICIADO,
+        ATAQUE_RESUELTO,
+        ESTADO_APLICADO,
+        PERSONAJE_DERROTADO,
+        BATALLA_TERMINADA,
+        AVISO_VISTA,
+        EFECTO_VENCIDO
+    }
+
+    private final Tipo tipo;
+
+    protected EventoBatalla(Tipo tipo) {
+        this.tipo = tipo;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    // copia independiente para quien necesite guardar el evento despues de la llamada
+    public abstract EventoBatalla copiar();
+}
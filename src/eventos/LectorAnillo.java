@@ -0,0 +1,72 @@
+package eventos;
+
+/**
+ * Un espectador de un AnilloEventos. Avanza con su propio cursor y lleva la vida
+ * de cada slot aplicando los ataques. Cada lector debe usarse desde un solo hilo;
+ * para varios espectadores se crea un lector por cada uno.
+ *
+ * Si el productor lo pasa por encima, siguiente() salta al ultimo fotograma clave
+ * y la cantidad de eventos perdidos queda en getSaltados().
+ */
+public class LectorAnillo {
+
+    public static final int NADA = -1;
+
+    private final AnilloEventos anillo;
+    private final int[] fila = new int[AnilloEventos.ANCHO];
+    private final int[] vida;
+    private long proximo;
+    private long saltados;
+
+    LectorAnillo(AnilloEventos anillo) {
+        this.anillo = anillo;
+        this.vida = new int[anillo.getPersonajes()];
+        this.proximo = anillo.leerFotograma(vida);
+    }
+
+    /**
+     * Devuelve el ordinal de EventoBatalla.Tipo del siguiente evento, o NADA si el
+     * lector ya esta al dia. Despues de la llamada los getters describen ese evento.
+     */
+    public int siguiente() {
+        while (true) {
+            if (proximo > anillo.getCursor()) return NADA;
+            if (anillo.leer(proximo, fila)) {
+                proximo++;
+                if (fila[AnilloEventos.TIPO] == EventoBatalla.Tipo.ATAQUE_RESUELTO.ordinal()) {
+                    int objetivo = fila[AnilloEventos.B];
+                    vida[objetivo] = Math.max(0, vida[objetivo] - fila[AnilloEventos.C]);
+                }
+                return fila[AnilloEventos.TIPO];
+            }
+            // la fila ya fue pisada: se retoma desde el ultimo fotograma, que trae
+            // la vida de ese momento, y se vuelven a aplicar los eventos desde ahi
+            long desde = anillo.leerFotograma(vida);
+            saltados += Math.max(0, desde - proximo);
+            proximo = desde;
+        }
+    }
+
+    // el tipo como enum; null si no hay nada nuevo
+    public EventoBatalla.Tipo siguienteTipo() {
+        int tipo = siguiente();
+        return tipo == NADA ? null : EventoBatalla.Tipo.values()[tipo];
+    }
+
+    // TURNO_INICIADO: actor y ronda; ATAQUE_RESUELTO: atacante, objetivo, daño y especial;
+    // ESTADO_APLICADO: origen, objetivo, efecto y turnos; PERSONAJE_DERROTADO: derrotado y vencedor;
+    // EFECTO_VENCIDO: personaje, efecto (ordinal de Tipo_Efecto) y ronda; BATALLA_TERMINADA: victoria (1/0) y rondas
+    public int getCampoA() { return fila[AnilloEventos.A]; }
+    public int getCampoB() { return fila[AnilloEventos.B]; }
+    public int getCampoC() { return fila[AnilloEventos.C]; }
+    public int getCampoD() { return fila[AnilloEventos.D]; }
+
+    public int getHp(int slot) { return vida[slot]; }
+    public String getNombre(int slot) { return anillo.getNombre(slot); }
+
+    // eventos que este lector perdio por ir atrasado
+    public long getSaltados() { return saltados; }
+
+    // eventos publicados que este lector todavia no leyo
+    public long getAtraso() { return anillo.getCursor() + 1 - proximo; }
+}
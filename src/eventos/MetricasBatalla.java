@@ -0,0 +1,40 @@
+package eventos;
+
+/**
+ * Sumidero de metricas: cuenta ataques, daño, derrotas y batallas terminadas.
+ * Pensado para suscribirlo al PublicadorEventos con su propio ejecutor; solo un
+ * hilo escribe y los contadores se pueden leer desde cualquier otro.
+ */
+public class MetricasBatalla implements OyenteBatalla {
+
+    private volatile long ataques;
+    private volatile long dañoTotal;
+    private volatile long derrotados;
+    private volatile long batallas;
+    private volatile long victorias;
+
+    @Override
+    public void alEvento(EventoBatalla evento) {
+        switch (evento.getTipo()) {
+            case ATAQUE_RESUELTO:
+                ataques++;
+                dañoTotal += ((AtaqueResuelto) evento).getDaño();
+                break;
+            case PERSONAJE_DERROTADO:
+                derrotados++;
+                break;
+            case BATALLA_TERMINADA:
+                batallas++;
+                if (((BatallaTerminada) evento).esVictoria()) victorias++;
+                break;
+            default:
+                break;
+        }
+    }
+
+    public long getAtaques() { return ataques; }
+    public long getDañoTotal() { return dañoTotal; }
+    public long getDerrotados() { return derrotados; }
+    public long getBatallas() { return batallas; }
+    public long getVictorias() { return victorias; }
+}
@@ -0,0 +1,11 @@
+package eventos;
+
+/**
+ * Recibe los eventos de una batalla. El evento que llega es reutilizado por quien
+ * lo emite: solo es valido durante la llamada, si hay que guardarlo se usa copiar().
+ */
+public interface OyenteBatalla {
+
+    void alEvento(EventoBatalla evento);
+
+}
@@ -0,0 +1,30 @@
+package eventos;
+
+import modelo.Personaje;
+
+/**
+ * Un personaje quedo sin vida por la accion de otro.
+ */
+public final class PersonajeDerrotado extends EventoBatalla {
+
+    private Personaje derrotado;
+    private Personaje vencedor;
+
+    public PersonajeDerrotado() {
+        super(Tipo.PERSONAJE_DERROTADO);
+    }
+
+    PersonajeDerrotado preparar(Personaje derrotado, Personaje vencedor) {
+        this.derrotado = derrotado;
+        this.vencedor = vencedor;
+        return this;
+    }
+
+    public Personaje getDerrotado() { return derrotado; }
+    public Personaje getVencedor() { return vencedor; }
+
+    @Override
+    public PersonajeDerrotado copiar() {
+        return new PersonajeDerrotado().preparar(derrotado, vencedor);
+    }
+}
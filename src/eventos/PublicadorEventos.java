@@ -0,0 +1,79 @@
+package eventos;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * Publica los eventos de una batalla a varios suscriptores a la vez. Cada
+ * suscripcion tiene su propio ejecutor y su propio buffer acotado, asi una vista
+ * lenta no frena a las demas ni (si se elige descartar) al bucle de la batalla.
+ *
+ * Se registra como oyente del controlador o del motor; como los eventos que llegan
+ * son reutilizados, se copia cada uno una vez antes de encolarlo.
+ */
+public class PublicadorEventos implements Flow.Publisher<EventoBatalla>, OyenteBatalla, AutoCloseable {
+
+    public static final int CAPACIDAD_POR_DEFECTO = Flow.defaultBufferSize();
+
+    private final CopyOnWriteArrayList<Canal> canales = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super EventoBatalla> suscriptor) {
+        suscribir(suscriptor, ForkJoinPool.commonPool(), CAPACIDAD_POR_DEFECTO, false);
+    }
+
+    /**
+     * @param ejecutor         donde corre el suscriptor (ej. SwingUtilities::invokeLater para la GUI)
+     * @param capacidad        eventos que puede tener pendientes
+     * @param descartarSiLleno true: si el buffer esta lleno el evento se pierde para este suscriptor;
+     *                         false: la batalla espera a que haya lugar (contrapresion)
+     */
+    public void suscribir(Flow.Subscriber<? super EventoBatalla> suscriptor, Executor ejecutor,
+                          int capacidad, boolean descartarSiLleno) {
+        SubmissionPublisher<EventoBatalla> publicador = new SubmissionPublisher<>(ejecutor, capacidad);
+        publicador.subscribe(suscriptor);
+        canales.add(new Canal(publicador, descartarSiLleno));
+    }
+
+    // atajo para conectar un oyente comun como suscriptor
+    public void suscribir(OyenteBatalla oyente, Executor ejecutor, int capacidad, boolean descartarSiLleno) {
+        suscribir(new SuscriptorOyente(oyente), ejecutor, capacidad, descartarSiLleno);
+    }
+
+    @Override
+    public void alEvento(EventoBatalla evento) {
+        if (canales.isEmpty()) return;
+        EventoBatalla copia = evento.copiar();
+        for (Canal c : canales) {
+            if (c.descartarSiLleno) c.publicador.offer(copia, null);
+            else c.publicador.submit(copia);
+        }
+    }
+
+    // eventos encolados todavia sin consumir, sumando todas las suscripciones
+    public int getPendientes() {
+        int pendientes = 0;
+        for (Canal c : canales) pendientes += c.publicador.estimateMaximumLag();
+        return pendientes;
+    }
+
+    @Override
+    public void close() {
+        for (Canal c : canales) c.publicador.close();
+        canales.clear();
+    }
+
+
+    private static final class Canal {
+        final SubmissionPublisher<EventoBatalla> publicador;
+        final boolean descartarSiLleno;
+
+        Canal(SubmissionPublisher<EventoBatalla> publicador, boolean descartarSiLleno) {
+            this.publicador = publicador;
+            this.descartarSiLleno = descartarSiLleno;
+        }
+    }
+}
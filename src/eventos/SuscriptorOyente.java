@@ -0,0 +1,46 @@
+package eventos;
+
+import java.util.concurrent.Flow;
+
+/**
+ * Adapta un OyenteBatalla a Flow.Subscriber. Pide los eventos de a lotes y
+ * vuelve a pedir cuando consumio la mitad, para no ir de a uno por vuelta.
+ */
+public class SuscriptorOyente implements Flow.Subscriber<EventoBatalla> {
+
+    private static final int LOTE = 32;
+
+    private final OyenteBatalla oyente;
+    private Flow.Subscription suscripcion;
+    private int restantes;
+
+    public SuscriptorOyente(OyenteBatalla oyente) {
+        this.oyente = oyente;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription suscripcion) {
+        this.suscripcion = suscripcion;
+        restantes = LOTE;
+        suscripcion.request(LOTE);
+    }
+
+    @Override
+    public void onNext(EventoBatalla evento) {
+        oyente.alEvento(evento);
+        if (--restantes == LOTE / 2) {
+            restantes += LOTE / 2;
+            suscripcion.request(LOTE / 2);
+        }
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        // el publicador ya cancelo la suscripcion: este oyente no recibe mas eventos
+        System.err.println("Un oyente de la batalla fallo y deja de recibir eventos: " + error);
+    }
+
+    @Override
+    public void onComplete() {
+    }
+}
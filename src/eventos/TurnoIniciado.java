@@ -0,0 +1,30 @@
+package eventos;
+
+import modelo.Personaje;
+
+/**
+ * Un personaje empieza su turno dentro de la ronda indicada.
+ */
+public final class TurnoIniciado extends EventoBatalla {
+
+    private Personaje actor;
+    private int ronda;
+
+    public TurnoIniciado() {
+        super(Tipo.TURNO_INICIADO);
+    }
+
+    TurnoIniciado preparar(Personaje actor, int ronda) {
+        this.actor = actor;
+        this.ronda = ronda;
+        return this;
+    }
+
+    public Personaje getActor() { return actor; }
+    public int getRonda() { return ronda; }
+
+    @Override
+    public TurnoIniciado copiar() {
+        return new TurnoIniciado().preparar(actor, ronda);
+    }
+}
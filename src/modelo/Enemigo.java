@@ -22,6 +22,16 @@ public class Enemigo extends Personaje implements Agresivo, Jefe {
         }
     }
 
+    protected Enemigo(Enemigo otro) {
+        super(otro);
+        this.tipo = otro.tipo;
+    }
+
+    // copia independiente del enemigo, JefeEnemigo la sobreescribe para conservar su cooldown
+    public Enemigo copiar() {
+        return new Enemigo(this);
+    }
+
     // obtiene el estado de los personajes
     public String getEstado() {
         return nombre + " [" + tipo.name() + "] | HP: " + hp + " | MP: " + mp +
@@ -31,11 +41,16 @@ public class Enemigo extends Personaje implements Agresivo, Jefe {
 
 
     public static Enemigo crearEnemigo(Tipo_Enemigo tipo, String nombre) {
-        int hp = (int) (Math.random() * (tipo.getMaxHp() - tipo.getMinHp() + 1)) + tipo.getMinHp();
-        int mp = (int) (Math.random() * (tipo.getMaxMp() - tipo.getMinMp() + 1)) + tipo.getMinMp();
-        int ataque = (int) (Math.random() * (tipo.getMaxAtaque() - tipo.getMinAtaque() + 1)) + tipo.getMinAtaque();
-        int defensa = (int) (Math.random() * (tipo.getMaxDefensa() - tipo.getMinDefensa() + 1)) + tipo.getMinDefensa();
-        int velocidad = (int) (Math.random() * 20 + 10);
+        return crearEnemigo(tipo, nombre, GeneradorAleatorio.delHilo());
+    }
+
+    // con un generador con semilla el mismo tipo y nombre dan siempre el mismo enemigo
+    public static Enemigo crearEnemigo(Tipo_Enemigo tipo, String nombre, GeneradorAleatorio aleatorio) {
+        int hp = aleatorio.entre(tipo.getMinHp(), tipo.getMaxHp());
+        int mp = aleatorio.entre(tipo.getMinMp(), tipo.getMaxMp());
+        int ataque = aleatorio.entre(tipo.getMinAtaque(), tipo.getMaxAtaque());
+        int defensa = aleatorio.entre(tipo.getMinDefensa(), tipo.getMaxDefensa());
+        int velocidad = aleatorio.entre(10, 29);
         return new Enemigo(nombre, hp, mp, ataque, defensa, velocidad, tipo);
     }
 
@@ -51,6 +66,7 @@ public class Enemigo extends Personaje implements Agresivo, Jefe {
     // Implementación que respeta las interfaces (void) 
     // ya que en la clase Agresivo.java estamos manejando datos void, se crearon 2 versiones de las acciones, una que respeta el void 
     // otra que muestra el texto (String)
+    // las versiones *Resultado quedan obsoletas: el controlador emite eventos (paquete eventos) y cada vista arma su texto
 
     @Override
     public void atacar(Personaje objetivo) {
@@ -58,6 +74,7 @@ public class Enemigo extends Personaje implements Agresivo, Jefe {
     }
 
     // versión auxiliar que devuelve un mensaje
+    @Deprecated
     public String atacarResultado(Personaje objetivo) {
         if (objetivo == null || !objetivo.esta_vivo()) {
             return nombre + " no puede atacar: objetivo inválido o muerto.";
@@ -72,7 +89,7 @@ public class Enemigo extends Personaje implements Agresivo, Jefe {
     // nueva funcion que sirve para aplicar la logica del daño
     private int aplicarDañoActualizar(Personaje objetivo, int multiplicador) {
         if (objetivo == null || !objetivo.esta_vivo()) return 0;
-        int daño = this.ataque - objetivo.getDefensa();
+        int daño = getAtaque() - objetivo.getDefensa();
         if (daño < 1) daño = 1; // Daño mínimo de 1
         objetivo.recibir_daño(daño);
         return daño;
@@ -90,6 +107,7 @@ public class Enemigo extends Personaje implements Agresivo, Jefe {
     }
 
     // resultado de ataque aleatorio (donde muestra la info)
+    @Deprecated
     public String atacarAleatorioResultado(Heroe[] heroes) {
         if (!this.puedeActuar()) return nombre + " no puede actuar este turno.";
         Heroe objetivo = buscarHeroeVivo(heroes);
@@ -104,6 +122,7 @@ public class Enemigo extends Personaje implements Agresivo, Jefe {
         aplicarDañoActualizar(objetivo, 2);
     }
 
+    @Deprecated
     public String usarHabilidadEspecialResultado(Personaje objetivo) {
         if (objetivo == null || !objetivo.esta_vivo()) {
             return nombre + " no puede usar habilidad: objetivo inválido o muerto.";
@@ -118,11 +137,15 @@ public class Enemigo extends Personaje implements Agresivo, Jefe {
     // Busca y devuelve un héroe vivo aleatorio del array proporcionado
 
     public Heroe buscarHeroeVivo(Heroe[] heroes) {
+        return buscarHeroeVivo(heroes, GeneradorAleatorio.delHilo());
+    }
+
+    public Heroe buscarHeroeVivo(Heroe[] heroes, GeneradorAleatorio aleatorio) {
         if (heroes == null || heroes.length == 0) return null;
         int vivos = 0;
         for (Heroe h : heroes) if (h != null && h.esta_vivo()) vivos++;
         if (vivos == 0) return null;
-        int elegido = (int) (Math.random() * vivos);
+        int elegido = aleatorio.siguienteEntero(vivos);
         int idx = 0;
         for (Heroe h : heroes) {
             if (h != null && h.esta_vivo()) {
@@ -141,6 +164,7 @@ public class Enemigo extends Personaje implements Agresivo, Jefe {
     public void setDaño(int daño) {
         if (daño < 0) this.ataque = 0;
         else this.ataque = daño;
+        invalidar();
     }
 
     @Override
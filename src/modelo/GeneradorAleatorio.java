@@ -0,0 +1,73 @@
+package modelo;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fuente de numeros aleatorios que se le pasa a quien la necesite en lugar de
+ * llamar a Math.random(). Con una semilla la secuencia es reproducible, y dividir()
+ * entrega un flujo independiente para otro hilo sin compartir estado.
+ */
+public interface GeneradorAleatorio {
+
+    // entero uniforme en [0, limite)
+    int siguienteEntero(int limite);
+
+    // flujo independiente derivado de este, para entregarlo a otra tarea o hilo
+    GeneradorAleatorio dividir();
+
+    // entero uniforme en [min, max], igual que (int)(Math.random() * (max - min + 1)) + min;
+    // acepta los limites invertidos porque algunos rangos de Tipo_JefeEnemigo lo estan
+    default int entre(int min, int max) {
+        if (max < min) return max + siguienteEntero(min - max + 1);
+        return min + siguienteEntero(max - min + 1);
+    }
+
+
+    // generador reproducible; una instancia no debe usarse desde varios hilos a la vez
+    static GeneradorAleatorio conSemilla(long semilla) {
+        return new Divisible(new SplittableRandom(semilla));
+    }
+
+    // generador del hilo actual, sin semilla, para el juego normal
+    static GeneradorAleatorio delHilo() {
+        return DelHilo.INSTANCIA;
+    }
+
+
+    final class Divisible implements GeneradorAleatorio {
+        private final SplittableRandom random;
+
+        private Divisible(SplittableRandom random) {
+            this.random = random;
+        }
+
+        @Override
+        public int siguienteEntero(int limite) {
+            return random.nextInt(limite);
+        }
+
+        @Override
+        public GeneradorAleatorio dividir() {
+            return new Divisible(random.split());
+        }
+    }
+
+    // cada hilo usa su propio ThreadLocalRandom, asi que dividir no necesita crear nada
+    final class DelHilo implements GeneradorAleatorio {
+        private static final DelHilo INSTANCIA = new DelHilo();
+
+        private DelHilo() {
+        }
+
+        @Override
+        public int siguienteEntero(int limite) {
+            return ThreadLocalRandom.current().nextInt(limite);
+        }
+
+        @Override
+        public GeneradorAleatorio dividir() {
+            return this;
+        }
+    }
+}
@@ -2,6 +2,16 @@ package modelo;
 
 public class Heroe extends Personaje implements Sanador, Tanque, Hechicero {
 
+    // rondas que duran los efectos de las habilidades, contando la ronda en que se lanzan
+    public static final int DURACION_PARALISIS = 1;
+    public static final int DURACION_SUEÑO = 2;
+    public static final int DURACION_PROVOCACION = 2;
+    public static final int DURACION_REFUERZO = 3;
+    public static final int DURACION_DEFENSA = 3;
+
+    // el hechizo de sueño golpea antes de dormir, asi vale aunque el siguiente golpe despierte
+    public static final int DAÑO_SUEÑO = 40;
+
     private final Tipo_Heroe tipo;
 
     public Heroe(String nombre, Tipo_Heroe tipo, int hp, int mp, int ataque, int defensa, int velocidad) {
@@ -13,6 +23,16 @@ public class Heroe extends Personaje implements Sanador, Tanque, Hechicero {
         // }
     }
 
+    protected Heroe(Heroe otro) {
+        super(otro);
+        this.tipo = otro.tipo;
+    }
+
+    // copia independiente del heroe, para simular sin tocar el original
+    public Heroe copiar() {
+        return new Heroe(this);
+    }
+
     public Tipo_Heroe getTipo() {
         return tipo;
     }
@@ -25,8 +45,8 @@ public class Heroe extends Personaje implements Sanador, Tanque, Hechicero {
         if (!(tipo == Tipo_Heroe.GUERRERO || tipo == Tipo_Heroe.PALADIN)) return false;
         if (mp < 10) return false;
 
-        mp -= 10;
-        defensa += extra;
+        setMp(mp - 10);
+        aplicarEfecto(Tipo_Efecto.DEFENSA_EXTRA, DURACION_DEFENSA, extra, this);
         return true;
     }
 
@@ -35,7 +55,7 @@ public class Heroe extends Personaje implements Sanador, Tanque, Hechicero {
         if (!(tipo == Tipo_Heroe.GUERRERO || tipo == Tipo_Heroe.PALADIN)) return false;
         if (mp < 10) return false;
 
-        mp -= 10;
+        setMp(mp - 10);
 
         if (aliado.estaSiendoDefendido()) aliado.removerDefensa();
 
@@ -48,10 +68,10 @@ public class Heroe extends Personaje implements Sanador, Tanque, Hechicero {
         if (!(tipo == Tipo_Heroe.GUERRERO || tipo == Tipo_Heroe.PALADIN)) return false;
         if (mp < 5) return false;
 
-        mp -= 5;
+        setMp(mp - 5);
 
         if (enemigo.estaProvocado()) enemigo.removerProvocacion();
-        enemigo.serProvocado(this);
+        enemigo.serProvocado(this, DURACION_PROVOCACION);
         return true;
     }
 
@@ -66,12 +86,12 @@ public class Heroe extends Personaje implements Sanador, Tanque, Hechicero {
         int costo = vivos * 3;
         if (mp < costo) return false;
 
-        mp -= costo;
+        setMp(mp - costo);
 
         for (Personaje e : enemigos) {
             if (e != null && e.esta_vivo()) {
                 if (e.estaProvocado()) e.removerProvocacion();
-                e.serProvocado(this);
+                e.serProvocado(this, DURACION_PROVOCACION);
             }
         }
 
@@ -85,7 +105,7 @@ public class Heroe extends Personaje implements Sanador, Tanque, Hechicero {
         if (!(tipo == Tipo_Heroe.DRUIDA || tipo == Tipo_Heroe.PALADIN)) return false;
         if (mp < 15) return false;
 
-        mp -= 15;
+        setMp(mp - 15);
         objetivo.setHp(objetivo.getHp() + 30);
         return true;
     }
@@ -96,7 +116,7 @@ public class Heroe extends Personaje implements Sanador, Tanque, Hechicero {
         if (objetivo.esta_vivo()) return false;
         if (mp < 25) return false;
 
-        mp -= 25;
+        setMp(mp - 25);
         objetivo.setHp(50);
         return true;
     }
@@ -106,7 +126,7 @@ public class Heroe extends Personaje implements Sanador, Tanque, Hechicero {
         if (tipo != Tipo_Heroe.DRUIDA) return false;
         if (mp < 20) return false;
 
-        mp -= 20;
+        setMp(mp - 20);
         objetivo.setMp(objetivo.getMp() + 25);
         return true;
     }
@@ -126,8 +146,10 @@ public class Heroe extends Personaje implements Sanador, Tanque, Hechicero {
         if (!(tipo == Tipo_Heroe.MAGO || tipo == Tipo_Heroe.DRUIDA)) return false;
         if (mp < 20) return false;
 
-        mp -= 20;
-        objetivo.recibir_daño(40);
+        setMp(mp - 20);
+        // primero el daño, que si no lo despertaria; si ya dormia se despierta y se vuelve a dormir
+        objetivo.recibir_daño(DAÑO_SUEÑO);
+        objetivo.aplicarDormir(DURACION_SUEÑO);
         return true;
     }
 
@@ -136,8 +158,8 @@ public class Heroe extends Personaje implements Sanador, Tanque, Hechicero {
         if (!(tipo == Tipo_Heroe.MAGO || tipo == Tipo_Heroe.DRUIDA)) return false;
         if (mp < 20) return false;
 
-        mp -= 20;
-        objetivo.aumentarAtaque(60);
+        setMp(mp - 20);
+        objetivo.aplicarEfecto(Tipo_Efecto.REFUERZO, DURACION_REFUERZO, 60, this);
         return true;
     }
 
@@ -146,8 +168,8 @@ public class Heroe extends Personaje implements Sanador, Tanque, Hechicero {
         if (!(tipo == Tipo_Heroe.MAGO || tipo == Tipo_Heroe.DRUIDA)) return false;
         if (mp < 25) return false;
 
-        mp -= 25;
-        objetivo.aplicarParalisis(1);
+        setMp(mp - 25);
+        objetivo.aplicarParalisis(DURACION_PARALISIS);
         return true;
     }
 
@@ -156,7 +178,7 @@ public class Heroe extends Personaje implements Sanador, Tanque, Hechicero {
     public int atacar(Personaje objetivo) {
         if (objetivo == null || !objetivo.esta_vivo()) return -1;
 
-        int daño = ataque - objetivo.getDefensa();
+        int daño = getAtaque() - objetivo.getDefensa();
         if (daño < 1) daño = 1;
 
         objetivo.recibir_daño(daño);
@@ -14,6 +14,17 @@ public class JefeEnemigo extends Enemigo {
         this.turnosHastaEspecial = this.cooldownEspecial;
     }
 
+    protected JefeEnemigo(JefeEnemigo otro) {
+        super(otro);
+        this.cooldownEspecial = otro.cooldownEspecial;
+        this.turnosHastaEspecial = otro.turnosHastaEspecial;
+    }
+
+    @Override
+    public JefeEnemigo copiar() {
+        return new JefeEnemigo(this);
+    }
+
     /**
      * Actuación del jefe SIN manejar consola ni elegir objetivos.
      * El controlador debe decidir el objetivo.
@@ -58,6 +69,35 @@ public class JefeEnemigo extends Enemigo {
         return;
     }
 
+    // el especial y el ataque a todos comparten la misma carga
+    public boolean especialCargado() {
+        return turnosHastaEspecial <= 0;
+    }
+
+    /**
+     * Ataque grupal: golpea a todos los vivos con el doble de ataque. No imprime;
+     * el controlador compara la vida de antes y despues para informar.
+     */
+    public void atacarATodos(Personaje[] objetivos) {
+        for (Personaje objetivo : objetivos) {
+            if (objetivo == null || !objetivo.esta_vivo()) continue;
+            int daño = this.getAtaque() * 2 - objetivo.getDefensa();
+            if (daño < 1) daño = 1;
+            objetivo.recibir_daño(daño);
+        }
+    }
+
+    public int getTurnosHastaEspecial() {
+        return turnosHastaEspecial;
+    }
+
+    /**
+     * Solo para restaurar un estado guardado o simulado.
+     */
+    public void setTurnosHastaEspecial(int turnos) {
+        this.turnosHastaEspecial = Math.max(0, turnos);
+    }
+
     /**
      * Devuelve cada cuántos turnos ejecuta su habilidad especial
      */
@@ -69,6 +109,7 @@ public class JefeEnemigo extends Enemigo {
     /**
      * Ataque grupal. No imprime.
      * Devuelve el daño base que se aplicará a cada enemigo.
+     * Sin objetivos no hace nada: el controlador usa atacarATodos(Personaje[]).
      */
     @Override
     public void AtacarATodos() {
@@ -6,11 +6,15 @@ package modelo;
 public class JefeFactory {
 
     public static JefeEnemigo crearJefe(Tipo_JefeEnemigo tipo, String nombre) {
-        int hp = (int)(Math.random() * (tipo.getMaxHp() - tipo.getMinHp() + 1)) + tipo.getMinHp();
-        int mp = (int)(Math.random() * (tipo.getMaxMp() - tipo.getMinMp() + 1)) + tipo.getMinMp();
-        int ataque = (int)(Math.random() * (tipo.getMaxAtaque() - tipo.getMinAtaque() + 1)) + tipo.getMinAtaque();
-        int defensa = (int)(Math.random() * (tipo.getMaxDefensa() - tipo.getMinDefensa() + 1)) + tipo.getMinDefensa();
-        int velocidad = (int)(Math.random() * (tipo.getMaxVelocidad() - tipo.getMinVelocidad() + 1)) + tipo.getMinVelocidad();
+        return crearJefe(tipo, nombre, GeneradorAleatorio.delHilo());
+    }
+
+    public static JefeEnemigo crearJefe(Tipo_JefeEnemigo tipo, String nombre, GeneradorAleatorio aleatorio) {
+        int hp = numeroAleatorio(tipo.getMinHp(), tipo.getMaxHp(), aleatorio);
+        int mp = numeroAleatorio(tipo.getMinMp(), tipo.getMaxMp(), aleatorio);
+        int ataque = numeroAleatorio(tipo.getMinAtaque(), tipo.getMaxAtaque(), aleatorio);
+        int defensa = numeroAleatorio(tipo.getMinDefensa(), tipo.getMaxDefensa(), aleatorio);
+        int velocidad = numeroAleatorio(tipo.getMinVelocidad(), tipo.getMaxVelocidad(), aleatorio);
 
         // Usamos Tipo_Enemigo por compatibilidad con el constructor de Enemigo/JefeEnemigo
         Tipo_Enemigo tipoSimple = Tipo_Enemigo.DRAGON; // fallback
@@ -39,8 +43,8 @@ public class JefeFactory {
         );
     }
 
-    private static int numeroAleatorio(int min, int max) {
-        return (int)(Math.random() * (max - min + 1)) + min;
+    private static int numeroAleatorio(int min, int max, GeneradorAleatorio aleatorio) {
+        return aleatorio.entre(min, max);
     }
 }
 
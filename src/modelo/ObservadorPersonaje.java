@@ -0,0 +1,10 @@
+package modelo;
+
+/**
+ * Se entera cuando cambia la vida o el mana de un personaje, para que una vista
+ * actualice solo lo que cambio. Se llama en el hilo que aplico el cambio.
+ */
+public interface ObservadorPersonaje {
+
+    void alCambiar(Personaje personaje);
+}
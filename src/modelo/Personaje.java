@@ -1,42 +1,102 @@
 package modelo;
 
+import java.util.Arrays;
+
 public abstract class Personaje {
 
     protected String nombre;
     protected int hp;
+    // la vida con la que se creo; ni los golpes ni las curas la cambian
+    private int hpMaximo;
     protected int mp;
+    // atributos base, sin refuerzos; quien los cambie tiene que llamar a invalidar()
     protected int ataque;
     protected int defensa;
     protected int velocidad;
     protected boolean esta_vivo = true;
-    protected boolean esta_paralizado = false;
 
-    protected int turnosParalisis = 0; // turnos restantes de parálisis
-    protected boolean siendo_defendido = false;
-    protected int turnosSueno = 0; // turnos restantes de sueño
-    protected boolean esta_provocado = false;
+    // efectos activos, un bit por Tipo_Efecto
+    protected int efectos = 0;
+    // ronda al final de la cual vence cada efecto activo (SIN_VENCIMIENTO si no vence solo)
+    private final int[] vence = new int[Tipo_Efecto.CANTIDAD];
+    // cuanto suma cada refuerzo a su atributo; 0 si el efecto no esta activo
+    private final int[] magnitud = new int[Tipo_Efecto.CANTIDAD];
     protected Personaje provocador = null;
     protected Personaje defensor = null;
-    protected boolean esta_durmiendo = false;
+    // la rueda de la batalla en curso; sin rueda los efectos no vencen
+    private RuedaEfectos rueda;
+
+    // atributos efectivos (base mas refuerzos; defensaTotal suma ademas la del defensor vivo).
+    // no se recalculan en cada golpe: un cambio de efectos, de base o de vida del defensor
+    // marca sucio y se recalculan en la siguiente lectura
+    private int ataqueEfectivo;
+    private int defensaEfectiva;
+    private int velocidadEfectiva;
+    private int defensaTotal;
+    private boolean sucio = true;
+
+    // a quienes defiende este personaje: su defensaTotal depende de la defensa y la vida de este
+    private Personaje[] protegidos = new Personaje[0];
+    private int cantidadProtegidos;
+
+    // quien escucha los cambios de vida y mana (normalmente la vista); null en simulaciones
+    private ObservadorPersonaje observador;
+
     public String getNombre() { return nombre; }
     public int getHp() { return hp; }
+    public int getHpMaximo() { return hpMaximo; }
     public int getMp() { return mp; }
-    public int getAtaque() { return ataque; }
-    public int getDefensa() { return defensa; }
-    public int getVelocidad() { return velocidad; }
+    public int getAtaque() {
+        if (sucio) recalcular();
+        return ataqueEfectivo;
+    }
+
+    public int getDefensa() {
+        if (sucio) recalcular();
+        return defensaEfectiva;
+    }
+
+    public int getVelocidad() {
+        if (sucio) recalcular();
+        return velocidadEfectiva;
+    }
+
+    // defensa propia mas la del tanque que lo defiende, la que se resta a cada golpe recibido
+    public int getDefensaTotal() {
+        if (sucio) recalcular();
+        return defensaTotal;
+    }
+
+    // sin los refuerzos activos
+    public int getAtaqueBase() { return ataque; }
+    public int getDefensaBase() { return defensa; }
+    public int getVelocidadBase() { return velocidad; }
     public void setHp(int valor) {
+        int antes = hp;
+        boolean estabaVivo = esta_vivo;
         hp = Math.max(0, valor);
         esta_vivo = hp > 0;
-        if (!esta_vivo) removerDefensa();
+        if (!esta_vivo) quitarEfectos();
+        // un defensor que cae (o se levanta) cambia la defensa de los que protege
+        if (esta_vivo != estabaVivo) invalidar();
+        if (observador != null && hp != antes) observador.alCambiar(this);
     }
 
     public void setMp(int valor) {
+        int antes = mp;
         mp = Math.max(0, valor);
+        if (observador != null && mp != antes) observador.alCambiar(this);
+    }
+
+    // un solo observador; las copias para simular no lo heredan
+    public void setObservador(ObservadorPersonaje observador) {
+        this.observador = observador;
     }
 
     public Personaje(String nombre, int hp, int mp, int ataque, int defensa, int velocidad) {
         this.nombre = nombre;
         this.hp = hp;
+        this.hpMaximo = hp;
         this.mp = mp;
         this.ataque = ataque;
         this.defensa = defensa;
@@ -44,92 +104,235 @@ public abstract class Personaje {
         this.esta_vivo = hp > 0;
     }
 
-    public boolean esta_vivo() { return esta_vivo; }
-    public boolean estaParalizado() { return esta_paralizado; }
-    public boolean estaDurmiendo() { return esta_durmiendo; }
-    public boolean estaSiendoDefendido() { return siendo_defendido; }
-    public boolean estaProvocado() { return esta_provocado; }
+    // constructor copia para simulaciones: copia atributos y efectos con las rondas que les quedan,
+    // los enlaces a defensor/provocador no se copian porque apuntarian al equipo original
+    protected Personaje(Personaje otro) {
+        this(otro.nombre, otro.hp, otro.mp, otro.ataque, otro.defensa, otro.velocidad);
+        hpMaximo = otro.hpMaximo;
+        for (Tipo_Efecto t : Tipo_Efecto.values()) {
+            if (!otro.tieneEfecto(t) || t == Tipo_Efecto.PROVOCACION || t == Tipo_Efecto.DEFENDIDO) continue;
+            efectos |= t.bit();
+            vence[t.ordinal()] = otro.getRondasRestantes(t);
+            magnitud[t.ordinal()] = otro.magnitud[t.ordinal()];
+        }
+    }
 
-    public int recibir_daño(int cantidad) {
+    public int getTurnosParalisis() { return getRondasRestantes(Tipo_Efecto.PARALISIS); }
+    public int getTurnosSueno() { return getRondasRestantes(Tipo_Efecto.SUEÑO); }
 
-        int defensaTotal = defensa;
+    // para restaurar un estado simulado o guardado, no para aplicar efectos en combate
+    public void setTurnosParalisis(int turnos) { restaurarBloqueo(Tipo_Efecto.PARALISIS, turnos); }
+    public void setTurnosSueno(int turnos) { restaurarBloqueo(Tipo_Efecto.SUEÑO, turnos); }
 
-        // Si está siendo defendido por un tanque, aplicar defensa combinada
-        if (siendo_defendido && defensor != null && defensor.esta_vivo) {
-            defensaTotal += defensor.getDefensa();
-        }
+    private void restaurarBloqueo(Tipo_Efecto tipo, int turnos) {
+        quitarEfecto(tipo);
+        if (turnos > 0) aplicarEfecto(tipo, turnos, 0, null);
+    }
 
-        int dañoFinal = cantidad - defensaTotal;
+    public boolean esta_vivo() { return esta_vivo; }
+    public boolean estaParalizado() { return tieneEfecto(Tipo_Efecto.PARALISIS); }
+    public boolean estaDurmiendo() { return tieneEfecto(Tipo_Efecto.SUEÑO); }
+    public boolean estaSiendoDefendido() { return tieneEfecto(Tipo_Efecto.DEFENDIDO); }
+    public boolean estaProvocado() { return tieneEfecto(Tipo_Efecto.PROVOCACION); }
+
+    public int recibir_daño(int cantidad) {
+
+        // Si está siendo defendido por un tanque, la defensa total ya incluye la suya
+        int dañoFinal = cantidad - getDefensaTotal();
 
         // Daño mínimo de 1
         if (dañoFinal < 1) dañoFinal = 1;
 
         setHp(hp - dañoFinal);
 
-        // Si muere, se borra la defensa
-        if (!esta_vivo) removerDefensa();
+        // lo que termina con un golpe (ej. el sueño) se va; si muere setHp ya borro los efectos
+        for (int m = efectos & Tipo_Efecto.TERMINAN_CON_GOLPE; m != 0; m &= m - 1) {
+            quitarEfecto(Tipo_Efecto.deOrdinal(Integer.numberOfTrailingZeros(m)));
+        }
 
         return dañoFinal;  // La vista decide cómo mostrarlo
     }
 
-    protected void aumentarAtaque(int aumento) {
-        if (aumento > 0) ataque += aumento;
-    }
-
     // efectos
 
-    public void aplicarParalisis(int turnos) {
-        if (turnos > 0) {
-            this.turnosParalisis = Math.max(this.turnosParalisis, turnos);
+    /**
+     * Aplica un efecto por rondas (SIN_VENCIMIENTO para que dure hasta que se quite)
+     * siguiendo su regla de acumulacion. magnitud es lo que suma un refuerzo a su
+     * atributo y origen quien lo aplica, que queda como provocador o defensor.
+     * Devuelve false si no tuvo efecto: objetivo muerto, IGNORAR sobre un efecto ya
+     * activo, o un efecto que hace perder el turno sin duracion (siempre tienen que vencer).
+     */
+    public boolean aplicarEfecto(Tipo_Efecto tipo, int rondas, int magnitud, Personaje origen) {
+        if (!esta_vivo) return false;
+        if (tipo.bloqueaTurno() && rondas <= 0) return false;
+
+        int i = tipo.ordinal();
+        int nuevo = rondas > 0 ? rondaActual() + rondas - 1 : Tipo_Efecto.SIN_VENCIMIENTO;
+        if (tieneEfecto(tipo)) {
+            switch (tipo.getAcumulacion()) {
+                case IGNORAR:
+                    return false;
+                case RENOVAR:
+                    nuevo = masLejano(vence[i], nuevo);
+                    magnitud = Math.max(this.magnitud[i], magnitud);
+                    break;
+                case SUMAR:
+                    nuevo = masLejano(vence[i], nuevo);
+                    magnitud += this.magnitud[i];
+                    break;
+                default:
+                    break;
+            }
         }
+        efectos |= tipo.bit();
+        this.magnitud[i] = magnitud;
+        if (tipo == Tipo_Efecto.PROVOCACION) provocador = origen;
+        else if (tipo == Tipo_Efecto.DEFENDIDO) cambiarDefensor(origen);
+        invalidar();
+
+        vence[i] = nuevo;
+        // la anotacion anterior en la rueda queda vieja y se descarta sola al llegar su ronda
+        if (rueda != null && nuevo != Tipo_Efecto.SIN_VENCIMIENTO) rueda.programar(this, tipo, nuevo);
+        return true;
     }
 
-    public boolean aplicarDormir() {
-        if (!esta_vivo) return false;
-        esta_durmiendo = true;
-        return true;
+    // sin el efecto no hay nada que quitar ni que recalcular (ej. cada golpe intenta despertar)
+    public void quitarEfecto(Tipo_Efecto tipo) {
+        if (!tieneEfecto(tipo)) return;
+        int i = tipo.ordinal();
+        efectos &= ~tipo.bit();
+        vence[i] = Tipo_Efecto.SIN_VENCIMIENTO;
+        magnitud[i] = 0;
+        if (tipo == Tipo_Efecto.PROVOCACION) provocador = null;
+        else if (tipo == Tipo_Efecto.DEFENDIDO) cambiarDefensor(null);
+        invalidar();
     }
 
-    public void limpiarEfectos() {
-        esta_paralizado = false;
-        esta_durmiendo  = false;
-        esta_provocado  = false;
-        provocador = null;
+    // quita todos los efectos, positivos y negativos
+    public void quitarEfectos() {
+        for (Tipo_Efecto t : Tipo_Efecto.values()) if (tieneEfecto(t)) quitarEfecto(t);
     }
 
-    public boolean puedeActuar() {
+    public boolean tieneEfecto(Tipo_Efecto tipo) { return (efectos & tipo.bit()) != 0; }
+    public int getEfectos() { return efectos; }
+    public int getMagnitud(Tipo_Efecto tipo) { return magnitud[tipo.ordinal()]; }
 
-        // Parálisis
-        if (turnosParalisis > 0) {
-            turnosParalisis--;
-            return false;
+    // rondas que le quedan contando la actual; SIN_VENCIMIENTO si no esta activo o no vence solo
+    public int getRondasRestantes(Tipo_Efecto tipo) {
+        int v = vence[tipo.ordinal()];
+        if (!tieneEfecto(tipo) || v == Tipo_Efecto.SIN_VENCIMIENTO) return Tipo_Efecto.SIN_VENCIMIENTO;
+        return v - rondaActual() + 1;
+    }
+
+    // atributos efectivos
+
+    /**
+     * Marca los atributos efectivos para recalcular, los propios y la defensa total
+     * de los que defiende. Alcanza con un nivel: la defensa total de un protegido
+     * solo suma la defensa efectiva de su defensor, no la total.
+     */
+    protected void invalidar() {
+        sucio = true;
+        for (int i = 0; i < cantidadProtegidos; i++) protegidos[i].sucio = true;
+    }
+
+    private void recalcular() {
+        ataqueEfectivo = ataque + magnitud[Tipo_Efecto.REFUERZO.ordinal()];
+        defensaEfectiva = defensa + magnitud[Tipo_Efecto.DEFENSA_EXTRA.ordinal()];
+        velocidadEfectiva = velocidad;
+        // limpio antes de leer al defensor: con dos tanques que se defienden entre si
+        // el otro vuelve a pedir nuestra defensa, que ya esta calculada
+        sucio = false;
+        defensaTotal = defensaEfectiva;
+        if (defensor != null && defensor.esta_vivo) defensaTotal += defensor.getDefensa();
+    }
+
+    // mantiene la lista de protegidos del defensor anterior y del nuevo
+    private void cambiarDefensor(Personaje nuevo) {
+        if (defensor == nuevo) return;
+        if (defensor != null) defensor.quitarProtegido(this);
+        defensor = nuevo;
+        if (nuevo != null) nuevo.agregarProtegido(this);
+    }
+
+    private void agregarProtegido(Personaje p) {
+        if (cantidadProtegidos == protegidos.length) {
+            protegidos = Arrays.copyOf(protegidos, Math.max(2, cantidadProtegidos * 2));
         }
+        protegidos[cantidadProtegidos++] = p;
+    }
 
-        // Sueño
-        if (turnosSueno > 0) {
-            turnosSueno--;
-            return false;
+    private void quitarProtegido(Personaje p) {
+        for (int i = 0; i < cantidadProtegidos; i++) {
+            if (protegidos[i] != p) continue;
+            protegidos[i] = protegidos[--cantidadProtegidos];
+            protegidos[cantidadProtegidos] = null;
+            return;
         }
+    }
 
+    // la rueda avisa que termino la ronda en que vencia; false si el efecto ya se habia renovado o quitado
+    boolean vencer(Tipo_Efecto tipo, int ronda) {
+        if (!tieneEfecto(tipo) || vence[tipo.ordinal()] != ronda) return false;
+        quitarEfecto(tipo);
         return true;
     }
 
+    // al pasar a otra rueda los efectos conservan las rondas que les quedan
+    void setRueda(RuedaEfectos nueva) {
+        int antes = rondaActual();
+        rueda = nueva;
+        int ahora = rondaActual();
+        for (Tipo_Efecto t : Tipo_Efecto.values()) {
+            int i = t.ordinal();
+            if (!tieneEfecto(t) || vence[i] == Tipo_Efecto.SIN_VENCIMIENTO) continue;
+            vence[i] += ahora - antes;
+            if (rueda != null) rueda.programar(this, t, vence[i]);
+        }
+    }
+
+    // sin rueda se cuenta como si siempre fuera la primera ronda
+    private int rondaActual() {
+        return rueda != null ? rueda.getRonda() : 1;
+    }
+
+    private static int masLejano(int a, int b) {
+        if (a == Tipo_Efecto.SIN_VENCIMIENTO || b == Tipo_Efecto.SIN_VENCIMIENTO) return Tipo_Efecto.SIN_VENCIMIENTO;
+        return Math.max(a, b);
+    }
+
+    public void aplicarParalisis(int turnos) {
+        aplicarEfecto(Tipo_Efecto.PARALISIS, turnos, 0, null);
+    }
+
+    public boolean aplicarDormir(int turnos) {
+        return aplicarEfecto(Tipo_Efecto.SUEÑO, turnos, 0, null);
+    }
+
+    // saca los efectos negativos (parálisis, sueño, provocación); los refuerzos quedan
+    public void limpiarEfectos() {
+        for (Tipo_Efecto t : Tipo_Efecto.values()) {
+            if (t.esNegativo() && tieneEfecto(t)) quitarEfecto(t);
+        }
+    }
+
+    // no consume nada: la rueda descuenta las rondas de los efectos
+    public boolean puedeActuar() {
+        return (efectos & Tipo_Efecto.BLOQUEAN_TURNO) == 0;
+    }
+
     public boolean puedeAtacar() {
-        return esta_vivo && (turnosParalisis == 0) && (turnosSueno == 0);
+        return esta_vivo && puedeActuar();
     }
 
     // defensa
 
     public boolean recibirDefensa(Personaje tanque) {
-        if (!esta_vivo) return false;
-        siendo_defendido = true;
-        defensor = tanque;
-        return true;
+        return aplicarEfecto(Tipo_Efecto.DEFENDIDO, Tipo_Efecto.SIN_VENCIMIENTO, 0, tanque);
     }
 
     public void removerDefensa() {
-        siendo_defendido = false;
-        defensor = null;
+        quitarEfecto(Tipo_Efecto.DEFENDIDO);
     }
 
     public Personaje getDefensor() { return defensor; }
@@ -137,21 +340,21 @@ public abstract class Personaje {
     // provocacion
 
     public boolean serProvocado(Personaje tanque) {
-        if (!esta_vivo) return false;
-        esta_provocado = true;
-        provocador = tanque;
-        return true;
+        return serProvocado(tanque, Tipo_Efecto.SIN_VENCIMIENTO);
+    }
+
+    public boolean serProvocado(Personaje tanque, int rondas) {
+        return aplicarEfecto(Tipo_Efecto.PROVOCACION, rondas, 0, tanque);
     }
 
     public void removerProvocacion() {
-        esta_provocado = false;
-        provocador = null;
+        quitarEfecto(Tipo_Efecto.PROVOCACION);
     }
 
     public Personaje getProvocador() { return provocador; }
 
     public Personaje seleccionarObjetivo(Personaje[] posibles) {
-        if (esta_provocado && provocador != null && provocador.esta_vivo) {
+        if (estaProvocado() && provocador != null && provocador.esta_vivo) {
             return provocador;
         }
         for (Personaje p : posibles) {
@@ -164,7 +367,7 @@ public abstract class Personaje {
         Personaje obj = seleccionarObjetivo(posibles);
         if (obj == null) return -1;
 
-        int daño = ataque - obj.getDefensa();
+        int daño = getAtaque() - obj.getDefensa();
         if (daño < 1) daño = 1;
 
         obj.recibir_daño(daño);
@@ -0,0 +1,94 @@
+package modelo;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Rueda de tiempos de una batalla: cada efecto con duracion se anota en la ranura
+ * de la ronda en que vence, y al terminar una ronda solo se recorre esa ranura.
+ * Asi cerrar la ronda cuesta lo que vence en ella y no personajes por tipos de efecto.
+ *
+ * Las ranuras son RANURAS rondas; un efecto mas largo queda en su ranura y se salta
+ * en las vueltas anteriores. Si un efecto se renueva o se limpia antes de tiempo la
+ * anotacion vieja no se borra: al llegar su ronda se ve que ya no corresponde.
+ */
+public class RuedaEfectos {
+
+    private static final int RANURAS = 64;
+    private static final int MASCARA = RANURAS - 1;
+    // values() copia el arreglo en cada llamada
+    private static final Tipo_Efecto[] TIPOS = Tipo_Efecto.values();
+
+    private final Personaje[][] personajes = new Personaje[RANURAS][4];
+    private final byte[][] tipos = new byte[RANURAS][4];
+    private final int[][] vencimientos = new int[RANURAS][4];
+    private final int[] cantidad = new int[RANURAS];
+
+    private int ronda = 1;
+
+    // ronda en curso; los efectos aplicados ahora con duracion n vencen al terminar la ronda + n - 1
+    public int getRonda() {
+        return ronda;
+    }
+
+    // los personajes usan esta rueda desde ahora; los efectos que ya tenian siguen con lo que les quedaba
+    public void vincular(Personaje... equipo) {
+        for (Personaje p : equipo) if (p != null) p.setRueda(this);
+    }
+
+    /**
+     * Cierra la ronda en curso: quita los efectos que vencen en ella y pasa a la
+     * siguiente. Devuelve cuantos efectos vencieron.
+     */
+    public int terminarRonda() {
+        return terminarRonda(null);
+    }
+
+    /**
+     * Igual que terminarRonda() pero avisa cada efecto que vence, asi quien lleva la
+     * batalla lo puede emitir como evento y anotarlo en el diario.
+     */
+    public int terminarRonda(BiConsumer<Personaje, Tipo_Efecto> alVencer) {
+        int r = ronda & MASCARA;
+        Personaje[] ps = personajes[r];
+        byte[] ts = tipos[r];
+        int[] vs = vencimientos[r];
+        int n = cantidad[r];
+        int vencidos = 0;
+
+        for (int i = 0; i < n; ) {
+            if (vs[i] != ronda) {
+                i++;
+                continue;
+            }
+            Tipo_Efecto tipo = TIPOS[ts[i]];
+            if (ps[i].vencer(tipo, ronda)) {
+                vencidos++;
+                if (alVencer != null) alVencer.accept(ps[i], tipo);
+            }
+            // se saca cambiandolo por el ultimo
+            n--;
+            ps[i] = ps[n];
+            ts[i] = ts[n];
+            vs[i] = vs[n];
+            ps[n] = null;
+        }
+        cantidad[r] = n;
+        ronda++;
+        return vencidos;
+    }
+
+    void programar(Personaje p, Tipo_Efecto tipo, int vence) {
+        int r = vence & MASCARA;
+        int n = cantidad[r];
+        if (n == personajes[r].length) {
+            personajes[r] = Arrays.copyOf(personajes[r], n * 2);
+            tipos[r] = Arrays.copyOf(tipos[r], n * 2);
+            vencimientos[r] = Arrays.copyOf(vencimientos[r], n * 2);
+        }
+        personajes[r][n] = p;
+        tipos[r][n] = (byte) tipo.ordinal();
+        vencimientos[r][n] = vence;
+        cantidad[r] = n + 1;
+    }
+}
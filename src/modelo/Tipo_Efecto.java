@@ -0,0 +1,81 @@
+package modelo;
+
+/**
+ * Efectos de estado que puede tener un personaje. Cada uno ocupa un bit de la
+ * mascara de efectos (1 << ordinal), asi saber si alguien esta paralizado o
+ * limpiarle todo lo negativo es una operacion sobre un int.
+ *
+ * El orden no se cambia: SUEÑO y PARALISIS tienen los mismos bits que las banderas
+ * que ya se guardaban en las instantaneas.
+ */
+public enum Tipo_Efecto {
+    // un golpe despierta al que duerme
+    SUEÑO(true, true, Acumulacion.IGNORAR, true),
+    PARALISIS(true, true, Acumulacion.RENOVAR, false),
+    PROVOCACION(true, false, Acumulacion.REEMPLAZAR, false),
+    DEFENDIDO(false, false, Acumulacion.REEMPLAZAR, false),
+    REFUERZO(false, false, Acumulacion.RENOVAR, false),
+    // renovar y no sumar: volver a lanzarla no puede apilar defensa sin limite
+    DEFENSA_EXTRA(false, false, Acumulacion.RENOVAR, false);
+
+    /**
+     * Que pasa si el efecto se aplica sobre alguien que ya lo tiene.
+     */
+    public enum Acumulacion {
+        // no cambia nada: un dormido no se vuelve a dormir
+        IGNORAR,
+        // se queda con la duracion y la magnitud mas grandes
+        RENOVAR,
+        // el nuevo pisa al anterior, incluido quien lo aplico
+        REEMPLAZAR,
+        // las magnitudes se suman y la duracion es la mas larga
+        SUMAR
+    }
+
+    // duracion para los efectos que no vencen solos (ej. la defensa de un tanque)
+    public static final int SIN_VENCIMIENTO = 0;
+
+    public static final int CANTIDAD = values().length;
+
+    public static final int NEGATIVOS = mascara(true, false);
+    public static final int BLOQUEAN_TURNO = mascara(false, true);
+    // los que se quitan cuando el personaje recibe daño
+    public static final int TERMINAN_CON_GOLPE = mascaraGolpe();
+
+    private static final Tipo_Efecto[] TIPOS = values();
+
+    private final boolean negativo;
+    private final boolean bloqueaTurno;
+    private final Acumulacion acumulacion;
+    private final boolean terminaConGolpe;
+
+    Tipo_Efecto(boolean negativo, boolean bloqueaTurno, Acumulacion acumulacion, boolean terminaConGolpe) {
+        this.negativo = negativo;
+        this.bloqueaTurno = bloqueaTurno;
+        this.acumulacion = acumulacion;
+        this.terminaConGolpe = terminaConGolpe;
+    }
+
+    // el efecto de un bit de la mascara, sin copiar values() en cada golpe
+    public static Tipo_Efecto deOrdinal(int ordinal) { return TIPOS[ordinal]; }
+
+    public int bit() { return 1 << ordinal(); }
+    public boolean esNegativo() { return negativo; }
+    public boolean bloqueaTurno() { return bloqueaTurno; }
+    public Acumulacion getAcumulacion() { return acumulacion; }
+    public boolean terminaConGolpe() { return terminaConGolpe; }
+
+    private static int mascara(boolean negativos, boolean bloqueantes) {
+        int m = 0;
+        for (Tipo_Efecto t : values()) {
+            if ((negativos && t.negativo) || (bloqueantes && t.bloqueaTurno)) m |= t.bit();
+        }
+        return m;
+    }
+
+    private static int mascaraGolpe() {
+        int m = 0;
+        for (Tipo_Efecto t : values()) if (t.terminaConGolpe) m |= t.bit();
+        return m;
+    }
+}
@@ -0,0 +1,184 @@
+package persistencia;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import modelo.Enemigo;
+import modelo.Heroe;
+import modelo.Personaje;
+import modelo.Tipo_Efecto;
+
+/**
+ * Diario binario de batallas: cada accion resuelta se agrega como un registro de
+ * pocos bytes a un buffer directo que se vuelca al archivo por un FileChannel.
+ *
+ * Formato: el archivo empieza con MAGIA y luego registros {tipo:1 byte, datos}.
+ * Los enteros van como varint (7 bits por byte); el atacante de cada ataque se
+ * guarda como diferencia zigzag respecto al anterior, que en el orden de turnos
+ * casi siempre ocupa un byte. Los personajes se identifican por slot: heroes en
+ * [0, heroes) y enemigos a continuacion, igual que en EstadoCombate.
+ *
+ *   INICIO  heroes, enemigos, por cada uno: nombre, hp, mp, ataque, defensa, velocidad
+ *   RONDA   (sin datos)
+ *   ATAQUE  deltaAtacante, objetivo, daño
+ *   ESTADO  slot, efecto (1 byte), turnos
+ *   MUERTE  slot
+ *   VENCE   slot, efecto (1 byte, ordinal de Tipo_Efecto)
+ *   FIN     resultado (1 byte), rondas
+ */
+public class DiarioBatalla implements AutoCloseable {
+
+    public static final int MAGIA = 0x44424A31; // "DBJ1"
+
+    public static final byte INICIO = 1;
+    public static final byte RONDA = 2;
+    public static final byte ATAQUE = 3;
+    public static final byte ESTADO = 4;
+    public static final byte MUERTE = 5;
+    public static final byte FIN = 6;
+    public static final byte VENCE = 7;
+
+    private static final int MAX_NOMBRE = 255;
+    // lo mas que ocupa un personaje del INICIO: largo y nombre mas 5 varints; los demas
+    // registros (y la cabecera del INICIO) son mas chicos
+    static final int MAX_PERSONAJE = 2 + MAX_NOMBRE + 25;
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+
+    private Personaje[] personajes = new Personaje[0];
+    private int ultimoAtacante;
+
+    public DiarioBatalla(Path archivo) throws IOException {
+        this(archivo, 1 << 16);
+    }
+
+    // si el archivo ya existe los registros nuevos se agregan al final
+    public DiarioBatalla(Path archivo, int capacidadBuffer) throws IOException {
+        this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.buffer = ByteBuffer.allocateDirect(Math.max(capacidadBuffer, 4 * MAX_NOMBRE));
+        if (canal.size() == 0) buffer.putInt(MAGIA);
+    }
+
+    public void iniciarBatalla(Heroe[] heroes, Enemigo[] enemigos) {
+        personajes = new Personaje[heroes.length + enemigos.length];
+        System.arraycopy(heroes, 0, personajes, 0, heroes.length);
+        System.arraycopy(enemigos, 0, personajes, heroes.length, enemigos.length);
+        ultimoAtacante = 0;
+
+        asegurar(11);
+        buffer.put(INICIO);
+        varint(heroes.length);
+        varint(enemigos.length);
+
+        for (Personaje p : personajes) {
+            byte[] nombre = p.getNombre().getBytes(StandardCharsets.UTF_8);
+            int largo = Math.min(nombre.length, MAX_NOMBRE);
+            asegurar(MAX_PERSONAJE);
+            varint(largo);
+            buffer.put(nombre, 0, largo);
+            varint(p.getHp());
+            varint(p.getMp());
+            varint(p.getAtaque());
+            varint(p.getDefensa());
+            varint(p.getVelocidad());
+        }
+    }
+
+    public void registrarRonda() {
+        asegurar(1);
+        buffer.put(RONDA);
+    }
+
+    // daño es la vida que realmente perdio el objetivo; si lo mato se agrega su MUERTE
+    public void registrarAtaque(Personaje atacante, Personaje objetivo, int daño) {
+        int slot = slotDe(atacante);
+        asegurar(16);
+        buffer.put(ATAQUE);
+        varint(zigzag(slot - ultimoAtacante));
+        varint(slotDe(objetivo));
+        varint(Math.max(0, daño));
+        ultimoAtacante = slot;
+
+        if (daño > 0 && !objetivo.esta_vivo()) registrarMuerte(objetivo);
+    }
+
+    public void registrarEstado(Personaje personaje, byte efecto, int turnos) {
+        asegurar(12);
+        buffer.put(ESTADO);
+        varint(slotDe(personaje));
+        buffer.put(efecto);
+        varint(Math.max(0, turnos));
+    }
+
+    // un efecto que termino solo al cerrar la ronda
+    public void registrarVencimiento(Personaje personaje, Tipo_Efecto efecto) {
+        asegurar(7);
+        buffer.put(VENCE);
+        varint(slotDe(personaje));
+        buffer.put((byte) efecto.ordinal());
+    }
+
+    public void registrarMuerte(Personaje personaje) {
+        asegurar(6);
+        buffer.put(MUERTE);
+        varint(slotDe(personaje));
+    }
+
+    // resultado es el ordinal de controlador.ResultadoBatalla
+    public void finBatalla(int resultado, int rondas) {
+        asegurar(7);
+        buffer.put(FIN);
+        buffer.put((byte) resultado);
+        varint(rondas);
+    }
+
+    public void vaciar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) canal.write(buffer);
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        vaciar();
+        canal.close();
+    }
+
+    // si no caben n bytes se vuelca el buffer; un registro (o un personaje del INICIO)
+    // nunca queda partido entre dos volcados
+    private void asegurar(int n) {
+        if (buffer.remaining() >= n) return;
+        try {
+            vaciar();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el diario de batalla.", e);
+        }
+    }
+
+    private void varint(int valor) {
+        while ((valor & ~0x7F) != 0) {
+            buffer.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        buffer.put((byte) valor);
+    }
+
+    private int slotDe(Personaje p) {
+        for (int i = 0; i < personajes.length; i++) if (personajes[i] == p) return i;
+        throw new IllegalArgumentException("El personaje no pertenece a la batalla registrada.");
+    }
+
+    static int zigzag(int n) {
+        return (n << 1) ^ (n >> 31);
+    }
+
+    static int deszigzag(int n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+}
@@ -0,0 +1,290 @@
+package persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import modelo.Batalla;
+import modelo.Enemigo;
+import modelo.Heroe;
+import modelo.JefeEnemigo;
+import modelo.Personaje;
+import modelo.Tipo_Efecto;
+import modelo.Tipo_Enemigo;
+import modelo.Tipo_Heroe;
+
+/**
+ * Foto del estado de una batalla en un archivo mapeado en memoria.
+ *
+ * El archivo tiene una cabecera fija, un registro de 32 enteros por personaje y al
+ * final la tabla de nombres. Los campos que cambian cada turno (vida, mana, efectos,
+ * enlaces) estan en posiciones fijas: guardar() los sobreescribe en el mapeo sin
+ * serializar nada y los getters los leen directo del archivo, sin parsear. Los
+ * nombres y tipos se escriben una sola vez al crear la instantanea.
+ *
+ * Ataque, defensa y velocidad se guardan sin refuerzos; los efectos van como la mascara de
+ * Personaje mas las rondas que le quedan y la magnitud de cada uno.
+ *
+ * Uso tipico: crear() al empezar la batalla, guardar() al final de cada turno y,
+ * despues de una caida, abrir() + restaurar() para seguir donde quedo.
+ */
+public class InstantaneaBatalla implements AutoCloseable {
+
+    private static final int MAGIA = 0x494E5331; // "INS1"
+    private static final int VERSION = 2;
+
+    // cabecera
+    private static final int C_MAGIA = 0, C_VERSION = 4, C_TURNO = 8, C_TERMINADA = 12;
+    private static final int C_HEROES = 16, C_ENEMIGOS = 20, C_NOMBRES = 24;
+    private static final int TAMAÑO_CABECERA = 32;
+
+    // registro de cada personaje, en enteros
+    private static final int R_CLASE = 0, R_TIPO = 1, R_HP = 2, R_MP = 3, R_ATAQUE = 4, R_DEFENSA = 5;
+    private static final int R_VELOCIDAD = 6, R_PARALISIS = 7, R_SUENO = 8, R_DEFENSOR = 9, R_PROVOCADOR = 10;
+    private static final int R_EFECTOS = 11, R_COOLDOWN = 12, R_HASTA_ESPECIAL = 13;
+    // a partir de aqui un entero por Tipo_Efecto
+    private static final int R_RONDAS_EFECTO = 16, R_MAGNITUD_EFECTO = 24;
+    private static final int TAMAÑO_REGISTRO = 32 * 4;
+
+    public static final int CLASE_HEROE = 0, CLASE_ENEMIGO = 1, CLASE_JEFE = 2;
+    public static final int SIN_ENLACE = -1;
+
+    private final FileChannel canal;
+    private final MappedByteBuffer mapa;
+    private final int heroes;
+    private final int enemigos;
+
+    private InstantaneaBatalla(FileChannel canal, MappedByteBuffer mapa) {
+        this.canal = canal;
+        this.mapa = mapa;
+        mapa.order(ByteOrder.LITTLE_ENDIAN);
+        this.heroes = mapa.getInt(C_HEROES);
+        this.enemigos = mapa.getInt(C_ENEMIGOS);
+    }
+
+    // crea (o reemplaza) el archivo para estos equipos y guarda su estado actual
+    public static InstantaneaBatalla crear(Path archivo, Batalla batalla, Heroe[] heroes, Enemigo[] enemigos) throws IOException {
+        int total = heroes.length + enemigos.length;
+        byte[][] nombres = new byte[total][];
+        int tamañoNombres = 0;
+        for (int i = 0; i < total; i++) {
+            Personaje p = i < heroes.length ? heroes[i] : enemigos[i - heroes.length];
+            nombres[i] = p.getNombre().getBytes(StandardCharsets.UTF_8);
+            tamañoNombres += 2 + nombres[i].length;
+        }
+        int inicioNombres = TAMAÑO_CABECERA + total * TAMAÑO_REGISTRO;
+
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, inicioNombres + tamañoNombres);
+        mapa.order(ByteOrder.LITTLE_ENDIAN);
+
+        mapa.putInt(C_MAGIA, MAGIA);
+        mapa.putInt(C_VERSION, VERSION);
+        mapa.putInt(C_HEROES, heroes.length);
+        mapa.putInt(C_ENEMIGOS, enemigos.length);
+        mapa.putInt(C_NOMBRES, inicioNombres);
+
+        ByteBuffer tabla = mapa.duplicate().position(inicioNombres);
+        for (byte[] nombre : nombres) {
+            tabla.put((byte) (nombre.length >>> 8)).put((byte) nombre.length).put(nombre);
+        }
+
+        InstantaneaBatalla instantanea = new InstantaneaBatalla(canal, mapa);
+        for (int i = 0; i < total; i++) {
+            Personaje p = i < heroes.length ? heroes[i] : enemigos[i - heroes.length];
+            int base = registro(i);
+            if (p instanceof Heroe) {
+                mapa.putInt(base + R_CLASE * 4, CLASE_HEROE);
+                mapa.putInt(base + R_TIPO * 4, ((Heroe) p).getTipo().ordinal());
+            } else {
+                Enemigo e = (Enemigo) p;
+                mapa.putInt(base + R_CLASE * 4, e instanceof JefeEnemigo ? CLASE_JEFE : CLASE_ENEMIGO);
+                mapa.putInt(base + R_TIPO * 4, e.getTipo().ordinal());
+            }
+        }
+        instantanea.guardar(batalla, heroes, enemigos);
+        return instantanea;
+    }
+
+    // abre una instantanea existente solo para leerla o restaurarla
+    public static InstantaneaBatalla abrir(Path archivo) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        mapa.order(ByteOrder.LITTLE_ENDIAN);
+        if (canal.size() < TAMAÑO_CABECERA || mapa.getInt(C_MAGIA) != MAGIA || mapa.getInt(C_VERSION) != VERSION) {
+            canal.close();
+            throw new IOException("El archivo no es una instantanea de batalla valida.");
+        }
+        return new InstantaneaBatalla(canal, mapa);
+    }
+
+    /**
+     * Sobrescribe los campos que cambian durante la batalla. Los equipos deben ser
+     * los mismos (en el mismo orden) que se usaron en crear().
+     */
+    public void guardar(Batalla batalla, Heroe[] equipoHeroes, Enemigo[] equipoEnemigos) {
+        if (equipoHeroes.length != heroes || equipoEnemigos.length != enemigos) {
+            throw new IllegalArgumentException("Los equipos no coinciden con la instantanea.");
+        }
+        mapa.putInt(C_TURNO, batalla != null ? batalla.getTurnoActual() : 0);
+        mapa.putInt(C_TERMINADA, batalla != null && batalla.isBatallaTerminada() ? 1 : 0);
+
+        for (int i = 0; i < heroes + enemigos; i++) {
+            Personaje p = i < heroes ? equipoHeroes[i] : equipoEnemigos[i - heroes];
+            int base = registro(i);
+            mapa.putInt(base + R_HP * 4, p.getHp());
+            mapa.putInt(base + R_MP * 4, p.getMp());
+            mapa.putInt(base + R_ATAQUE * 4, p.getAtaqueBase());
+            mapa.putInt(base + R_DEFENSA * 4, p.getDefensaBase());
+            mapa.putInt(base + R_VELOCIDAD * 4, p.getVelocidadBase());
+            mapa.putInt(base + R_PARALISIS * 4, p.getTurnosParalisis());
+            mapa.putInt(base + R_SUENO * 4, p.getTurnosSueno());
+            mapa.putInt(base + R_DEFENSOR * 4,
+                    p.estaSiendoDefendido() ? slotDe(p.getDefensor(), equipoHeroes, equipoEnemigos) : SIN_ENLACE);
+            mapa.putInt(base + R_PROVOCADOR * 4,
+                    p.estaProvocado() ? slotDe(p.getProvocador(), equipoHeroes, equipoEnemigos) : SIN_ENLACE);
+            mapa.putInt(base + R_EFECTOS * 4, p.getEfectos());
+            for (Tipo_Efecto t : Tipo_Efecto.values()) {
+                mapa.putInt(base + (R_RONDAS_EFECTO + t.ordinal()) * 4, p.getRondasRestantes(t));
+                mapa.putInt(base + (R_MAGNITUD_EFECTO + t.ordinal()) * 4, p.getMagnitud(t));
+            }
+
+            if (p instanceof JefeEnemigo) {
+                JefeEnemigo jefe = (JefeEnemigo) p;
+                mapa.putInt(base + R_COOLDOWN * 4, jefe.TurnosParaAtacar());
+                mapa.putInt(base + R_HASTA_ESPECIAL * 4, jefe.getTurnosHastaEspecial());
+            }
+        }
+    }
+
+    // fuerza la escritura a disco; sin esto los datos sobreviven a la caida del proceso pero no del equipo
+    public void sincronizar() {
+        mapa.force();
+    }
+
+    // lecturas directas sobre el mapeo
+
+    public int getHeroes() { return heroes; }
+    public int getEnemigos() { return enemigos; }
+    public int getTurnoActual() { return mapa.getInt(C_TURNO); }
+    public boolean isBatallaTerminada() { return mapa.getInt(C_TERMINADA) != 0; }
+
+    public int getClase(int slot) { return campo(slot, R_CLASE); }
+    public int getHp(int slot) { return campo(slot, R_HP); }
+    public int getMp(int slot) { return campo(slot, R_MP); }
+    // sin refuerzos
+    public int getAtaque(int slot) { return campo(slot, R_ATAQUE); }
+    public int getDefensa(int slot) { return campo(slot, R_DEFENSA); }
+    public int getVelocidad(int slot) { return campo(slot, R_VELOCIDAD); }
+    public int getTurnosParalisis(int slot) { return campo(slot, R_PARALISIS); }
+    public int getTurnosSueno(int slot) { return campo(slot, R_SUENO); }
+    public int getDefensor(int slot) { return campo(slot, R_DEFENSOR); }
+    public int getProvocador(int slot) { return campo(slot, R_PROVOCADOR); }
+    public int getEfectos(int slot) { return campo(slot, R_EFECTOS); }
+    public int getRondasRestantes(int slot, Tipo_Efecto tipo) { return campo(slot, R_RONDAS_EFECTO + tipo.ordinal()); }
+    public int getMagnitud(int slot, Tipo_Efecto tipo) { return campo(slot, R_MAGNITUD_EFECTO + tipo.ordinal()); }
+
+    public String getNombre(int slot) {
+        int pos = mapa.getInt(C_NOMBRES);
+        for (int i = 0; i < slot; i++) pos += 2 + largoNombre(pos);
+        byte[] nombre = new byte[largoNombre(pos)];
+        mapa.get(pos + 2, nombre);
+        return new String(nombre, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reconstruye la batalla y los personajes con sus efectos y enlaces.
+     */
+    public Restaurada restaurar() {
+        int total = heroes + enemigos;
+        Personaje[] todos = new Personaje[total];
+        Heroe[] equipoHeroes = new Heroe[heroes];
+        Enemigo[] equipoEnemigos = new Enemigo[enemigos];
+
+        for (int i = 0; i < total; i++) {
+            String nombre = getNombre(i);
+            int tipo = campo(i, R_TIPO);
+            int hp = getHp(i), mp = getMp(i), ataque = getAtaque(i), defensa = getDefensa(i), velocidad = getVelocidad(i);
+
+            switch (getClase(i)) {
+                case CLASE_HEROE:
+                    todos[i] = new Heroe(nombre, Tipo_Heroe.values()[tipo], hp, mp, ataque, defensa, velocidad);
+                    break;
+                case CLASE_JEFE:
+                    JefeEnemigo jefe = new JefeEnemigo(nombre, hp, mp, ataque, defensa, velocidad,
+                            Tipo_Enemigo.values()[tipo], campo(i, R_COOLDOWN));
+                    jefe.setTurnosHastaEspecial(campo(i, R_HASTA_ESPECIAL));
+                    todos[i] = jefe;
+                    break;
+                default:
+                    todos[i] = new Enemigo(nombre, hp, mp, ataque, defensa, velocidad, Tipo_Enemigo.values()[tipo], true);
+            }
+        }
+
+        // los efectos se aplican cuando ya existen todos los personajes, por los enlaces
+        for (int i = 0; i < total; i++) {
+            for (Tipo_Efecto t : Tipo_Efecto.values()) {
+                if ((getEfectos(i) & t.bit()) == 0) continue;
+                Personaje origen = null;
+                if (t == Tipo_Efecto.DEFENDIDO && getDefensor(i) != SIN_ENLACE) origen = todos[getDefensor(i)];
+                if (t == Tipo_Efecto.PROVOCACION && getProvocador(i) != SIN_ENLACE) origen = todos[getProvocador(i)];
+                todos[i].aplicarEfecto(t, getRondasRestantes(i, t), getMagnitud(i, t), origen);
+            }
+            if (i < heroes) equipoHeroes[i] = (Heroe) todos[i];
+            else equipoEnemigos[i - heroes] = (Enemigo) todos[i];
+        }
+
+        Batalla batalla = new Batalla();
+        batalla.setTurnoActual(getTurnoActual());
+        if (isBatallaTerminada()) batalla.finalizar();
+
+        return new Restaurada(batalla, equipoHeroes, equipoEnemigos);
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private int campo(int slot, int indice) {
+        return mapa.getInt(registro(slot) + indice * 4);
+    }
+
+    private int largoNombre(int pos) {
+        return ((mapa.get(pos) & 0xFF) << 8) | (mapa.get(pos + 1) & 0xFF);
+    }
+
+    private static int registro(int slot) {
+        return TAMAÑO_CABECERA + slot * TAMAÑO_REGISTRO;
+    }
+
+    private static int slotDe(Personaje p, Heroe[] equipoHeroes, Enemigo[] equipoEnemigos) {
+        for (int i = 0; i < equipoHeroes.length; i++) if (equipoHeroes[i] == p) return i;
+        for (int i = 0; i < equipoEnemigos.length; i++) if (equipoEnemigos[i] == p) return equipoHeroes.length + i;
+        return SIN_ENLACE;
+    }
+
+
+    // resultado de restaurar(): la batalla y los equipos en el orden guardado
+    public static final class Restaurada {
+        private final Batalla batalla;
+        private final Heroe[] heroes;
+        private final Enemigo[] enemigos;
+
+        Restaurada(Batalla batalla, Heroe[] heroes, Enemigo[] enemigos) {
+            this.batalla = batalla;
+            this.heroes = heroes;
+            this.enemigos = enemigos;
+        }
+
+        public Batalla getBatalla() { return batalla; }
+        public Heroe[] getHeroes() { return heroes; }
+        public Enemigo[] getEnemigos() { return enemigos; }
+    }
+}
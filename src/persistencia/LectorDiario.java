@@ -0,0 +1,158 @@
+package persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lee en orden los registros escritos por DiarioBatalla. Despues de cada llamada
+ * a siguiente() los getters devuelven los campos del registro leido; ademas lleva
+ * la vida de cada slot para poder reconstruir la batalla paso a paso.
+ */
+public class LectorDiario implements AutoCloseable {
+
+    public static final int FIN_ARCHIVO = -1;
+
+    // alcanza para cualquier registro salvo INICIO, que crece con la cantidad de
+    // personajes: ese se lee de a un personaje, rellenando antes de cada uno
+    private static final int MINIMO_DISPONIBLE = DiarioBatalla.MAX_PERSONAJE;
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+    private boolean finCanal;
+
+    private int tipo;
+    private int heroes, enemigos;
+    private String[] nombres = new String[0];
+    private int[] hpInicial = new int[0];
+    private int[] hp = new int[0];
+    private int atacante, objetivo, daño;
+    private int slot, efecto, turnos;
+    private int resultado, rondas;
+    private int ronda;
+
+    public LectorDiario(Path archivo) throws IOException {
+        this.canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(1 << 16);
+        buffer.flip();
+        rellenar();
+        if (buffer.remaining() < 4 || buffer.getInt() != DiarioBatalla.MAGIA) {
+            throw new IOException("El archivo no es un diario de batalla.");
+        }
+    }
+
+    // avanza al siguiente registro y devuelve su tipo, o FIN_ARCHIVO
+    public int siguiente() throws IOException {
+        if (buffer.remaining() < MINIMO_DISPONIBLE) rellenar();
+        if (!buffer.hasRemaining()) return tipo = FIN_ARCHIVO;
+
+        tipo = buffer.get();
+        switch (tipo) {
+            case DiarioBatalla.INICIO:
+                leerInicio();
+                break;
+            case DiarioBatalla.RONDA:
+                ronda++;
+                break;
+            case DiarioBatalla.ATAQUE:
+                atacante += DiarioBatalla.deszigzag(varint());
+                objetivo = varint();
+                daño = varint();
+                hp[objetivo] = Math.max(0, hp[objetivo] - daño);
+                break;
+            case DiarioBatalla.ESTADO:
+                slot = varint();
+                efecto = buffer.get();
+                turnos = varint();
+                break;
+            case DiarioBatalla.VENCE:
+                slot = varint();
+                efecto = buffer.get();
+                turnos = 0;
+                break;
+            case DiarioBatalla.MUERTE:
+                slot = varint();
+                hp[slot] = 0;
+                break;
+            case DiarioBatalla.FIN:
+                resultado = buffer.get();
+                rondas = varint();
+                break;
+            default:
+                throw new IOException("Registro desconocido en el diario: " + tipo);
+        }
+        return tipo;
+    }
+
+    private void leerInicio() throws IOException {
+        heroes = varint();
+        enemigos = varint();
+        int total = heroes + enemigos;
+        nombres = new String[total];
+        hpInicial = new int[total];
+        hp = new int[total];
+
+        for (int i = 0; i < total; i++) {
+            if (buffer.remaining() < MINIMO_DISPONIBLE) rellenar();
+            byte[] nombre = new byte[varint()];
+            buffer.get(nombre);
+            nombres[i] = new String(nombre, StandardCharsets.UTF_8);
+            hpInicial[i] = varint();
+            hp[i] = hpInicial[i];
+            varint(); // mp
+            varint(); // ataque
+            varint(); // defensa
+            varint(); // velocidad
+        }
+        atacante = 0;
+        ronda = 0;
+    }
+
+    private void rellenar() throws IOException {
+        if (finCanal) return;
+        buffer.compact();
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer) < 0) {
+                finCanal = true;
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    private int varint() {
+        int valor = 0;
+        for (int desplazamiento = 0; ; desplazamiento += 7) {
+            byte b = buffer.get();
+            valor |= (b & 0x7F) << desplazamiento;
+            if (b >= 0) return valor;
+        }
+    }
+
+    public int getTipo() { return tipo; }
+    public int getHeroes() { return heroes; }
+    public int getEnemigos() { return enemigos; }
+    public String getNombre(int slot) { return nombres[slot]; }
+    public int getHpInicial(int slot) { return hpInicial[slot]; }
+
+    // vida de un slot despues de aplicar todos los registros leidos de la batalla actual
+    public int getHp(int slot) { return hp[slot]; }
+
+    public int getRonda() { return ronda; }
+    public int getAtacante() { return atacante; }
+    public int getObjetivo() { return objetivo; }
+    public int getDaño() { return daño; }
+    public int getSlot() { return slot; }
+    public int getEfecto() { return efecto; }
+    public int getTurnos() { return turnos; }
+    public int getResultado() { return resultado; }
+    public int getRondas() { return rondas; }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
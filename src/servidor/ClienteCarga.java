@@ -0,0 +1,76 @@
+package servidor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cliente de prueba de carga: abre muchas sesiones contra ServidorBatallas y las
+ * juega solo, respondiendo "1" (atacar / primer enemigo) a cada pedido. Con una
+ * pausa entre respuestas simula jugadores que piensan, y deja las sesiones quietas.
+ *
+ * Uso: java -cp out servidor.ClienteCarga [host] [puerto] [sesiones] [pausaMs]
+ */
+public class ClienteCarga {
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int puerto = args.length > 1 ? Integer.parseInt(args[1]) : 5050;
+        int sesiones = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        long pausa = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+        AtomicInteger completas = new AtomicInteger();
+        AtomicInteger fallidas = new AtomicInteger();
+        CountDownLatch fin = new CountDownLatch(sesiones);
+        ExecutorService jugadores = Hilos.unoPorTarea();
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < sesiones; i++) {
+            jugadores.submit(() -> {
+                try {
+                    if (jugar(host, puerto, pausa)) completas.incrementAndGet();
+                    else fallidas.incrementAndGet();
+                } catch (IOException | InterruptedException e) {
+                    fallidas.incrementAndGet();
+                } finally {
+                    fin.countDown();
+                }
+            });
+        }
+        fin.await();
+        jugadores.shutdown();
+        jugadores.awaitTermination(1, TimeUnit.SECONDS);
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("%d sesiones completas, %d fallidas en %.2f s (%.0f sesiones/s)%n",
+                completas.get(), fallidas.get(), segundos, completas.get() / segundos);
+    }
+
+    // juega una batalla completa; true si llego al FIN
+    static boolean jugar(String host, int puerto, long pausa) throws IOException, InterruptedException {
+        try (Socket s = new Socket(host, puerto)) {
+            s.setTcpNoDelay(true);
+            BufferedReader entrada = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            OutputStream salida = s.getOutputStream();
+            byte[] respuesta = "1\n".getBytes(StandardCharsets.UTF_8);
+
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                if (linea.equals(VistaSocket.FIN)) return true;
+                if (linea.equals(VistaSocket.PROMPT)) {
+                    if (pausa > 0) Thread.sleep(pausa);
+                    salida.write(respuesta);
+                    salida.flush();
+                }
+            }
+            return false;
+        }
+    }
+}
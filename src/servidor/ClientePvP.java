@@ -0,0 +1,118 @@
+package servidor;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Jugadores automaticos para probar ServidorPvP: abre dos conexiones por partida
+ * y cada una juega su bando atacando al primer rival vivo, con el hp que lleva a
+ * partir de los mensajes ATAQUE y ESTADO. Cuenta los resultados que informa el
+ * servidor.
+ *
+ * Uso: java -cp out servidor.ClientePvP [host] [puerto] [partidas]
+ */
+public class ClientePvP {
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int puerto = args.length > 1 ? Integer.parseInt(args[1]) : 5060;
+        int partidas = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+
+        int jugadores = partidas * 2;
+        AtomicIntegerArray resultados = new AtomicIntegerArray(ProtocoloPvP.ABANDONO + 1);
+        AtomicInteger fallidos = new AtomicInteger();
+        CountDownLatch fin = new CountDownLatch(jugadores);
+        ExecutorService hilos = Hilos.unoPorTarea();
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < jugadores; i++) {
+            hilos.submit(() -> {
+                try {
+                    resultados.incrementAndGet(jugar(host, puerto));
+                } catch (IOException e) {
+                    fallidos.incrementAndGet();
+                } finally {
+                    fin.countDown();
+                }
+            });
+        }
+        fin.await();
+        hilos.shutdown();
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("%d jugadores en %.2f s: victorias %d, derrotas %d, limite %d, abandonos %d, fallidos %d%n",
+                jugadores, segundos, resultados.get(0) / 2, resultados.get(1) / 2, resultados.get(2) / 2,
+                resultados.get(ProtocoloPvP.ABANDONO), fallidos.get());
+    }
+
+    // juega una partida completa y devuelve el resultado del mensaje FIN
+    static int jugar(String host, int puerto) throws IOException {
+        try (Socket s = new Socket(host, puerto)) {
+            s.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            DataOutputStream out = new DataOutputStream(s.getOutputStream());
+
+            out.writeByte(ProtocoloPvP.UNIRSE);
+            out.flush();
+
+            int bando = 0, heroes = 0;
+            int[] hp = new int[0];
+            while (true) {
+                byte tipo = in.readByte();
+                switch (tipo) {
+                    case ProtocoloPvP.INICIO:
+                        bando = in.readUnsignedByte();
+                        heroes = in.readUnsignedByte();
+                        hp = new int[heroes + in.readUnsignedByte()];
+                        for (int i = 0; i < hp.length; i++) hp[i] = in.readUnsignedShort();
+                        break;
+                    case ProtocoloPvP.TURNO: {
+                        int slot = in.readUnsignedByte();
+                        in.readUnsignedShort();
+                        boolean mio = (slot < heroes) == (bando == ProtocoloPvP.BANDO_HEROES);
+                        if (mio) {
+                            // el rival es el otro rango de slots; el objetivo va relativo a su equipo
+                            int desde = bando == ProtocoloPvP.BANDO_HEROES ? heroes : 0;
+                            int hasta = bando == ProtocoloPvP.BANDO_HEROES ? hp.length : heroes;
+                            int objetivo = desde;
+                            while (objetivo < hasta - 1 && hp[objetivo] == 0) objetivo++;
+                            out.writeByte(ProtocoloPvP.ACCION);
+                            out.writeByte(bando == ProtocoloPvP.BANDO_HEROES ? 1 : 2);
+                            out.writeByte(objetivo - desde);
+                            out.flush();
+                        }
+                        break;
+                    }
+                    case ProtocoloPvP.ATAQUE: {
+                        in.readUnsignedByte();
+                        int objetivo = in.readUnsignedByte();
+                        int daño = in.readUnsignedShort();
+                        in.readUnsignedByte();
+                        hp[objetivo] = Math.max(0, hp[objetivo] - daño);
+                        break;
+                    }
+                    case ProtocoloPvP.ESTADO: {
+                        int objetivo = in.readUnsignedByte();
+                        in.readUnsignedByte();
+                        in.readUnsignedByte();
+                        hp[objetivo] = in.readUnsignedShort();
+                        break;
+                    }
+                    case ProtocoloPvP.RECHAZO:
+                        break;
+                    case ProtocoloPvP.FIN:
+                        return in.readUnsignedByte();
+                    default:
+                        throw new IOException("Mensaje desconocido: " + tipo);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package servidor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ejecutor de un hilo por tarea para las sesiones. En Java 21 o superior usa hilos
+ * virtuales, que se estacionan sin ocupar un hilo del sistema mientras esperan la
+ * respuesta del jugador; en versiones anteriores cae a un pool de hilos normales.
+ */
+final class Hilos {
+
+    private Hilos() {
+    }
+
+    static ExecutorService unoPorTarea() {
+        try {
+            // por reflexion para seguir compilando con Java 17
+            Method virtuales = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtuales.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    static boolean sonVirtuales(ExecutorService ejecutor) {
+        return !(ejecutor instanceof java.util.concurrent.ThreadPoolExecutor);
+    }
+}
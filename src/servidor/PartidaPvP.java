@@ -0,0 +1,135 @@
+package servidor;
+
+import java.io.IOException;
+
+import controlador.PartidaPorPasos;
+import eventos.AtaqueResuelto;
+import eventos.EstadoAplicado;
+import eventos.EventoBatalla;
+import eventos.OyenteBatalla;
+import eventos.TurnoIniciado;
+import modelo.Enemigo;
+import modelo.Heroe;
+import modelo.Personaje;
+
+/**
+ * Une dos sesiones con una PartidaPorPasos. Escucha los eventos de la partida y
+ * los traduce al protocolo en los buffers de ambos jugadores; las acciones que
+ * llegan solo se aceptan del bando que tiene el turno.
+ */
+final class PartidaPvP implements OyenteBatalla {
+
+    private final PartidaPorPasos partida;
+    private final SesionPvP heroes;
+    private final SesionPvP enemigos;
+
+    PartidaPvP(SesionPvP heroes, SesionPvP enemigos, Heroe[] equipoHeroes, Enemigo[] equipoEnemigos) {
+        this.partida = new PartidaPorPasos(equipoHeroes, equipoEnemigos);
+        this.heroes = heroes;
+        this.enemigos = enemigos;
+        heroes.partida = this;
+        heroes.bando = ProtocoloPvP.BANDO_HEROES;
+        enemigos.partida = this;
+        enemigos.bando = ProtocoloPvP.BANDO_ENEMIGOS;
+        partida.agregarOyente(this);
+    }
+
+    void comenzar() {
+        ProtocoloPvP.inicio(heroes, ProtocoloPvP.BANDO_HEROES, partida.getHeroes(), partida.getEnemigos());
+        ProtocoloPvP.inicio(enemigos, ProtocoloPvP.BANDO_ENEMIGOS, partida.getHeroes(), partida.getEnemigos());
+        partida.comenzar();
+        terminarSiCorresponde();
+    }
+
+    void accion(SesionPvP origen, int accion, int objetivo) {
+        if (partida.estaTerminada()) return;
+        boolean suTurno = (origen == heroes) == partida.esTurnoDeHeroes();
+
+        if (!suTurno || !partida.aplicar(accion, objetivo)) {
+            ProtocoloPvP.rechazo(origen);
+            if (suTurno) ProtocoloPvP.turno(origen, partida.getSlotActor(), partida.getRonda());
+            return;
+        }
+        terminarSiCorresponde();
+    }
+
+    // el rival se desconecto: el que queda gana por abandono
+    void abandono(SesionPvP quien) {
+        if (partida.estaTerminada()) return;
+        SesionPvP otro = quien == heroes ? enemigos : heroes;
+        ProtocoloPvP.fin(otro, ProtocoloPvP.ABANDONO);
+        otro.cerrarAlVaciar = true;
+        heroes.partida = null;
+        enemigos.partida = null;
+    }
+
+    // despues de procesar un mensaje hay que mandar lo que quedo en los dos buffers
+    void vaciarAmbos() {
+        if (!vaciar(heroes) | !vaciar(enemigos)) vaciar(heroes.cerrada ? enemigos : heroes);
+    }
+
+    // false si la conexion se cayo al escribir o su buffer se lleno; el rival queda avisado del abandono
+    private boolean vaciar(SesionPvP sesion) {
+        if (sesion.cerrada) return true;
+        try {
+            if (!sesion.desbordada) {
+                sesion.vaciar();
+                return true;
+            }
+        } catch (IOException e) {
+            // se desconecta abajo
+        }
+        sesion.cerrar();
+        abandono(sesion);
+        return false;
+    }
+
+    private void terminarSiCorresponde() {
+        if (!partida.estaTerminada()) return;
+        int resultado = partida.getResultado().ordinal();
+        ProtocoloPvP.fin(heroes, resultado);
+        ProtocoloPvP.fin(enemigos, resultado);
+        heroes.cerrarAlVaciar = true;
+        enemigos.cerrarAlVaciar = true;
+    }
+
+    @Override
+    public void alEvento(EventoBatalla evento) {
+        switch (evento.getTipo()) {
+            case TURNO_INICIADO: {
+                int slot = partida.getSlotActor();
+                int ronda = ((TurnoIniciado) evento).getRonda();
+                ProtocoloPvP.turno(heroes, slot, ronda);
+                ProtocoloPvP.turno(enemigos, slot, ronda);
+                break;
+            }
+            case ATAQUE_RESUELTO: {
+                AtaqueResuelto a = (AtaqueResuelto) evento;
+                int atacante = partida.getSlotActor();
+                int objetivo = slotDe(a.getObjetivo());
+                ProtocoloPvP.ataque(heroes, atacante, objetivo, a.getDaño(), a.esEspecial());
+                ProtocoloPvP.ataque(enemigos, atacante, objetivo, a.getDaño(), a.esEspecial());
+                break;
+            }
+            case ESTADO_APLICADO: {
+                // curar, revivir o dormir cambian la vida sin un ataque: va con el hp nuevo
+                EstadoAplicado e = (EstadoAplicado) evento;
+                int objetivo = slotDe(e.getObjetivo());
+                int efecto = e.getEfecto().ordinal(), hp = e.getObjetivo().getHp();
+                ProtocoloPvP.estado(heroes, objetivo, efecto, e.getTurnos(), hp);
+                ProtocoloPvP.estado(enemigos, objetivo, efecto, e.getTurnos(), hp);
+                break;
+            }
+            default:
+                // las muertes se deducen del hp y el fin se manda con el resultado completo
+        }
+    }
+
+    private int slotDe(Personaje p) {
+        Heroe[] hs = partida.getHeroes();
+        for (int i = 0; i < hs.length; i++) if (hs[i] == p) return i;
+        Enemigo[] es = partida.getEnemigos();
+        for (int i = 0; i < es.length; i++) if (es[i] == p) return hs.length + i;
+        return -1;
+    }
+}
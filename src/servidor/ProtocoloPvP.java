@@ -0,0 +1,103 @@
+package servidor;
+
+import java.nio.ByteBuffer;
+
+import modelo.Enemigo;
+import modelo.Heroe;
+
+/**
+ * Protocolo binario del modo PvP. Cada mensaje es un byte de tipo seguido de un
+ * cuerpo de largo fijo (salvo INICIO, que lleva la cantidad de personajes), en
+ * big-endian. Los slots son los del diario: heroes en [0, heroes) y enemigos a
+ * continuacion; el objetivo de ACCION es el indice dentro del equipo contrario.
+ *
+ * Cliente a servidor:
+ *   UNIRSE  -
+ *   ACCION  u8 accion, u8 objetivo
+ * Servidor a cliente:
+ *   INICIO  u8 bando, u8 heroes, u8 enemigos, u16 hp por slot
+ *   TURNO   u8 slot, u16 ronda
+ *   ATAQUE  u8 atacante, u8 objetivo, u16 daño, u8 especial
+ *   ESTADO  u8 objetivo, u8 efecto, u8 turnos, u16 hp
+ *                        (habilidad de un heroe: ordinal de EstadoAplicado.Efecto y hp despues)
+ *   RECHAZO -            (decision invalida, se vuelve a mandar TURNO)
+ *   FIN     u8 resultado (ordinal de ResultadoBatalla o ABANDONO)
+ */
+public final class ProtocoloPvP {
+
+    public static final byte UNIRSE = 0x01;
+    public static final byte ACCION = 0x02;
+
+    public static final byte INICIO = 0x10;
+    public static final byte TURNO = 0x11;
+    public static final byte ATAQUE = 0x12;
+    public static final byte RECHAZO = 0x13;
+    public static final byte FIN = 0x14;
+    public static final byte ESTADO = 0x15;
+
+    public static final int BANDO_HEROES = 0;
+    public static final int BANDO_ENEMIGOS = 1;
+
+    // el rival cerro la conexion antes de terminar
+    public static final int ABANDONO = 3;
+
+    // el mensaje de cliente mas largo (ACCION con su tipo)
+    static final int MAX_MENSAJE_CLIENTE = 3;
+
+    private ProtocoloPvP() {
+    }
+
+    // largo del cuerpo de un mensaje de cliente, o -1 si el tipo no existe
+    static int cuerpoCliente(byte tipo) {
+        switch (tipo) {
+            case UNIRSE: return 0;
+            case ACCION: return 2;
+            default: return -1;
+        }
+    }
+
+    // largos completos de los mensajes del servidor, tipo incluido
+    static final int LARGO_TURNO = 4;
+    static final int LARGO_ATAQUE = 6;
+    static final int LARGO_RECHAZO = 1;
+    static final int LARGO_FIN = 2;
+    static final int LARGO_ESTADO = 6;
+
+    static int largoInicio(int personajes) {
+        return 4 + 2 * personajes;
+    }
+
+    // cada mensaje se escribe entero o no se escribe: si no cabe la sesion queda para desconectar
+    static void inicio(SesionPvP s, int bando, Heroe[] heroes, Enemigo[] enemigos) {
+        if (!s.reservar(largoInicio(heroes.length + enemigos.length))) return;
+        ByteBuffer b = s.salida;
+        b.put(INICIO).put((byte) bando).put((byte) heroes.length).put((byte) enemigos.length);
+        for (Heroe h : heroes) b.putShort((short) h.getHp());
+        for (Enemigo e : enemigos) b.putShort((short) e.getHp());
+    }
+
+    static void turno(SesionPvP s, int slot, int ronda) {
+        if (!s.reservar(LARGO_TURNO)) return;
+        s.salida.put(TURNO).put((byte) slot).putShort((short) ronda);
+    }
+
+    static void ataque(SesionPvP s, int atacante, int objetivo, int daño, boolean especial) {
+        if (!s.reservar(LARGO_ATAQUE)) return;
+        s.salida.put(ATAQUE).put((byte) atacante).put((byte) objetivo).putShort((short) daño).put((byte) (especial ? 1 : 0));
+    }
+
+    static void estado(SesionPvP s, int objetivo, int efecto, int turnos, int hp) {
+        if (!s.reservar(LARGO_ESTADO)) return;
+        s.salida.put(ESTADO).put((byte) objetivo).put((byte) efecto).put((byte) turnos).putShort((short) hp);
+    }
+
+    static void rechazo(SesionPvP s) {
+        if (!s.reservar(LARGO_RECHAZO)) return;
+        s.salida.put(RECHAZO);
+    }
+
+    static void fin(SesionPvP s, int resultado) {
+        if (!s.reservar(LARGO_FIN)) return;
+        s.salida.put(FIN).put((byte) resultado);
+    }
+}
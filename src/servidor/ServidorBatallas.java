@@ -0,0 +1,106 @@
+package servidor;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import controlador.ControladorBatalla;
+import modelo.Batalla;
+import modelo.Enemigo;
+import modelo.Heroe;
+import modelo.Tipo_Enemigo;
+import modelo.Tipo_Heroe;
+
+/**
+ * Servidor que aloja muchas batallas a la vez: cada conexion es un jugador con su
+ * propio ControladorBatalla y su VistaSocket, corriendo en su propio hilo. Como el
+ * controlador se bloquea esperando la respuesta, con hilos virtuales miles de
+ * sesiones en espera no gastan hilos del sistema.
+ *
+ * Uso: java -cp out servidor.ServidorBatallas [puerto]
+ */
+public class ServidorBatallas implements AutoCloseable {
+
+    private final ServerSocket servidor;
+    private final ExecutorService sesiones = Hilos.unoPorTarea();
+    private final Supplier<Heroe[]> heroes;
+    private final Supplier<Enemigo[]> enemigos;
+
+    private final AtomicInteger activas = new AtomicInteger();
+    private final AtomicLong terminadas = new AtomicLong();
+
+    // los proveedores deben devolver equipos nuevos en cada llamada, uno por sesion
+    public ServidorBatallas(int puerto, Supplier<Heroe[]> heroes, Supplier<Enemigo[]> enemigos) throws IOException {
+        this.servidor = new ServerSocket(puerto, 4096);
+        this.heroes = heroes;
+        this.enemigos = enemigos;
+    }
+
+    // acepta conexiones hasta que se cierre el servidor
+    public void atender() {
+        while (!servidor.isClosed()) {
+            try {
+                Socket cliente = servidor.accept();
+                sesiones.submit(() -> sesion(cliente));
+            } catch (IOException e) {
+                if (!servidor.isClosed()) System.err.println("No se pudo aceptar la conexion: " + e.getMessage());
+            }
+        }
+    }
+
+    private void sesion(Socket cliente) {
+        activas.incrementAndGet();
+        try (Socket s = cliente) {
+            s.setTcpNoDelay(true);
+            ControladorBatalla controlador = new ControladorBatalla(new Batalla(), heroes.get(), enemigos.get(), new VistaSocket(s));
+            controlador.iniciarBatalla();
+        } catch (IOException | NoSuchElementException e) {
+            // el jugador se desconecto a mitad de la batalla
+        } catch (RuntimeException e) {
+            // un fallo de una sesion no debe morir en silencio ni tocar a las demas
+            System.err.println("La sesion de " + cliente.getRemoteSocketAddress() + " termino por un error: " + e);
+        } finally {
+            activas.decrementAndGet();
+            terminadas.incrementAndGet();
+        }
+    }
+
+    public int getPuerto() { return servidor.getLocalPort(); }
+    public int getSesionesActivas() { return activas.get(); }
+    public long getSesionesTerminadas() { return terminadas.get(); }
+    public boolean usaHilosVirtuales() { return Hilos.sonVirtuales(sesiones); }
+
+    @Override
+    public void close() throws IOException {
+        servidor.close();
+        sesiones.shutdownNow();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int puerto = args.length > 0 ? Integer.parseInt(args[0]) : 5050;
+
+        // los mismos equipos que App
+        try (ServidorBatallas servidor = new ServidorBatallas(puerto,
+                () -> new Heroe[] {
+                    new Heroe("Angelo", Tipo_Heroe.GUERRERO, 50, 25, 18, 30, 55),
+                    new Heroe("Yangus", Tipo_Heroe.GUERRERO, 40, 5, 20, 35, 25),
+                    new Heroe("Hero", Tipo_Heroe.GUERRERO, 40, 5, 20, 35, 25),
+                    new Heroe("Jessica", Tipo_Heroe.GUERRERO, 40, 5, 20, 35, 25),
+                },
+                () -> new Enemigo[] {
+                    new Enemigo("Slime", 30, 0, 23, 6, 30, Tipo_Enemigo.GOLEM),
+                    new Enemigo("Dracky", 25, 0, 12, 10, 21, Tipo_Enemigo.NOMUERTO),
+                    new Enemigo("Golem", 25, 0, 12, 10, 21, Tipo_Enemigo.NOMUERTO),
+                    new Enemigo("Gengar", 25, 0, 12, 10, 21, Tipo_Enemigo.NOMUERTO),
+                })) {
+            System.out.println("Servidor de batallas en el puerto " + servidor.getPuerto()
+                    + (servidor.usaHilosVirtuales() ? " (hilos virtuales)" : " (hilos del sistema)"));
+            servidor.atender();
+        }
+    }
+}
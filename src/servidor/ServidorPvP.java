@@ -0,0 +1,229 @@
+package servidor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import modelo.Enemigo;
+import modelo.Heroe;
+import modelo.JefeEnemigo;
+import modelo.Tipo_Enemigo;
+import modelo.Tipo_Heroe;
+
+/**
+ * Modo jugador contra jugador: un bando maneja a los heroes y el otro a los
+ * enemigos, ambos conectados por TCP (ver ProtocoloPvP). En vez de un hilo por
+ * conexion hay unos pocos hilos, cada uno con su Selector, y cada partida vive
+ * entera en uno de ellos; como una PartidaPorPasos no bloquea, un hilo puede
+ * llevar miles de partidas.
+ *
+ * El primer hilo acepta las conexiones y las reparte en ronda. Cada hilo empareja
+ * a sus propios jugadores: el primero que pide UNIRSE juega con los heroes y el
+ * siguiente con los enemigos.
+ *
+ * Uso: java -cp out servidor.ServidorPvP [puerto] [hilos]
+ */
+public class ServidorPvP implements AutoCloseable {
+
+    private final ServerSocketChannel aceptador;
+    private final Bucle[] bucles;
+    private final Supplier<Heroe[]> heroes;
+    private final Supplier<Enemigo[]> enemigos;
+    private final AtomicLong partidasJugadas = new AtomicLong();
+    private int siguienteBucle;
+
+    // los proveedores deben devolver equipos nuevos en cada llamada, uno por partida
+    public ServidorPvP(int puerto, int hilos, Supplier<Heroe[]> heroes, Supplier<Enemigo[]> enemigos) throws IOException {
+        this.heroes = heroes;
+        this.enemigos = enemigos;
+        this.aceptador = ServerSocketChannel.open();
+        aceptador.bind(new InetSocketAddress(puerto), 4096);
+        aceptador.configureBlocking(false);
+
+        this.bucles = new Bucle[Math.max(1, hilos)];
+        for (int i = 0; i < bucles.length; i++) bucles[i] = new Bucle(i);
+        bucles[0].selector.wakeup();
+        aceptador.register(bucles[0].selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public void iniciar() {
+        for (Bucle b : bucles) {
+            Thread hilo = new Thread(b, "pvp-" + b.numero);
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+    }
+
+    public int getPuerto() throws IOException {
+        return ((InetSocketAddress) aceptador.getLocalAddress()).getPort();
+    }
+
+    public long getPartidasJugadas() { return partidasJugadas.get(); }
+
+    @Override
+    public void close() throws IOException {
+        aceptador.close();
+        for (Bucle b : bucles) {
+            b.activo = false;
+            b.selector.wakeup();
+        }
+    }
+
+    // solo lo llama el hilo del primer bucle
+    private void aceptar() throws IOException {
+        SocketChannel canal;
+        while ((canal = aceptador.accept()) != null) {
+            canal.configureBlocking(false);
+            canal.socket().setTcpNoDelay(true);
+            Bucle destino = bucles[siguienteBucle];
+            siguienteBucle = (siguienteBucle + 1) % bucles.length;
+            destino.nuevas.add(canal);
+            if (destino != bucles[0]) destino.selector.wakeup();
+        }
+    }
+
+
+    private final class Bucle implements Runnable {
+
+        final int numero;
+        final Selector selector;
+        final ConcurrentLinkedQueue<SocketChannel> nuevas = new ConcurrentLinkedQueue<>();
+        volatile boolean activo = true;
+        SesionPvP esperando;
+
+        Bucle(int numero) throws IOException {
+            this.numero = numero;
+            this.selector = Selector.open();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (activo) {
+                    selector.select();
+                    registrarNuevas();
+
+                    Iterator<SelectionKey> claves = selector.selectedKeys().iterator();
+                    while (claves.hasNext()) {
+                        SelectionKey clave = claves.next();
+                        claves.remove();
+                        if (!clave.isValid()) continue;
+
+                        if (clave.isAcceptable()) {
+                            aceptar();
+                            registrarNuevas();
+                            continue;
+                        }
+                        SesionPvP sesion = (SesionPvP) clave.attachment();
+                        try {
+                            if (clave.isReadable()) leer(sesion);
+                            if (clave.isValid() && clave.isWritable()) sesion.vaciar();
+                        } catch (IOException e) {
+                            desconectar(sesion);
+                        }
+                    }
+                }
+                selector.close();
+            } catch (IOException e) {
+                System.err.println("El hilo pvp-" + numero + " se detuvo: " + e.getMessage());
+            }
+        }
+
+        private void registrarNuevas() throws IOException {
+            SocketChannel canal;
+            while ((canal = nuevas.poll()) != null) {
+                SelectionKey clave = canal.register(selector, SelectionKey.OP_READ);
+                clave.attach(new SesionPvP(canal, clave));
+            }
+        }
+
+        private void leer(SesionPvP sesion) throws IOException {
+            if (sesion.canal.read(sesion.entrada) < 0) {
+                desconectar(sesion);
+                return;
+            }
+            ByteBuffer in = sesion.entrada;
+            in.flip();
+            while (in.hasRemaining()) {
+                byte tipo = in.get(in.position());
+                int cuerpo = ProtocoloPvP.cuerpoCliente(tipo);
+                if (cuerpo < 0) {
+                    desconectar(sesion);
+                    return;
+                }
+                if (in.remaining() < 1 + cuerpo) break;
+                in.get();
+                if (tipo == ProtocoloPvP.UNIRSE) unirse(sesion);
+                else accion(sesion, in.get() & 0xFF, in.get() & 0xFF);
+            }
+            in.compact();
+
+            // lo que se respondio puede afectar tambien al rival; vaciarAmbos desconecta
+            // a cualquiera de los dos que se haya desbordado, sea o no quien escribio
+            if (sesion.partida != null) sesion.partida.vaciarAmbos();
+            else if (sesion.desbordada) desconectar(sesion);
+            else if (!sesion.cerrada) sesion.vaciar();
+        }
+
+        private void unirse(SesionPvP sesion) {
+            if (sesion.partida != null || sesion == esperando) return;
+            if (esperando == null || esperando.cerrada) {
+                esperando = sesion;
+                return;
+            }
+            PartidaPvP partida = new PartidaPvP(esperando, sesion, heroes.get(), enemigos.get());
+            esperando = null;
+            partidasJugadas.incrementAndGet();
+            partida.comenzar();
+        }
+
+        private void accion(SesionPvP sesion, int accion, int objetivo) {
+            if (sesion.partida == null) {
+                ProtocoloPvP.rechazo(sesion);
+                return;
+            }
+            sesion.partida.accion(sesion, accion, objetivo);
+        }
+
+        private void desconectar(SesionPvP sesion) {
+            if (sesion == esperando) esperando = null;
+            PartidaPvP partida = sesion.partida;
+            sesion.cerrar();
+            if (partida != null) {
+                partida.abandono(sesion);
+                partida.vaciarAmbos();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int puerto = args.length > 0 ? Integer.parseInt(args[0]) : 5060;
+        int hilos = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        // los heroes de App contra un grupo con jefe
+        try (ServidorPvP servidor = new ServidorPvP(puerto, hilos,
+                () -> new Heroe[] {
+                    new Heroe("Angelo", Tipo_Heroe.GUERRERO, 50, 25, 18, 30, 55),
+                    new Heroe("Yangus", Tipo_Heroe.GUERRERO, 40, 5, 20, 35, 25),
+                    new Heroe("Hero", Tipo_Heroe.GUERRERO, 40, 5, 20, 35, 25),
+                    new Heroe("Jessica", Tipo_Heroe.GUERRERO, 40, 5, 20, 35, 25),
+                },
+                () -> new Enemigo[] {
+                    new Enemigo("Slime", 30, 0, 23, 6, 30, Tipo_Enemigo.GOLEM),
+                    new Enemigo("Dracky", 25, 0, 12, 10, 21, Tipo_Enemigo.NOMUERTO),
+                    new JefeEnemigo("Dhoulmagus", 120, 40, 40, 20, 28, Tipo_Enemigo.NOMUERTO, 3),
+                })) {
+            servidor.iniciar();
+            System.out.println("Servidor PvP en el puerto " + servidor.getPuerto() + " con " + hilos + " hilos");
+            Thread.currentThread().join();
+        }
+    }
+}
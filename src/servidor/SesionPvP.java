@@ -0,0 +1,76 @@
+package servidor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Una conexion del modo PvP. Vive siempre en el mismo hilo de selector, asi que
+ * no necesita sincronizacion: lee mensajes completos del buffer de entrada y
+ * escribe las respuestas en el de salida, que se vacia cuando el canal acepta.
+ */
+final class SesionPvP {
+
+    // un turno genera pocos bytes; un cliente que no lee y deja llenar esto se desconecta
+    private static final int CAPACIDAD_SALIDA = 1 << 12;
+
+    final SocketChannel canal;
+    final SelectionKey clave;
+    final ByteBuffer entrada = ByteBuffer.allocate(64);
+    final ByteBuffer salida = ByteBuffer.allocate(CAPACIDAD_SALIDA);
+
+    PartidaPvP partida;
+    int bando;
+    boolean cerrarAlVaciar;
+    boolean cerrada;
+    // no hubo lugar para un mensaje ni vaciando: no se le escribe mas y se desconecta
+    boolean desbordada;
+
+    SesionPvP(SocketChannel canal, SelectionKey clave) {
+        this.canal = canal;
+        this.clave = clave;
+    }
+
+    // intenta mandar lo pendiente; si el canal no acepta todo se espera OP_WRITE
+    void vaciar() throws IOException {
+        salida.flip();
+        canal.write(salida);
+        boolean pendiente = salida.hasRemaining();
+        salida.compact();
+
+        if (pendiente) {
+            clave.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } else if (cerrarAlVaciar) {
+            cerrar();
+        } else {
+            clave.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    // true si caben largo bytes en la salida, vaciando antes si hace falta. Si no caben
+    // ni asi el cliente dejo de leer: la sesion queda desbordada y el mensaje no se escribe
+    boolean reservar(int largo) {
+        if (cerrada || desbordada) return false;
+        if (salida.remaining() >= largo) return true;
+        try {
+            vaciar();
+        } catch (IOException e) {
+            // la conexion se cayo: se trata igual que un cliente que no lee
+        }
+        if (!cerrada && salida.remaining() >= largo) return true;
+        desbordada = true;
+        return false;
+    }
+
+    void cerrar() {
+        if (cerrada) return;
+        cerrada = true;
+        clave.cancel();
+        try {
+            canal.close();
+        } catch (IOException e) {
+            // ya estaba cerrado del otro lado
+        }
+    }
+}
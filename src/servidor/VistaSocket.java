@@ -0,0 +1,52 @@
+package servidor;
+
+import java.io.IOException;
+import java.net.Socket;
+
+import modelo.Enemigo;
+import modelo.Heroe;
+import vista.VistaTerminal;
+
+/**
+ * VistaTerminal sobre la conexion de un jugador. El protocolo es el mismo texto de
+ * la terminal en UTF-8, con dos marcas de linea completa para los clientes
+ * automaticos: PROMPT cuando se espera un numero y FIN al terminar la batalla.
+ */
+public class VistaSocket extends VistaTerminal {
+
+    public static final String PROMPT = "→";
+    public static final String FIN = "FIN";
+
+    public VistaSocket(Socket socket) throws IOException {
+        super(socket.getInputStream(), socket.getOutputStream());
+    }
+
+    @Override
+    protected void pedirEntrada() {
+        out.println(PROMPT);
+        out.flush();
+    }
+
+    @Override
+    public void mostrarVictoria() {
+        super.mostrarVictoria();
+        terminar();
+    }
+
+    @Override
+    public void mostrarDerrota() {
+        super.mostrarDerrota();
+        terminar();
+    }
+
+    // el estado completo sobra por red: con el de quien juega basta
+    @Override
+    public void mostrarEstado(Heroe heroe, Enemigo enemigo) {
+        out.println(heroe.getNombre() + " HP " + heroe.getHp() + " | " + enemigo.getNombre() + " HP " + enemigo.getHp());
+    }
+
+    private void terminar() {
+        out.println(FIN);
+        out.flush();
+    }
+}
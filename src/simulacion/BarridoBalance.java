@@ -0,0 +1,622 @@
+package simulacion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import controlador.ResultadoBatalla;
+import modelo.Enemigo;
+import modelo.GeneradorAleatorio;
+import modelo.Heroe;
+import modelo.JefeEnemigo;
+import modelo.Tipo_Enemigo;
+import modelo.Tipo_Heroe;
+import modelo.Tipo_JefeEnemigo;
+
+/**
+ * Barrido de balance sobre los rangos de atributos de Tipo_Heroe, Tipo_Enemigo y
+ * Tipo_JefeEnemigo. Cada punto fija un valor para cada dimension barrida (un
+ * atributo de un tipo, ej. GUERRERO.ataque) y se simulan varias batallas con ese
+ * punto; los atributos que no se barren se sortean en cada batalla dentro del rango
+ * de su tipo, como al crear los personajes. Los puntos salen de una grilla o de un
+ * hipercubo latino y se simulan en paralelo sobre EstadoCombate con SimuladorLote
+ * (politicas por defecto de MotorBatalla; los jefes usan el especial cuando lo
+ * tienen cargado).
+ *
+ * La salida es un CSV con una fila por punto (listo para armar mapas de calor) y un
+ * resumen por tramos de cada dimension. Los puntos se simulan por tandas; al cerrar
+ * cada tanda se agregan sus filas y se guarda un archivo .avance, asi un barrido
+ * cortado sigue desde la ultima tanda al correrlo de nuevo con la misma configuracion.
+ * Con la misma semilla el resultado es identico sin importar cuantos hilos haya.
+ *
+ * Uso: java -cp out simulacion.BarridoBalance [clave=valor...]
+ *   heroes=GUERRERO,PALADIN,DRUIDA,MAGO   enemigos=ORCO,TROLL,GOLEM (tipos de enemigo o de jefe)
+ *   dimensiones=GUERRERO.ataque,ORCO.defensa (atributos: hp, mp, ataque, defensa, velocidad)
+ *   modo=grilla niveles=11 | modo=hipercubo puntos=10000
+ *   batallas=200 semilla=1 salida=barrido.csv
+ */
+public class BarridoBalance {
+
+    public enum Atributo { HP, MP, ATAQUE, DEFENSA, VELOCIDAD }
+
+    private static final int ATRIBUTOS = Atributo.values().length;
+
+    // Tipo_Heroe y Tipo_Enemigo no tienen rango de velocidad; el mismo que Enemigo.crearEnemigo
+    private static final int VELOCIDAD_MIN = 10;
+    private static final int VELOCIDAD_MAX = 29;
+
+    public static final int MAXIMO_PUNTOS = 1_000_000;
+    private static final int TANDA = 512;
+    private static final int BLOQUE = 16;
+    private static final int TRAMOS = 5;
+
+    private final Tipo_Heroe[] heroes;
+    private final Enum<?>[] enemigos;
+    private final Dimension[] dimensiones;
+    private final int[][] puntos;
+    private final int batallas;
+    private final long semilla;
+    private final ForkJoinPool pool;
+
+    private final EstadoCombate plantilla;
+    // por slot y atributo: rango para sortear y dimension que lo fija (-1 si no se barre)
+    private final int[] minimo, maximo, dimensionDe;
+
+    // resultados de la tanda en curso, cada tarea escribe solo sus puntos
+    private final long[] victorias = new long[TANDA];
+    private final double[] sumaRondas = new double[TANDA];
+    private final double[] sumaRondas2 = new double[TANDA];
+    private final double[] sumaHp = new double[TANDA];
+
+    /**
+     * @param enemigos Tipo_Enemigo o Tipo_JefeEnemigo, un enemigo por elemento
+     * @param puntos   valores de cada punto en el orden de dimensiones (ver grilla e hipercubo)
+     */
+    public BarridoBalance(Tipo_Heroe[] heroes, Enum<?>[] enemigos, Dimension[] dimensiones, int[][] puntos,
+                          int batallas, long semilla, ForkJoinPool pool) {
+        if (heroes.length == 0 || enemigos.length == 0) {
+            throw new IllegalArgumentException("El barrido necesita al menos un heroe y un enemigo.");
+        }
+        if (batallas <= 0) {
+            throw new IllegalArgumentException("La cantidad de batallas debe ser positiva.");
+        }
+        this.heroes = heroes.clone();
+        this.enemigos = enemigos.clone();
+        this.dimensiones = dimensiones.clone();
+        this.puntos = puntos;
+        this.batallas = batallas;
+        this.semilla = semilla;
+        this.pool = pool;
+
+        Heroe[] h = new Heroe[heroes.length];
+        Enemigo[] e = new Enemigo[enemigos.length];
+        int total = h.length + e.length;
+        minimo = new int[total * ATRIBUTOS];
+        maximo = new int[total * ATRIBUTOS];
+        dimensionDe = new int[total * ATRIBUTOS];
+        Arrays.fill(dimensionDe, -1);
+
+        for (int s = 0; s < total; s++) {
+            Enum<?> tipo = s < h.length ? heroes[s] : enemigos[s - h.length];
+            for (Atributo a : Atributo.values()) {
+                int[] r = rango(tipo, a);
+                minimo[s * ATRIBUTOS + a.ordinal()] = r[0];
+                maximo[s * ATRIBUTOS + a.ordinal()] = r[1];
+            }
+            for (int d = 0; d < dimensiones.length; d++) {
+                if (dimensiones[d].tipo == tipo) dimensionDe[s * ATRIBUTOS + dimensiones[d].atributo.ordinal()] = d;
+            }
+            if (s < h.length) h[s] = new Heroe(tipo.name(), heroes[s], medio(s, Atributo.HP), medio(s, Atributo.MP),
+                    medio(s, Atributo.ATAQUE), medio(s, Atributo.DEFENSA), medio(s, Atributo.VELOCIDAD));
+            else e[s - h.length] = crearEnemigo(s, tipo);
+        }
+        for (Dimension d : dimensiones) {
+            if (!Arrays.asList(heroes).contains(d.tipo) && !Arrays.asList(enemigos).contains(d.tipo)) {
+                throw new IllegalArgumentException("La dimension " + d + " no corresponde a ningun tipo del escenario.");
+            }
+        }
+        for (int[] p : puntos) {
+            if (p.length != dimensiones.length) {
+                throw new IllegalArgumentException("Cada punto debe tener un valor por dimension.");
+            }
+        }
+        plantilla = new EstadoCombate(h, e);
+    }
+
+    private Enemigo crearEnemigo(int slot, Enum<?> tipo) {
+        int hp = medio(slot, Atributo.HP), mp = medio(slot, Atributo.MP), ataque = medio(slot, Atributo.ATAQUE);
+        int defensa = medio(slot, Atributo.DEFENSA), velocidad = medio(slot, Atributo.VELOCIDAD);
+        if (tipo instanceof Tipo_Enemigo) {
+            return new Enemigo(tipo.name(), hp, mp, ataque, defensa, velocidad, (Tipo_Enemigo) tipo, true);
+        }
+        if (tipo instanceof Tipo_JefeEnemigo) {
+            // igual que JefeFactory
+            return new JefeEnemigo(tipo.name(), hp, mp, ataque, defensa, velocidad, Tipo_Enemigo.DRAGON, 2);
+        }
+        throw new IllegalArgumentException("Tipo de enemigo desconocido: " + tipo);
+    }
+
+    private int medio(int slot, Atributo a) {
+        int k = slot * ATRIBUTOS + a.ordinal();
+        return (minimo[k] + maximo[k]) / 2;
+    }
+
+    /**
+     * Simula los puntos que falten y los agrega a salida. Si hay un .avance de este
+     * mismo barrido se sigue desde ahi; si es de otro barrido, o si salida ya existe
+     * sin .avance, se corta sin tocar nada. Devuelve cuantos puntos se simularon en esta corrida.
+     */
+    public int ejecutar(Path salida) throws IOException {
+        Path avance = rutaHermana(salida, ".avance");
+        String huella = huella();
+        int hechos = 0;
+        long bytes = 0;
+
+        if (Files.exists(avance) && Files.exists(salida)) {
+            Properties p = new Properties();
+            try (InputStream in = Files.newInputStream(avance)) {
+                p.load(in);
+            }
+            if (!huella.equals(p.getProperty("huella"))) {
+                throw new IllegalStateException(salida + " es de otro barrido; borrarlo o elegir otra salida.");
+            }
+            hechos = Integer.parseInt(p.getProperty("puntos"));
+            bytes = Long.parseLong(p.getProperty("bytes"));
+            if (Files.size(salida) < bytes) {
+                throw new IllegalStateException(salida + " es mas corto que lo registrado en " + avance + ".");
+            }
+        } else if (Files.exists(salida)) {
+            // sin avance no se sabe de donde es: no se pisa un resultado que puede no poder repetirse
+            throw new IllegalStateException(salida + " ya existe y no tiene " + avance.getFileName()
+                    + "; borrarlo o elegir otra salida.");
+        }
+
+        int simulados = 0;
+        try (FileChannel canal = FileChannel.open(salida, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // lo que se haya escrito despues del ultimo avance se descarta
+            canal.truncate(bytes);
+            canal.position(bytes);
+            if (bytes == 0) {
+                bytes += escribir(canal, cabecera());
+                guardarAvance(avance, huella, 0, bytes);
+            }
+
+            while (hechos < puntos.length) {
+                int cantidad = Math.min(TANDA, puntos.length - hechos);
+                simularTanda(hechos, cantidad);
+
+                StringBuilder filas = new StringBuilder(cantidad * 96);
+                for (int i = 0; i < cantidad; i++) fila(filas, hechos + i, i);
+                bytes += escribir(canal, filas);
+                canal.force(false);
+
+                hechos += cantidad;
+                simulados += cantidad;
+                guardarAvance(avance, huella, hechos, bytes);
+            }
+        }
+        return simulados;
+    }
+
+    // reparte la tanda en bloques de puntos; cada bloque usa su propio estado y simulador
+    private void simularTanda(int desde, int cantidad) {
+        List<Callable<Void>> tareas = new ArrayList<>();
+        for (int i = 0; i < cantidad; i += BLOQUE) {
+            int inicio = i, fin = Math.min(cantidad, i + BLOQUE);
+            tareas.add(() -> {
+                simularBloque(desde, inicio, fin);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> f : pool.invokeAll(tareas)) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Se interrumpio el barrido.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fallo la simulacion de una tanda.", e.getCause());
+        }
+    }
+
+    private void simularBloque(int desde, int inicio, int fin) {
+        EstadoCombate estado = plantilla.copiar();
+        int total = estado.getTotal();
+
+        for (int i = inicio; i < fin; i++) {
+            int[] punto = puntos[desde + i];
+            // cada punto tiene su propio flujo, asi el resultado no depende del reparto
+            GeneradorAleatorio aleatorio = GeneradorAleatorio.conSemilla(mezclar(semilla, desde + i));
+            SimuladorLote simulador = new SimuladorLote(true, aleatorio);
+            long ganadas = 0;
+            double rondas = 0, rondas2 = 0, hp = 0;
+
+            for (int b = 0; b < batallas; b++) {
+                estado.copiarDe(plantilla);
+                for (int s = 0; s < total; s++) {
+                    int k = s * ATRIBUTOS;
+                    estado.setAtributos(s, valor(punto, k, aleatorio), valor(punto, k + 1, aleatorio),
+                            valor(punto, k + 2, aleatorio), valor(punto, k + 3, aleatorio), valor(punto, k + 4, aleatorio));
+                }
+                if (simulador.simular(estado) == ResultadoBatalla.VICTORIA) ganadas++;
+                double r = simulador.getRondas();
+                rondas += r;
+                rondas2 += r * r;
+                hp += estado.getHpHeroes();
+            }
+            victorias[i] = ganadas;
+            sumaRondas[i] = rondas;
+            sumaRondas2[i] = rondas2;
+            sumaHp[i] = hp;
+        }
+    }
+
+    private int valor(int[] punto, int k, GeneradorAleatorio aleatorio) {
+        int d = dimensionDe[k];
+        return d >= 0 ? punto[d] : aleatorio.entre(minimo[k], maximo[k]);
+    }
+
+    // mezcla de splitmix64: indices vecinos dan semillas (y flujos) sin relacion entre si
+    static long mezclar(long semilla, long indice) {
+        long z = semilla + (indice + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private StringBuilder cabecera() {
+        StringBuilder sb = new StringBuilder("punto");
+        for (Dimension d : dimensiones) sb.append(',').append(d);
+        return sb.append(",batallas,victorias,tasa_victoria,error_victoria,rondas_media,rondas_varianza,hp_restante_medio\n");
+    }
+
+    private void fila(StringBuilder sb, int punto, int i) {
+        double n = batallas;
+        double tasa = victorias[i] / n;
+        double media = sumaRondas[i] / n;
+        double varianza = batallas > 1 ? Math.max(0, (sumaRondas2[i] - n * media * media) / (n - 1)) : 0;
+
+        sb.append(punto);
+        for (int v : puntos[punto]) sb.append(',').append(v);
+        sb.append(',').append(batallas).append(',').append(victorias[i]);
+        sb.append(String.format(Locale.ROOT, ",%.4f,%.4f,%.3f,%.3f,%.2f%n",
+                tasa, Math.sqrt(tasa * (1 - tasa) / n), media, varianza, sumaHp[i] / n));
+    }
+
+    private static long escribir(FileChannel canal, CharSequence texto) throws IOException {
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(texto.toString());
+        int bytes = buffer.remaining();
+        while (buffer.hasRemaining()) canal.write(buffer);
+        return bytes;
+    }
+
+    // se escribe aparte y se reemplaza de una vez: un corte nunca deja un avance a medias
+    private static void guardarAvance(Path avance, String huella, int puntos, long bytes) throws IOException {
+        Properties p = new Properties();
+        p.setProperty("huella", huella);
+        p.setProperty("puntos", Integer.toString(puntos));
+        p.setProperty("bytes", Long.toString(bytes));
+        Path temporal = rutaHermana(avance, ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporal)) {
+            p.store(out, null);
+        }
+        Files.move(temporal, avance, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // todo lo que cambia el resultado; los puntos van como hash porque pueden ser muchos.
+    // la version sube si cambia la simulacion, asi no se mezcla con un avance viejo
+    private static final int VERSION_SIMULACION = 2;
+
+    private String huella() {
+        return "version=" + VERSION_SIMULACION + ";heroes=" + Arrays.toString(heroes) + ";enemigos=" + Arrays.toString(enemigos)
+                + ";dimensiones=" + Arrays.toString(dimensiones) + ";puntos=" + puntos.length
+                + ";valores=" + Integer.toHexString(Arrays.deepHashCode(puntos))
+                + ";batallas=" + batallas + ";semilla=" + semilla;
+    }
+
+    private static Path rutaHermana(Path archivo, String sufijo) {
+        return archivo.resolveSibling(archivo.getFileName() + sufijo);
+    }
+
+    /**
+     * Resumen compacto del CSV: para cada dimension, su rango partido en tramos con
+     * la tasa de victoria media de los puntos del tramo, cuanto varia entre ellos y
+     * las rondas. Se lee del archivo para incluir lo simulado en corridas anteriores.
+     */
+    public String resumir(Path salida) throws IOException {
+        int d = dimensiones.length;
+        int[][] cuenta = new int[d][TRAMOS];
+        double[][] tasa = new double[d][TRAMOS], tasa2 = new double[d][TRAMOS];
+        double[][] rondas = new double[d][TRAMOS], varianza = new double[d][TRAMOS];
+        int filas = 0, parejos = 0;
+        double tasaTotal = 0;
+
+        try (BufferedReader in = Files.newBufferedReader(salida, StandardCharsets.UTF_8)) {
+            in.readLine();
+            String linea;
+            while ((linea = in.readLine()) != null) {
+                String[] c = linea.split(",");
+                double t = Double.parseDouble(c[d + 3]);
+                double r = Double.parseDouble(c[d + 5]);
+                double v = Double.parseDouble(c[d + 6]);
+                filas++;
+                tasaTotal += t;
+                if (t >= 0.4 && t <= 0.6) parejos++;
+                for (int i = 0; i < d; i++) {
+                    int k = dimensiones[i].tramo(Integer.parseInt(c[i + 1]), TRAMOS);
+                    cuenta[i][k]++;
+                    tasa[i][k] += t;
+                    tasa2[i][k] += t * t;
+                    rondas[i][k] += r;
+                    varianza[i][k] += v;
+                }
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%s vs %s, %d puntos, %d batallas por punto%n",
+                Arrays.toString(heroes), Arrays.toString(enemigos), filas, batallas));
+        if (filas == 0) return sb.toString();
+        sb.append(String.format(Locale.ROOT, "victoria media %.4f, puntos parejos (0.4 a 0.6) %.1f%%%n%n",
+                tasaTotal / filas, 100.0 * parejos / filas));
+        sb.append(String.format(Locale.ROOT, "%-22s %-12s %8s %9s %7s %9s %10s%n",
+                "dimension", "tramo", "puntos", "victoria", "desvio", "rondas", "var_rondas"));
+        for (int i = 0; i < d; i++) {
+            for (int k = 0; k < TRAMOS; k++) {
+                int n = cuenta[i][k];
+                if (n == 0) continue;
+                double media = tasa[i][k] / n;
+                double desvio = Math.sqrt(Math.max(0, tasa2[i][k] / n - media * media));
+                int[] r = dimensiones[i].limitesTramo(k, TRAMOS);
+                sb.append(String.format(Locale.ROOT, "%-22s %-12s %8d %9.4f %7.4f %9.2f %10.2f%n",
+                        k == 0 ? dimensiones[i].toString() : "", "[" + r[0] + ", " + r[1] + "]",
+                        n, media, desvio, rondas[i][k] / n, varianza[i][k] / n));
+            }
+        }
+        return sb.toString();
+    }
+
+    // puntos
+
+    /**
+     * Grilla completa: niveles valores equiespaciados por dimension (menos si el
+     * rango es mas chico), recorrida con la ultima dimension variando mas rapido.
+     */
+    public static int[][] grilla(Dimension[] dimensiones, int niveles) {
+        if (niveles <= 0) {
+            throw new IllegalArgumentException("La cantidad de niveles debe ser positiva.");
+        }
+        int[][] valores = new int[dimensiones.length][];
+        long cantidad = 1;
+        for (int i = 0; i < dimensiones.length; i++) {
+            Dimension d = dimensiones[i];
+            int n = Math.min(niveles, d.getMaximo() - d.getMinimo() + 1);
+            valores[i] = new int[n];
+            for (int k = 0; k < n; k++) {
+                valores[i][k] = n == 1 ? (d.getMinimo() + d.getMaximo()) / 2
+                        : d.getMinimo() + (int) Math.round((double) k * (d.getMaximo() - d.getMinimo()) / (n - 1));
+            }
+            cantidad *= n;
+            if (cantidad > MAXIMO_PUNTOS) {
+                throw new IllegalArgumentException("La grilla supera los " + MAXIMO_PUNTOS + " puntos.");
+            }
+        }
+
+        int[][] puntos = new int[(int) cantidad][dimensiones.length];
+        for (int p = 0; p < cantidad; p++) {
+            int resto = p;
+            for (int i = dimensiones.length - 1; i >= 0; i--) {
+                puntos[p][i] = valores[i][resto % valores[i].length];
+                resto /= valores[i].length;
+            }
+        }
+        return puntos;
+    }
+
+    /**
+     * Hipercubo latino: cada dimension se parte en cantidad franjas iguales y cada
+     * franja recibe exactamente un punto, en un orden al azar distinto por dimension.
+     * Cubre todos los rangos de forma pareja con muchos menos puntos que una grilla.
+     */
+    public static int[][] hipercubo(Dimension[] dimensiones, int cantidad, long semilla) {
+        if (cantidad <= 0 || cantidad > MAXIMO_PUNTOS) {
+            throw new IllegalArgumentException("La cantidad de puntos debe estar entre 1 y " + MAXIMO_PUNTOS + ".");
+        }
+        SplittableRandom random = new SplittableRandom(semilla);
+        int[][] puntos = new int[cantidad][dimensiones.length];
+        int[] franjas = new int[cantidad];
+
+        for (int i = 0; i < dimensiones.length; i++) {
+            Dimension d = dimensiones[i];
+            long ancho = d.getMaximo() - d.getMinimo() + 1L;
+            for (int k = 0; k < cantidad; k++) franjas[k] = k;
+            for (int k = cantidad - 1; k > 0; k--) {
+                int j = random.nextInt(k + 1);
+                int t = franjas[k];
+                franjas[k] = franjas[j];
+                franjas[j] = t;
+            }
+            for (int p = 0; p < cantidad; p++) {
+                double x = (franjas[p] + random.nextDouble()) / cantidad;
+                puntos[p][i] = (int) Math.min(d.getMaximo(), d.getMinimo() + (long) (x * ancho));
+            }
+        }
+        return puntos;
+    }
+
+    // rango de un atributo segun el tipo, con los limites ordenados
+    static int[] rango(Enum<?> tipo, Atributo atributo) {
+        int min, max;
+        if (tipo instanceof Tipo_Heroe) {
+            Tipo_Heroe t = (Tipo_Heroe) tipo;
+            switch (atributo) {
+                case HP: min = t.getMinHP(); max = t.getMaxHP(); break;
+                case MP: min = t.getMinMP(); max = t.getMaxMP(); break;
+                case ATAQUE: min = t.getMinAtaque(); max = t.getMaxAtaque(); break;
+                case DEFENSA: min = t.getMinDefensa(); max = t.getMaxDefensa(); break;
+                default: min = VELOCIDAD_MIN; max = VELOCIDAD_MAX; break;
+            }
+        } else if (tipo instanceof Tipo_Enemigo) {
+            Tipo_Enemigo t = (Tipo_Enemigo) tipo;
+            switch (atributo) {
+                case HP: min = t.getMinHp(); max = t.getMaxHp(); break;
+                case MP: min = t.getMinMp(); max = t.getMaxMp(); break;
+                case ATAQUE: min = t.getMinAtaque(); max = t.getMaxAtaque(); break;
+                case DEFENSA: min = t.getMinDefensa(); max = t.getMaxDefensa(); break;
+                default: min = VELOCIDAD_MIN; max = VELOCIDAD_MAX; break;
+            }
+        } else if (tipo instanceof Tipo_JefeEnemigo) {
+            Tipo_JefeEnemigo t = (Tipo_JefeEnemigo) tipo;
+            switch (atributo) {
+                case HP: min = t.getMinHp(); max = t.getMaxHp(); break;
+                case MP: min = t.getMinMp(); max = t.getMaxMp(); break;
+                case ATAQUE: min = t.getMinAtaque(); max = t.getMaxAtaque(); break;
+                case DEFENSA: min = t.getMinDefensa(); max = t.getMaxDefensa(); break;
+                default: min = t.getMinVelocidad(); max = t.getMaxVelocidad(); break;
+            }
+        } else {
+            throw new IllegalArgumentException("Tipo desconocido: " + tipo);
+        }
+        // algunos rangos de Tipo_JefeEnemigo estan invertidos
+        return new int[] { Math.min(min, max), Math.max(min, max) };
+    }
+
+    // busca el nombre entre los tipos de heroe, de enemigo y de jefe (no se repiten)
+    static Enum<?> tipoDe(String nombre) {
+        for (Tipo_Heroe t : Tipo_Heroe.values()) if (t.name().equals(nombre)) return t;
+        for (Tipo_Enemigo t : Tipo_Enemigo.values()) if (t.name().equals(nombre)) return t;
+        for (Tipo_JefeEnemigo t : Tipo_JefeEnemigo.values()) if (t.name().equals(nombre)) return t;
+        throw new IllegalArgumentException("Tipo desconocido: " + nombre);
+    }
+
+
+    /** Un atributo de un tipo con el rango que se barre, ej. GUERRERO.ataque. */
+    public static final class Dimension {
+        private final Enum<?> tipo;
+        private final Atributo atributo;
+        private final int minimo, maximo;
+
+        public Dimension(Enum<?> tipo, Atributo atributo) {
+            int[] r = rango(tipo, atributo);
+            this.tipo = tipo;
+            this.atributo = atributo;
+            this.minimo = r[0];
+            this.maximo = r[1];
+        }
+
+        // TIPO.atributo, con el atributo en minusculas o mayusculas
+        public static Dimension de(String texto) {
+            int punto = texto.indexOf('.');
+            if (punto < 0) {
+                throw new IllegalArgumentException("La dimension debe ser TIPO.atributo: " + texto);
+            }
+            Atributo atributo;
+            try {
+                atributo = Atributo.valueOf(texto.substring(punto + 1).toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Atributo desconocido: " + texto);
+            }
+            return new Dimension(tipoDe(texto.substring(0, punto)), atributo);
+        }
+
+        public Enum<?> getTipo() { return tipo; }
+        public Atributo getAtributo() { return atributo; }
+        public int getMinimo() { return minimo; }
+        public int getMaximo() { return maximo; }
+
+        int tramo(int valor, int tramos) {
+            long ancho = maximo - minimo + 1L;
+            return (int) Math.min(tramos - 1, Math.max(0, (valor - minimo) * (long) tramos / ancho));
+        }
+
+        int[] limitesTramo(int k, int tramos) {
+            long ancho = maximo - minimo + 1L;
+            int desde = minimo + (int) ((ancho * k + tramos - 1) / tramos);
+            int hasta = minimo + (int) ((ancho * (k + 1) + tramos - 1) / tramos) - 1;
+            return new int[] { desde, Math.min(maximo, hasta) };
+        }
+
+        @Override
+        public String toString() {
+            return tipo.name() + "." + atributo.name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opciones = new LinkedHashMap<>();
+        opciones.put("heroes", "GUERRERO,PALADIN,DRUIDA,MAGO");
+        opciones.put("enemigos", "ORCO,TROLL,GOLEM");
+        opciones.put("dimensiones", "GUERRERO.ataque,ORCO.defensa");
+        opciones.put("modo", "grilla");
+        opciones.put("niveles", "11");
+        opciones.put("puntos", "10000");
+        opciones.put("batallas", "200");
+        opciones.put("semilla", "1");
+        opciones.put("salida", "barrido.csv");
+        leerOpciones(args, opciones);
+
+        String[] nombres = opciones.get("heroes").split(",");
+        Tipo_Heroe[] heroes = new Tipo_Heroe[nombres.length];
+        for (int i = 0; i < nombres.length; i++) heroes[i] = Tipo_Heroe.valueOf(nombres[i].trim());
+        nombres = opciones.get("enemigos").split(",");
+        Enum<?>[] enemigos = new Enum<?>[nombres.length];
+        for (int i = 0; i < nombres.length; i++) enemigos[i] = tipoDe(nombres[i].trim());
+        nombres = opciones.get("dimensiones").split(",");
+        Dimension[] dimensiones = new Dimension[nombres.length];
+        for (int i = 0; i < nombres.length; i++) dimensiones[i] = Dimension.de(nombres[i].trim());
+
+        long semilla = Long.parseLong(opciones.get("semilla"));
+        int[][] puntos;
+        switch (opciones.get("modo")) {
+            case "grilla": puntos = grilla(dimensiones, Integer.parseInt(opciones.get("niveles"))); break;
+            case "hipercubo": puntos = hipercubo(dimensiones, Integer.parseInt(opciones.get("puntos")), semilla); break;
+            default: throw new IllegalArgumentException("Modo desconocido: " + opciones.get("modo") + " (grilla o hipercubo)");
+        }
+
+        BarridoBalance barrido = new BarridoBalance(heroes, enemigos, dimensiones, puntos,
+                Integer.parseInt(opciones.get("batallas")), semilla, ForkJoinPool.commonPool());
+        Path salida = Paths.get(opciones.get("salida"));
+
+        long inicio = System.nanoTime();
+        int simulados = barrido.ejecutar(salida);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf(Locale.ROOT, "%d de %d puntos simulados en %.1f s (%d ya estaban hechos)%n",
+                simulados, puntos.length, segundos, puntos.length - simulados);
+
+        String resumen = barrido.resumir(salida);
+        Files.write(rutaHermana(salida, ".resumen.txt"), resumen.getBytes(StandardCharsets.UTF_8));
+        System.out.print(resumen);
+    }
+
+    // argumentos clave=valor sobre las opciones por defecto; no se aceptan claves nuevas
+    static void leerOpciones(String[] args, Map<String, String> opciones) {
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0 || !opciones.containsKey(arg.substring(0, igual))) {
+                throw new IllegalArgumentException("Opcion desconocida: " + arg + " (validas: " + opciones.keySet() + ")");
+            }
+            opciones.put(arg.substring(0, igual), arg.substring(igual + 1));
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package simulacion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import controlador.DecisionTurno;
+import controlador.EntradaTurno;
+import modelo.Enemigo;
+import modelo.GeneradorAleatorio;
+import modelo.Heroe;
+import modelo.Personaje;
+
+/**
+ * Elige la accion de un heroe (ataque o cualquiera de sus habilidades) con Monte
+ * Carlo Tree Search sobre copias de un EstadoCombate. Sirve para el modo de juego
+ * automatico de los heroes y para sugerirle una jugada al usuario.
+ *
+ * La busqueda es paralela en la raiz: cada hilo del pool arma su propio arbol con
+ * su propio estado y generador, sin compartir nada; al vencerse el tiempo se suman
+ * las visitas de cada jugada de la raiz y gana la mas visitada. Los enemigos se
+ * juegan con la regla fija de JugadasHeroe.avanzar (los jefes usan el especial
+ * apenas lo tienen cargado), no con la BusquedaJefe del controlador: es mucho mas
+ * barata y alcanza para comparar jugadas. Los heroes en los playouts atacan casi
+ * siempre a un enemigo vivo al azar.
+ *
+ * Los arboles se reutilizan entre decisiones. No es seguro llamar a decidir desde
+ * dos hilos a la vez; se usa una instancia por controlador.
+ */
+public class BusquedaHeroes implements EntradaTurno {
+
+    public static final long PRESUPUESTO_POR_DEFECTO_NS = 100_000_000L;
+
+    private static final int MAX_TURNOS_PLAYOUT = 400;
+    private static final int MAX_NODOS = 1 << 20;
+    private static final double EXPLORACION = 0.7;
+
+    private final long presupuestoNs;
+    private final long maxPlayouts;
+    private final ForkJoinPool pool;
+    private final GeneradorAleatorio aleatorio;
+    private final Arbol[] arboles;
+
+    private EstadoCombate estadoObjetos;
+    private long playouts;
+
+    public BusquedaHeroes() {
+        this(PRESUPUESTO_POR_DEFECTO_NS, ForkJoinPool.commonPool());
+    }
+
+    public BusquedaHeroes(long presupuestoNs, ForkJoinPool pool) {
+        this(presupuestoNs, Long.MAX_VALUE, pool, GeneradorAleatorio.delHilo());
+    }
+
+    /**
+     * @param presupuestoNs tiempo por decision; 0 para cortar solo por cantidad de playouts
+     * @param maxPlayouts   playouts por decision entre todos los hilos; con un generador
+     *                      con semilla y presupuesto 0 la decision es reproducible
+     */
+    public BusquedaHeroes(long presupuestoNs, long maxPlayouts, ForkJoinPool pool, GeneradorAleatorio aleatorio) {
+        if (presupuestoNs < 0 || maxPlayouts <= 0 || (presupuestoNs == 0 && maxPlayouts == Long.MAX_VALUE)) {
+            throw new IllegalArgumentException("La busqueda necesita un limite de tiempo o de playouts.");
+        }
+        this.presupuestoNs = presupuestoNs;
+        this.maxPlayouts = maxPlayouts;
+        this.pool = pool;
+        this.aleatorio = aleatorio;
+        this.arboles = new Arbol[pool.getParallelism()];
+        for (int i = 0; i < arboles.length; i++) arboles[i] = new Arbol();
+    }
+
+    @Override
+    public DecisionTurno decidir(Personaje actor, Heroe[] heroes, Enemigo[] enemigos) {
+        if (estadoObjetos == null || estadoObjetos.getHeroes() != heroes.length
+                || estadoObjetos.getEnemigos() != enemigos.length) {
+            estadoObjetos = new EstadoCombate(heroes, enemigos);
+        } else {
+            estadoObjetos.cargar(heroes, enemigos);
+        }
+        for (int i = 0; i < heroes.length; i++) {
+            if (heroes[i] == actor) return decidir(estadoObjetos, i);
+        }
+        throw new IllegalArgumentException("BusquedaHeroes solo decide turnos de heroes.");
+    }
+
+    // jugada para el heroe en slot; el estado no se modifica
+    public DecisionTurno decidir(EstadoCombate estado, int slot) {
+        if (!estado.estaVivo(slot) || !estado.hayEnemigosVivos()) return DecisionTurno.PASA;
+
+        long limite = presupuestoNs > 0 ? System.nanoTime() + presupuestoNs : Long.MAX_VALUE;
+        long porArbol = Math.max(1, maxPlayouts == Long.MAX_VALUE ? Long.MAX_VALUE : maxPlayouts / arboles.length);
+
+        List<Callable<Long>> tareas = new ArrayList<>(arboles.length);
+        for (Arbol arbol : arboles) {
+            arbol.preparar(estado, slot, aleatorio.dividir());
+            tareas.add(() -> arbol.buscar(limite, porArbol));
+        }
+        // con una sola jugada posible no hay nada que buscar
+        if (arboles[0].cantidadRaiz() == 1) return JugadasHeroe.aDecision(arboles[0].jugadaRaiz(0));
+
+        playouts = 0;
+        try {
+            for (Future<Long> f : pool.invokeAll(tareas)) playouts += f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fallo la busqueda de la jugada.", e.getCause());
+        }
+
+        // todos los arboles generan las jugadas de la raiz en el mismo orden
+        int mejor = 0;
+        long visitasMejor = -1;
+        double valorMejor = 0;
+        for (int i = 0; i < arboles[0].cantidadRaiz(); i++) {
+            long visitas = 0;
+            double suma = 0;
+            for (Arbol arbol : arboles) {
+                visitas += arbol.visitasRaiz(i);
+                suma += arbol.sumaRaiz(i);
+            }
+            double valor = visitas > 0 ? suma / visitas : 0;
+            if (visitas > visitasMejor || (visitas == visitasMejor && valor > valorMejor)) {
+                mejor = i;
+                visitasMejor = visitas;
+                valorMejor = valor;
+            }
+        }
+        return JugadasHeroe.aDecision(arboles[0].jugadaRaiz(mejor));
+    }
+
+    // playouts de la ultima decision, sumando todos los hilos
+    public long getPlayouts() { return playouts; }
+
+
+    /**
+     * Arbol de un hilo. Los nodos viven en arreglos paralelos y los hijos de un nodo
+     * quedan contiguos. El estado de un nodo no se guarda: se reconstruye aplicando
+     * las jugadas del camino sobre una copia de la raiz, porque el combate es
+     * deterministico una vez elegidas las jugadas.
+     */
+    private static final class Arbol {
+        private int[] jugada = new int[0], primerHijo = new int[0], cantidadHijos = new int[0], visitas = new int[0];
+        private double[] suma = new double[0];
+        private int nodos;
+
+        private EstadoCombate raiz, trabajo;
+        private int slotRaiz;
+        private int hpHeroesRaiz, hpEnemigosRaiz;
+        private int[] buffer = new int[0];
+        private int[] camino = new int[64];
+        private GeneradorAleatorio aleatorio;
+
+        void preparar(EstadoCombate estado, int slot, GeneradorAleatorio aleatorio) {
+            if (raiz == null || raiz.getHeroes() != estado.getHeroes() || raiz.getTotal() != estado.getTotal()) {
+                raiz = estado.copiar();
+                trabajo = estado.copiar();
+                buffer = new int[JugadasHeroe.maximo(estado)];
+            } else {
+                raiz.copiarDe(estado);
+            }
+            this.slotRaiz = slot;
+            this.aleatorio = aleatorio;
+            hpHeroesRaiz = Math.max(1, estado.getHpHeroes());
+            hpEnemigosRaiz = Math.max(1, estado.getHpEnemigos());
+
+            nodos = 0;
+            int r = nuevoNodo(0);
+            expandir(r, raiz, slot);
+        }
+
+        int cantidadRaiz() { return cantidadHijos[0]; }
+        int jugadaRaiz(int i) { return jugada[primerHijo[0] + i]; }
+        int visitasRaiz(int i) { return visitas[primerHijo[0] + i]; }
+        double sumaRaiz(int i) { return suma[primerHijo[0] + i]; }
+
+        long buscar(long limite, long maximo) {
+            long n = 0;
+            while (n < maximo) {
+                // el reloj se mira cada 16 playouts
+                if ((n & 15) == 0 && n > 0 && System.nanoTime() >= limite) break;
+                iterar();
+                n++;
+            }
+            return n;
+        }
+
+        // seleccion, expansion, playout y retropropagacion
+        private void iterar() {
+            trabajo.copiarDe(raiz);
+            int actor = slotRaiz;
+            int nodo = 0, largo = 0;
+            camino[largo++] = nodo;
+
+            while (actor >= 0) {
+                if (primerHijo[nodo] < 0) {
+                    // un nodo se expande en su segunda visita, la primera es solo el playout
+                    if (visitas[nodo] == 0 || !expandir(nodo, trabajo, actor)) break;
+                }
+                int hijo = elegir(nodo);
+                JugadasHeroe.aplicar(trabajo, actor, jugada[hijo]);
+                actor = JugadasHeroe.avanzar(trabajo, actor);
+                nodo = hijo;
+                if (largo == camino.length) camino = Arrays.copyOf(camino, largo * 2);
+                camino[largo++] = nodo;
+                if (visitas[hijo] == 0) break;
+            }
+
+            double valor = playout(actor);
+            for (int i = 0; i < largo; i++) {
+                visitas[camino[i]]++;
+                suma[camino[i]] += valor;
+            }
+        }
+
+        // UCT: primero los hijos sin visitar, despues media mas exploracion
+        private int elegir(int nodo) {
+            int desde = primerHijo[nodo], hasta = desde + cantidadHijos[nodo];
+            double logPadre = Math.log(Math.max(1, visitas[nodo]));
+            int mejor = desde;
+            double puntajeMejor = Double.NEGATIVE_INFINITY;
+            for (int h = desde; h < hasta; h++) {
+                if (visitas[h] == 0) return h;
+                double puntaje = suma[h] / visitas[h] + EXPLORACION * Math.sqrt(logPadre / visitas[h]);
+                if (puntaje > puntajeMejor) {
+                    puntajeMejor = puntaje;
+                    mejor = h;
+                }
+            }
+            return mejor;
+        }
+
+        private boolean expandir(int nodo, EstadoCombate estado, int actor) {
+            int n = JugadasHeroe.generar(estado, actor, buffer);
+            if (n == 0 || nodos + n > MAX_NODOS) return false;
+            primerHijo[nodo] = nodos;
+            cantidadHijos[nodo] = n;
+            for (int i = 0; i < n; i++) nuevoNodo(buffer[i]);
+            return true;
+        }
+
+        private int nuevoNodo(int j) {
+            if (nodos == jugada.length) crecer();
+            int i = nodos++;
+            jugada[i] = j;
+            primerHijo[i] = -1;
+            cantidadHijos[i] = 0;
+            visitas[i] = 0;
+            suma[i] = 0;
+            return i;
+        }
+
+        private void crecer() {
+            int capacidad = Math.max(1024, jugada.length * 2);
+            jugada = Arrays.copyOf(jugada, capacidad);
+            primerHijo = Arrays.copyOf(primerHijo, capacidad);
+            cantidadHijos = Arrays.copyOf(cantidadHijos, capacidad);
+            visitas = Arrays.copyOf(visitas, capacidad);
+            suma = Arrays.copyOf(suma, capacidad);
+        }
+
+        // los heroes atacan a un enemigo vivo al azar y una de cada cuatro veces
+        // prueban cualquier jugada posible
+        private double playout(int actor) {
+            for (int t = 0; t < MAX_TURNOS_PLAYOUT && actor >= 0; t++) {
+                int j;
+                if (aleatorio.siguienteEntero(4) != 0) {
+                    int k = aleatorio.siguienteEntero(trabajo.getEnemigosVivos());
+                    int s = trabajo.primerEnemigoVivo();
+                    while (k > 0) if (trabajo.estaVivo(++s)) k--;
+                    j = JugadasHeroe.jugada(DecisionTurno.ATACAR, s - trabajo.getHeroes());
+                } else {
+                    j = buffer[aleatorio.siguienteEntero(JugadasHeroe.generar(trabajo, actor, buffer))];
+                }
+                JugadasHeroe.aplicar(trabajo, actor, j);
+                actor = JugadasHeroe.avanzar(trabajo, actor);
+            }
+            return recompensa();
+        }
+
+        // en [0, 1]: ganar vale mas que cualquier derrota, y entre iguales cuenta la vida
+        private double recompensa() {
+            double heroes = Math.min(1.0, (double) trabajo.getHpHeroes() / hpHeroesRaiz);
+            double enemigos = Math.min(1.0, (double) trabajo.getHpEnemigos() / hpEnemigosRaiz);
+            if (!trabajo.hayEnemigosVivos()) return 0.7 + 0.3 * heroes;
+            if (!trabajo.hayHeroesVivos()) return 0.3 * (1 - enemigos);
+            return 0.5 + 0.1 * (heroes - enemigos);
+        }
+    }
+}
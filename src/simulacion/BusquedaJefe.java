@@ -0,0 +1,262 @@
+package simulacion;
+
+import java.util.Arrays;
+
+import controlador.DecisionTurno;
+
+/**
+ * Decide el turno de un jefe buscando hacia adelante sobre copias de un
+ * EstadoCombate. Prueba cada jugada del jefe (ataque, especial sobre cada heroe o
+ * ataque a todos), supone que los heroes responden con el objetivo que mas le
+ * conviene a ellos y que los enemigos comunes golpean al primer heroe vivo (o a
+ * quien los provoco). Provocado, el jefe solo elige entre golpear al provocador y
+ * el ataque a todos.
+ *
+ * La busqueda es por profundizacion iterativa con un presupuesto de tiempo: se
+ * busca a 1 decision, despues a 2, etc., y al vencerse el tiempo se devuelve la
+ * mejor jugada de la ultima profundidad completa. La primera profundidad se
+ * termina siempre, asi siempre hay una jugada lista.
+ *
+ * Cada nivel de la busqueda tiene su propio estado que se reutiliza entre turnos;
+ * no se reserva memoria por nodo. No es seguro entre hilos: uno por controlador.
+ */
+public class BusquedaJefe {
+
+    public static final long PRESUPUESTO_POR_DEFECTO_NS = 5_000_000L;
+
+    private static final int PROFUNDIDAD_MAXIMA = 64;
+    private static final int GANA = 1_000_000;
+    private static final int INFINITO = Integer.MAX_VALUE;
+
+    // cada cuantos nodos se mira el reloj
+    private static final int MASCARA_RELOJ = 255;
+
+    // jugadas del jefe codificadas como tipo << 8 | objetivo
+    private static final int ATAQUE = 0, ESPECIAL = 1, TODOS = 2;
+
+    private final long presupuestoNs;
+
+    private EstadoCombate[] pila = new EstadoCombate[0];
+    private int[] jugadas = new int[0];
+    private int[] valores = new int[0];
+
+    // normalizacion de la evaluacion, tomada del estado de la raiz
+    private int hpHeroesRaiz, hpEnemigosRaiz;
+
+    private long limite;
+    private boolean puedeCortar, agotado, horizonte;
+    private long nodos;
+    private int profundidadAlcanzada;
+
+    public BusquedaJefe() {
+        this(PRESUPUESTO_POR_DEFECTO_NS);
+    }
+
+    public BusquedaJefe(long presupuestoNs) {
+        if (presupuestoNs <= 0) {
+            throw new IllegalArgumentException("El presupuesto de la busqueda debe ser positivo.");
+        }
+        this.presupuestoNs = presupuestoNs;
+    }
+
+    /**
+     * Elige la jugada del jefe en slotJefe. El estado no se modifica. El objetivo
+     * de la decision es el indice del heroe (igual a su slot).
+     */
+    public DecisionTurno decidir(EstadoCombate estado, int slotJefe) {
+        limite = System.nanoTime() + presupuestoNs;
+        puedeCortar = false;
+        agotado = false;
+        nodos = 0;
+        profundidadAlcanzada = 0;
+        hpHeroesRaiz = Math.max(1, estado.getHpHeroes());
+        hpEnemigosRaiz = Math.max(1, estado.getHpEnemigos());
+
+        // la pila se arma con el tamaño del primer estado y se rearma si cambian los equipos
+        if (pila.length == 0 || pila[0].getHeroes() != estado.getHeroes() || pila[0].getTotal() != estado.getTotal()) {
+            pila = new EstadoCombate[] { estado.copiar() };
+        } else {
+            pila[0].copiarDe(estado);
+        }
+        int cantidad = generarJugadas(pila[0], slotJefe);
+        if (cantidad == 0) return DecisionTurno.PASA;
+
+        int mejor = jugadas[0];
+        for (int profundidad = 1; profundidad <= PROFUNDIDAD_MAXIMA; profundidad++) {
+            horizonte = false;
+            int valorMejor = -INFINITO, jugadaMejor = jugadas[0];
+
+            for (int i = 0; i < cantidad; i++) {
+                int v = valorDe(0, slotJefe, jugadas[i], profundidad, valorMejor, INFINITO);
+                if (agotado) break;
+                valores[i] = v;
+                if (v > valorMejor) {
+                    valorMejor = v;
+                    jugadaMejor = jugadas[i];
+                }
+            }
+            if (agotado) break;
+
+            mejor = jugadaMejor;
+            profundidadAlcanzada = profundidad;
+            // la proxima profundidad empieza por las que mejor salieron en esta
+            ordenarPorValor(cantidad);
+            puedeCortar = true;
+
+            // resultado forzado o arbol completo: buscar mas hondo no cambia nada
+            if (Math.abs(valorMejor) >= GANA || !horizonte) break;
+        }
+        return aDecision(mejor);
+    }
+
+    // profundidad de la ultima busqueda completa y nodos visitados
+    public int getProfundidadAlcanzada() { return profundidadAlcanzada; }
+    public long getNodos() { return nodos; }
+
+    // aplica la jugada del jefe sobre una copia del nivel y sigue con el proximo actor
+    private int valorDe(int nivel, int slotJefe, int jugada, int profundidad, int alfa, int beta) {
+        asegurarPila(nivel + 2);
+        EstadoCombate hijo = pila[nivel + 1];
+        hijo.copiarDe(pila[nivel]);
+
+        int objetivo = jugada & 0xFF;
+        switch (jugada >>> 8) {
+            case ESPECIAL: hijo.especial(slotJefe, objetivo); break;
+            case TODOS: hijo.atacarATodos(slotJefe); break;
+            default: hijo.atacar(slotJefe, objetivo);
+        }
+        hijo.terminarTurnoJefe(slotJefe);
+        return buscar(nivel + 1, siguiente(hijo, slotJefe), profundidad - 1, alfa, beta);
+    }
+
+    // minimax con poda alfa-beta; el valor es desde el lado de los enemigos
+    private int buscar(int nivel, int slot, int profundidad, int alfa, int beta) {
+        EstadoCombate e = pila[nivel];
+        // ganar antes (o perder despues) vale un poco mas
+        if (!e.hayHeroesVivos()) return GANA + profundidad;
+        if (!e.hayEnemigosVivos()) return -GANA - profundidad;
+        if (profundidad == 0) {
+            horizonte = true;
+            return evaluar(e);
+        }
+        if ((++nodos & MASCARA_RELOJ) == 0 && puedeCortar && System.nanoTime() > limite) agotado = true;
+        if (agotado) return 0;
+
+        asegurarPila(nivel + 2);
+        EstadoCombate hijo = pila[nivel + 1];
+
+        if (e.esHeroe(slot)) {
+            int mejor = INFINITO;
+            for (int t = e.getHeroes(); t < e.getTotal(); t++) {
+                if (!e.estaVivo(t)) continue;
+                hijo.copiarDe(e);
+                hijo.atacar(slot, t);
+                int v = buscar(nivel + 1, siguiente(hijo, slot), profundidad - 1, alfa, beta);
+                if (v < mejor) mejor = v;
+                if (mejor < beta) beta = mejor;
+                if (alfa >= beta || agotado) break;
+            }
+            return mejor;
+        }
+
+        if (e.esJefe(slot)) {
+            int mejor = -INFINITO;
+            boolean cargado = e.especialCargado(slot);
+            if (cargado) {
+                mejor = Math.max(mejor, valorDe(nivel, slot, TODOS << 8, profundidad, alfa, beta));
+                if (mejor > alfa) alfa = mejor;
+                if (alfa >= beta || agotado) return mejor;
+            }
+            for (int t = 0; t < e.getHeroes(); t++) {
+                if (!puedeElegir(e, slot, t)) continue;
+                int v = valorDe(nivel, slot, (cargado ? ESPECIAL : ATAQUE) << 8 | t, profundidad, alfa, beta);
+                if (v > mejor) mejor = v;
+                if (mejor > alfa) alfa = mejor;
+                if (alfa >= beta || agotado) break;
+            }
+            return mejor;
+        }
+
+        // enemigo comun: no decide nada, no gasta profundidad
+        hijo.copiarDe(e);
+        hijo.atacar(slot, hijo.objetivoDeEnemigo(slot));
+        return buscar(nivel + 1, siguiente(hijo, slot), profundidad, alfa, beta);
+    }
+
+    /**
+     * Vida propia menos vida de los heroes, cada una como fraccion de la que habia
+     * al empezar la busqueda, mas un premio por cada heroe caido: un heroe menos es
+     * un ataque menos por ronda.
+     */
+    private int evaluar(EstadoCombate e) {
+        int propia = (int) (1000L * e.getHpEnemigos() / hpEnemigosRaiz);
+        int rival = (int) (1000L * e.getHpHeroes() / hpHeroesRaiz);
+        return propia - rival + 400 * (e.getEnemigosVivos() - e.getHeroesVivos());
+    }
+
+    // proximo slot vivo que puede actuar en el orden de turnos (heroes y despues enemigos,
+    // por slot), cerrando la ronda al dar la vuelta; los bloqueos siempre vencen
+    private static int siguiente(EstadoCombate e, int slot) {
+        if (!e.hayHeroesVivos() || !e.hayEnemigosVivos()) return slot;
+        int total = e.getTotal();
+        for (int i = 1; ; i++) {
+            int s = (slot + i) % total;
+            if (s == 0) e.terminarRonda();
+            if (e.estaVivo(s) && e.puedeActuar(s)) return s;
+        }
+    }
+
+    // un jefe provocado solo puede golpear al provocador
+    private static boolean puedeElegir(EstadoCombate e, int slotJefe, int heroe) {
+        if (!e.estaVivo(heroe)) return false;
+        int p = e.getProvocador(slotJefe);
+        return p == EstadoCombate.SIN_ENLACE || !e.estaVivo(p) || p == heroe;
+    }
+
+    // con el especial cargado el ataque comun no se prueba: gasta la carga igual
+    // (terminarTurno la reinicia) y hace menos daño que el especial al mismo objetivo
+    private int generarJugadas(EstadoCombate e, int slotJefe) {
+        int heroes = e.getHeroes();
+        if (jugadas.length < heroes + 1) {
+            jugadas = new int[heroes + 1];
+            valores = new int[heroes + 1];
+        }
+        int n = 0;
+        boolean cargado = e.especialCargado(slotJefe);
+        for (int t = 0; t < heroes; t++) {
+            if (puedeElegir(e, slotJefe, t)) jugadas[n++] = (cargado ? ESPECIAL : ATAQUE) << 8 | t;
+        }
+        if (cargado) jugadas[n++] = TODOS << 8;
+        return n;
+    }
+
+    // orden estable de mayor a menor valor; son pocas jugadas, alcanza con insercion
+    private void ordenarPorValor(int cantidad) {
+        for (int i = 1; i < cantidad; i++) {
+            int j = jugadas[i], v = valores[i], k = i - 1;
+            while (k >= 0 && valores[k] < v) {
+                jugadas[k + 1] = jugadas[k];
+                valores[k + 1] = valores[k];
+                k--;
+            }
+            jugadas[k + 1] = j;
+            valores[k + 1] = v;
+        }
+    }
+
+    private void asegurarPila(int niveles) {
+        if (pila.length >= niveles) return;
+        int anterior = pila.length;
+        pila = Arrays.copyOf(pila, Math.max(niveles, anterior * 2));
+        for (int i = anterior; i < pila.length; i++) pila[i] = pila[0].copiar();
+    }
+
+    private static DecisionTurno aDecision(int jugada) {
+        int objetivo = jugada & 0xFF;
+        switch (jugada >>> 8) {
+            case ESPECIAL: return DecisionTurno.habilidad(objetivo);
+            case TODOS: return DecisionTurno.A_TODOS;
+            default: return DecisionTurno.atacar(objetivo);
+        }
+    }
+}
@@ -0,0 +1,525 @@
+package simulacion;
+
+import modelo.Enemigo;
+import modelo.Heroe;
+import modelo.JefeEnemigo;
+import modelo.Personaje;
+import modelo.Tipo_Efecto;
+import modelo.Tipo_Heroe;
+
+/**
+ * Estado de una batalla guardado por columnas de enteros en lugar de objetos
+ * Personaje: cada combatiente es un indice (slot) y cada atributo un int[].
+ * Los heroes ocupan los slots [0, heroes) y los enemigos [heroes, total).
+ * Los enlaces defensor/provocador se guardan como slot (-1 si no hay).
+ * Los jefes llevan ademas su carga del especial; para el resto cooldownEspecial es 0.
+ * Los heroes guardan su tipo (ordinal de Tipo_Heroe, -1 en enemigos) para saber
+ * que habilidades pueden usar.
+ *
+ * Los efectos son la misma mascara de bits que en Personaje; la ronda en que vence
+ * y la magnitud de cada uno van en vence/magnitud en [slot * Tipo_Efecto.CANTIDAD + tipo].
+ * ataque y defensa son los base; los efectivos (con refuerzos, y la defensa total con
+ * la del defensor vivo) van en columnas aparte que se recalculan solo cuando cambia un
+ * efecto o cae o se levanta un defensor, asi cada golpe lee un int. En lugar de una
+ * rueda, terminarRonda recorre solo los slots con algun efecto (son pocos combatientes
+ * y asi copiar un estado sigue siendo copiar arreglos).
+ *
+ * Las reglas de daño replican las de Personaje.recibir_daño y Heroe.atacar para
+ * que una simulacion aqui de lo mismo que con los objetos, sin reservar memoria
+ * por turno. Para repetir batallas se carga una plantilla una vez y se copia con
+ * copiarDe antes de cada simulacion.
+ */
+public class EstadoCombate {
+
+    public static final int SIN_ENLACE = -1;
+    public static final int SIN_CLASE = -1;
+
+    private static final int EFECTOS = Tipo_Efecto.CANTIDAD;
+    private static final int SIN_VENCIMIENTO = Tipo_Efecto.SIN_VENCIMIENTO;
+
+    private final int heroes;
+    private final int total;
+
+    final int[] hp;
+    final int[] hpMaximo;
+    final int[] mp;
+    final int[] ataque;
+    final int[] defensa;
+    final int[] velocidad;
+    final int[] efectos;
+    final int[] vence;
+    final int[] magnitud;
+    final int[] defensor;
+    final int[] provocador;
+    final int[] turnosEspecial;
+    final int[] cooldownEspecial;
+    final int[] clase;
+
+    // derivados de las columnas anteriores
+    final int[] ataqueEfectivo;
+    final int[] defensaEfectiva;
+    final int[] defensaTotal;
+
+    private int heroesVivos;
+    private int enemigosVivos;
+    // ronda en curso, la misma cuenta que RuedaEfectos
+    private int ronda = 1;
+
+    public EstadoCombate(int heroes, int enemigos) {
+        this.heroes = heroes;
+        this.total = heroes + enemigos;
+        hp = new int[total];
+        hpMaximo = new int[total];
+        mp = new int[total];
+        ataque = new int[total];
+        defensa = new int[total];
+        velocidad = new int[total];
+        efectos = new int[total];
+        vence = new int[total * EFECTOS];
+        magnitud = new int[total * EFECTOS];
+        defensor = new int[total];
+        provocador = new int[total];
+        turnosEspecial = new int[total];
+        cooldownEspecial = new int[total];
+        clase = new int[total];
+        ataqueEfectivo = new int[total];
+        defensaEfectiva = new int[total];
+        defensaTotal = new int[total];
+    }
+
+    public EstadoCombate(Heroe[] heroes, Enemigo[] enemigos) {
+        this(heroes.length, enemigos.length);
+        cargar(heroes, enemigos);
+    }
+
+    // conversion desde y hacia los objetos del modelo
+
+    public void cargar(Heroe[] equipoHeroes, Enemigo[] equipoEnemigos) {
+        if (equipoHeroes.length != heroes || equipoEnemigos.length != total - heroes) {
+            throw new IllegalArgumentException("Los equipos no coinciden con el tamaño del estado.");
+        }
+        Personaje[] todos = unir(equipoHeroes, equipoEnemigos);
+        ronda = 1;
+
+        for (int i = 0; i < total; i++) {
+            Personaje p = todos[i];
+            hp[i] = p.getHp();
+            hpMaximo[i] = p.getHpMaximo();
+            mp[i] = p.getMp();
+            ataque[i] = p.getAtaqueBase();
+            defensa[i] = p.getDefensaBase();
+            velocidad[i] = p.getVelocidadBase();
+            efectos[i] = p.getEfectos();
+            for (Tipo_Efecto t : Tipo_Efecto.values()) {
+                int k = i * EFECTOS + t.ordinal();
+                int restantes = p.getRondasRestantes(t);
+                vence[k] = restantes > 0 ? ronda + restantes - 1 : SIN_VENCIMIENTO;
+                magnitud[k] = p.getMagnitud(t);
+            }
+            defensor[i] = p.estaSiendoDefendido() ? slotDe(todos, p.getDefensor()) : SIN_ENLACE;
+            provocador[i] = p.estaProvocado() ? slotDe(todos, p.getProvocador()) : SIN_ENLACE;
+            clase[i] = p instanceof Heroe ? ((Heroe) p).getTipo().ordinal() : SIN_CLASE;
+            if (p instanceof JefeEnemigo) {
+                JefeEnemigo jefe = (JefeEnemigo) p;
+                cooldownEspecial[i] = jefe.TurnosParaAtacar();
+                turnosEspecial[i] = jefe.getTurnosHastaEspecial();
+            } else {
+                cooldownEspecial[i] = 0;
+                turnosEspecial[i] = 0;
+            }
+        }
+        contarVivos();
+        for (int i = 0; i < total; i++) recalcularPropios(i);
+        for (int i = 0; i < total; i++) recalcularDefensaTotal(i);
+    }
+
+    // escribe el estado de vuelta en los objetos; ataque, defensa y velocidad base no cambian
+    // en la simulacion y no se vuelcan. Los efectos quedan con las rondas que les quedan aqui
+    public void volcar(Heroe[] equipoHeroes, Enemigo[] equipoEnemigos) {
+        Personaje[] todos = unir(equipoHeroes, equipoEnemigos);
+
+        for (int i = 0; i < total; i++) {
+            Personaje p = todos[i];
+            p.setHp(hp[i]);
+            p.setMp(mp[i]);
+
+            p.quitarEfectos();
+            for (Tipo_Efecto t : Tipo_Efecto.values()) {
+                if ((efectos[i] & t.bit()) == 0) continue;
+                int k = i * EFECTOS + t.ordinal();
+                int rondas = vence[k] == SIN_VENCIMIENTO ? SIN_VENCIMIENTO : vence[k] - ronda + 1;
+                Personaje origen = null;
+                if (t == Tipo_Efecto.DEFENDIDO && defensor[i] != SIN_ENLACE) origen = todos[defensor[i]];
+                if (t == Tipo_Efecto.PROVOCACION && provocador[i] != SIN_ENLACE) origen = todos[provocador[i]];
+                p.aplicarEfecto(t, rondas, magnitud[k], origen);
+            }
+
+            if (p instanceof JefeEnemigo) ((JefeEnemigo) p).setTurnosHastaEspecial(turnosEspecial[i]);
+        }
+    }
+
+    // copia todas las columnas de otro estado del mismo tamaño, sin reservar memoria
+    public void copiarDe(EstadoCombate otro) {
+        if (otro.total != total || otro.heroes != heroes) {
+            throw new IllegalArgumentException("Los estados no tienen el mismo tamaño.");
+        }
+        System.arraycopy(otro.hp, 0, hp, 0, total);
+        System.arraycopy(otro.hpMaximo, 0, hpMaximo, 0, total);
+        System.arraycopy(otro.mp, 0, mp, 0, total);
+        System.arraycopy(otro.ataque, 0, ataque, 0, total);
+        System.arraycopy(otro.defensa, 0, defensa, 0, total);
+        System.arraycopy(otro.velocidad, 0, velocidad, 0, total);
+        System.arraycopy(otro.efectos, 0, efectos, 0, total);
+        System.arraycopy(otro.vence, 0, vence, 0, total * EFECTOS);
+        System.arraycopy(otro.magnitud, 0, magnitud, 0, total * EFECTOS);
+        System.arraycopy(otro.defensor, 0, defensor, 0, total);
+        System.arraycopy(otro.provocador, 0, provocador, 0, total);
+        System.arraycopy(otro.turnosEspecial, 0, turnosEspecial, 0, total);
+        System.arraycopy(otro.cooldownEspecial, 0, cooldownEspecial, 0, total);
+        System.arraycopy(otro.clase, 0, clase, 0, total);
+        System.arraycopy(otro.ataqueEfectivo, 0, ataqueEfectivo, 0, total);
+        System.arraycopy(otro.defensaEfectiva, 0, defensaEfectiva, 0, total);
+        System.arraycopy(otro.defensaTotal, 0, defensaTotal, 0, total);
+        heroesVivos = otro.heroesVivos;
+        enemigosVivos = otro.enemigosVivos;
+        ronda = otro.ronda;
+    }
+
+    public EstadoCombate copiar() {
+        EstadoCombate copia = new EstadoCombate(heroes, total - heroes);
+        copia.copiarDe(this);
+        return copia;
+    }
+
+    // reglas de combate
+
+    // igual que Personaje.recibir_daño, incluido despertar al que duerme
+    public int recibirDaño(int slot, int cantidad) {
+        int dañoFinal = cantidad - defensaTotal[slot];
+        if (dañoFinal < 1) dañoFinal = 1;
+
+        setHp(slot, hp[slot] - dañoFinal);
+        for (int m = efectos[slot] & Tipo_Efecto.TERMINAN_CON_GOLPE; m != 0; m &= m - 1) {
+            quitarEfecto(slot, Tipo_Efecto.deOrdinal(Integer.numberOfTrailingZeros(m)));
+        }
+        return dañoFinal;
+    }
+
+    // igual que Heroe.atacar / Enemigo.atacar, -1 si el objetivo ya estaba muerto
+    public int atacar(int atacante, int objetivo) {
+        if (hp[objetivo] <= 0) return -1;
+
+        int daño = ataqueEfectivo[atacante] - defensaEfectiva[objetivo];
+        if (daño < 1) daño = 1;
+
+        recibirDaño(objetivo, daño);
+        return daño;
+    }
+
+    // igual que JefeEnemigo.usarHabilidadEspecial, -1 si el objetivo ya estaba muerto
+    public int especial(int atacante, int objetivo) {
+        if (hp[objetivo] <= 0) return -1;
+
+        int daño = ataqueEfectivo[atacante] * 3 - defensaEfectiva[objetivo];
+        if (daño < 1) daño = 1;
+
+        recibirDaño(objetivo, daño);
+        return daño;
+    }
+
+    // igual que JefeEnemigo.atacarATodos: el doble de ataque a cada vivo del otro equipo
+    public void atacarATodos(int atacante) {
+        int desde = atacante < heroes ? heroes : 0;
+        int hasta = atacante < heroes ? total : heroes;
+        for (int i = desde; i < hasta; i++) {
+            if (hp[i] <= 0) continue;
+            int daño = ataqueEfectivo[atacante] * 2 - defensaEfectiva[i];
+            if (daño < 1) daño = 1;
+            recibirDaño(i, daño);
+        }
+    }
+
+    // igual que JefeEnemigo.terminarTurno
+    public void terminarTurnoJefe(int slot) {
+        if (turnosEspecial[slot] <= 0) turnosEspecial[slot] = cooldownEspecial[slot];
+        else turnosEspecial[slot]--;
+    }
+
+    // habilidades de los heroes, igual que en Heroe: false si el tipo o el mana no alcanzan
+
+    public boolean curar(int slot, int objetivo) {
+        if (!esClase(slot, Tipo_Heroe.DRUIDA, Tipo_Heroe.PALADIN) || mp[slot] < 15) return false;
+        mp[slot] -= 15;
+        setHp(objetivo, hp[objetivo] + 30);
+        return true;
+    }
+
+    public boolean revivir(int slot, int objetivo) {
+        if (!esClase(slot, Tipo_Heroe.PALADIN, Tipo_Heroe.PALADIN) || hp[objetivo] > 0 || mp[slot] < 25) return false;
+        mp[slot] -= 25;
+        setHp(objetivo, 50);
+        return true;
+    }
+
+    public boolean restaurarMana(int slot, int objetivo) {
+        if (!esClase(slot, Tipo_Heroe.DRUIDA, Tipo_Heroe.DRUIDA) || mp[slot] < 20) return false;
+        mp[slot] -= 20;
+        mp[objetivo] += 25;
+        return true;
+    }
+
+    public boolean defender(int slot, int aliado) {
+        if (!esClase(slot, Tipo_Heroe.GUERRERO, Tipo_Heroe.PALADIN) || mp[slot] < 10) return false;
+        mp[slot] -= 10;
+        aplicarEfecto(aliado, Tipo_Efecto.DEFENDIDO, SIN_VENCIMIENTO, 0, slot);
+        return true;
+    }
+
+    public boolean provocar(int slot, int enemigo) {
+        if (!esClase(slot, Tipo_Heroe.GUERRERO, Tipo_Heroe.PALADIN) || mp[slot] < 5) return false;
+        mp[slot] -= 5;
+        aplicarEfecto(enemigo, Tipo_Efecto.PROVOCACION, Heroe.DURACION_PROVOCACION, 0, slot);
+        return true;
+    }
+
+    public boolean dormir(int slot, int enemigo) {
+        if (!esClase(slot, Tipo_Heroe.MAGO, Tipo_Heroe.DRUIDA) || mp[slot] < 20) return false;
+        mp[slot] -= 20;
+        recibirDaño(enemigo, Heroe.DAÑO_SUEÑO);
+        aplicarEfecto(enemigo, Tipo_Efecto.SUEÑO, Heroe.DURACION_SUEÑO, 0, SIN_ENLACE);
+        return true;
+    }
+
+    public boolean reforzar(int slot, int aliado) {
+        if (!esClase(slot, Tipo_Heroe.MAGO, Tipo_Heroe.DRUIDA) || mp[slot] < 20) return false;
+        mp[slot] -= 20;
+        aplicarEfecto(aliado, Tipo_Efecto.REFUERZO, Heroe.DURACION_REFUERZO, 60, slot);
+        return true;
+    }
+
+    public boolean paralizar(int slot, int enemigo) {
+        if (!esClase(slot, Tipo_Heroe.MAGO, Tipo_Heroe.DRUIDA) || mp[slot] < 25) return false;
+        mp[slot] -= 25;
+        aplicarEfecto(enemigo, Tipo_Efecto.PARALISIS, Heroe.DURACION_PARALISIS, 0, SIN_ENLACE);
+        return true;
+    }
+
+    // efectos, con las mismas reglas de acumulacion que Personaje.aplicarEfecto
+
+    private boolean aplicarEfecto(int slot, Tipo_Efecto tipo, int rondas, int cantidad, int origen) {
+        if (hp[slot] <= 0) return false;
+        if (tipo.bloqueaTurno() && rondas <= 0) return false;
+
+        int k = slot * EFECTOS + tipo.ordinal();
+        int nuevo = rondas > 0 ? ronda + rondas - 1 : SIN_VENCIMIENTO;
+        if ((efectos[slot] & tipo.bit()) != 0) {
+            switch (tipo.getAcumulacion()) {
+                case IGNORAR:
+                    return false;
+                case RENOVAR:
+                    nuevo = masLejano(vence[k], nuevo);
+                    cantidad = Math.max(magnitud[k], cantidad);
+                    break;
+                case SUMAR:
+                    nuevo = masLejano(vence[k], nuevo);
+                    cantidad += magnitud[k];
+                    break;
+                default:
+                    break;
+            }
+        }
+        efectos[slot] |= tipo.bit();
+        vence[k] = nuevo;
+        magnitud[k] = cantidad;
+        if (tipo == Tipo_Efecto.PROVOCACION) provocador[slot] = origen;
+        else if (tipo == Tipo_Efecto.DEFENDIDO) defensor[slot] = origen;
+        actualizarDerivados(slot);
+        return true;
+    }
+
+    private void quitarEfecto(int slot, Tipo_Efecto tipo) {
+        if ((efectos[slot] & tipo.bit()) == 0) return;
+        int k = slot * EFECTOS + tipo.ordinal();
+        efectos[slot] &= ~tipo.bit();
+        vence[k] = SIN_VENCIMIENTO;
+        magnitud[k] = 0;
+        if (tipo == Tipo_Efecto.PROVOCACION) provocador[slot] = SIN_ENLACE;
+        else if (tipo == Tipo_Efecto.DEFENDIDO) defensor[slot] = SIN_ENLACE;
+        actualizarDerivados(slot);
+    }
+
+    // como Personaje.invalidar, pero recalculando en el momento: los efectos cambian
+    // pocas veces por batalla y asi copiarDe sigue siendo copiar arreglos
+    private void actualizarDerivados(int slot) {
+        recalcularPropios(slot);
+        recalcularDefensaTotal(slot);
+        for (int i = 0; i < total; i++) {
+            if (defensor[i] == slot) recalcularDefensaTotal(i);
+        }
+    }
+
+    private void recalcularPropios(int slot) {
+        int k = slot * EFECTOS;
+        ataqueEfectivo[slot] = ataque[slot] + magnitud[k + Tipo_Efecto.REFUERZO.ordinal()];
+        defensaEfectiva[slot] = defensa[slot] + magnitud[k + Tipo_Efecto.DEFENSA_EXTRA.ordinal()];
+    }
+
+    private void recalcularDefensaTotal(int slot) {
+        int d = defensor[slot];
+        defensaTotal[slot] = defensaEfectiva[slot] + (d != SIN_ENLACE && hp[d] > 0 ? defensaEfectiva[d] : 0);
+    }
+
+    private void quitarEfectos(int slot) {
+        for (Tipo_Efecto t : Tipo_Efecto.values()) {
+            if ((efectos[slot] & t.bit()) != 0) quitarEfecto(slot, t);
+        }
+    }
+
+    /**
+     * Cierra la ronda como RuedaEfectos.terminarRonda: vence lo que terminaba en
+     * esta ronda y pasa a la siguiente.
+     */
+    public void terminarRonda() {
+        for (int i = 0; i < total; i++) {
+            if (efectos[i] == 0) continue;
+            for (Tipo_Efecto t : Tipo_Efecto.values()) {
+                if ((efectos[i] & t.bit()) != 0 && vence[i * EFECTOS + t.ordinal()] == ronda) quitarEfecto(i, t);
+            }
+        }
+        ronda++;
+    }
+
+    private static int masLejano(int a, int b) {
+        if (a == SIN_VENCIMIENTO || b == SIN_VENCIMIENTO) return SIN_VENCIMIENTO;
+        return Math.max(a, b);
+    }
+
+    private boolean esClase(int slot, Tipo_Heroe a, Tipo_Heroe b) {
+        return clase[slot] == a.ordinal() || clase[slot] == b.ordinal();
+    }
+
+    public void setHp(int slot, int valor) {
+        boolean estabaVivo = hp[slot] > 0;
+        hp[slot] = Math.max(0, valor);
+        boolean vivo = hp[slot] > 0;
+
+        if (!vivo) quitarEfectos(slot);
+        if (estabaVivo != vivo) {
+            int cambio = vivo ? 1 : -1;
+            if (slot < heroes) heroesVivos += cambio;
+            else enemigosVivos += cambio;
+            // cambia la defensa total de los que defendia
+            actualizarDerivados(slot);
+        }
+    }
+
+    // cambia los atributos base de un slot sin pasar por los objetos (ej. barridos de balance)
+    public void setAtributos(int slot, int vida, int mana, int valorAtaque, int valorDefensa, int valorVelocidad) {
+        mp[slot] = Math.max(0, mana);
+        ataque[slot] = valorAtaque;
+        defensa[slot] = valorDefensa;
+        velocidad[slot] = valorVelocidad;
+        hpMaximo[slot] = vida;
+        setHp(slot, vida);
+        actualizarDerivados(slot);
+    }
+
+    // cambia el tipo de un heroe (ej. al armar equipos por codigo); no toca sus atributos
+    public void setClase(int slot, Tipo_Heroe tipo) {
+        if (slot >= heroes) {
+            throw new IllegalArgumentException("Solo los heroes tienen clase.");
+        }
+        clase[slot] = tipo.ordinal();
+    }
+
+    // consultas
+
+    public boolean estaVivo(int slot) { return hp[slot] > 0; }
+    public boolean hayHeroesVivos() { return heroesVivos > 0; }
+    public boolean hayEnemigosVivos() { return enemigosVivos > 0; }
+    public int getHeroesVivos() { return heroesVivos; }
+    public int getEnemigosVivos() { return enemigosVivos; }
+
+    public int getHeroes() { return heroes; }
+    public int getEnemigos() { return total - heroes; }
+    public int getTotal() { return total; }
+    public boolean esHeroe(int slot) { return slot < heroes; }
+    public boolean esJefe(int slot) { return cooldownEspecial[slot] > 0; }
+    public boolean especialCargado(int slot) { return esJefe(slot) && turnosEspecial[slot] <= 0; }
+
+    public int getHp(int slot) { return hp[slot]; }
+    // como Personaje.getHpMaximo: la vida con que se creo, aunque despues lo hayan curado de mas
+    public int getHpMaximo(int slot) { return hpMaximo[slot]; }
+    public int getMp(int slot) { return mp[slot]; }
+    // con los refuerzos activos, como Personaje.getAtaque/getDefensa/getDefensaTotal
+    public int getAtaque(int slot) { return ataqueEfectivo[slot]; }
+    public int getDefensa(int slot) { return defensaEfectiva[slot]; }
+    public int getDefensaTotal(int slot) { return defensaTotal[slot]; }
+    public int getVelocidad(int slot) { return velocidad[slot]; }
+    public int getEfectos(int slot) { return efectos[slot]; }
+    public boolean tieneEfecto(int slot, Tipo_Efecto tipo) { return (efectos[slot] & tipo.bit()) != 0; }
+    public boolean puedeActuar(int slot) { return (efectos[slot] & Tipo_Efecto.BLOQUEAN_TURNO) == 0; }
+    public int getRonda() { return ronda; }
+    public int getDefensor(int slot) { return defensor[slot]; }
+    public int getProvocador(int slot) { return provocador[slot]; }
+    public int getTurnosEspecial(int slot) { return turnosEspecial[slot]; }
+    public int getClase(int slot) { return clase[slot]; }
+
+    // primer slot vivo en [desde, hasta), -1 si no hay
+    public int primerVivo(int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) if (hp[i] > 0) return i;
+        return -1;
+    }
+
+    public int primerHeroeVivo() { return primerVivo(0, heroes); }
+
+    // el heroe que golpea un enemigo con la politica por defecto: su provocador si sigue vivo
+    public int objetivoDeEnemigo(int slot) {
+        int p = provocador[slot];
+        return p != SIN_ENLACE && hp[p] > 0 ? p : primerHeroeVivo();
+    }
+    public int primerEnemigoVivo() { return primerVivo(heroes, total); }
+
+    // el k-esimo heroe vivo (k empieza en 0), como Enemigo.buscarHeroeVivo
+    public int heroeVivo(int k) {
+        for (int i = 0; i < heroes; i++) {
+            if (hp[i] > 0 && k-- == 0) return i;
+        }
+        return -1;
+    }
+
+    public int getHpHeroes() {
+        int suma = 0;
+        for (int i = 0; i < heroes; i++) suma += hp[i];
+        return suma;
+    }
+
+    public int getHpEnemigos() {
+        int suma = 0;
+        for (int i = heroes; i < total; i++) suma += hp[i];
+        return suma;
+    }
+
+    private void contarVivos() {
+        heroesVivos = 0;
+        enemigosVivos = 0;
+        for (int i = 0; i < total; i++) {
+            if (hp[i] <= 0) continue;
+            if (i < heroes) heroesVivos++;
+            else enemigosVivos++;
+        }
+    }
+
+    private Personaje[] unir(Heroe[] equipoHeroes, Enemigo[] equipoEnemigos) {
+        Personaje[] todos = new Personaje[total];
+        System.arraycopy(equipoHeroes, 0, todos, 0, heroes);
+        System.arraycopy(equipoEnemigos, 0, todos, heroes, total - heroes);
+        return todos;
+    }
+
+    private static int slotDe(Personaje[] todos, Personaje p) {
+        if (p == null) return SIN_ENLACE;
+        for (int i = 0; i < todos.length; i++) if (todos[i] == p) return i;
+        return SIN_ENLACE;
+    }
+}
@@ -0,0 +1,53 @@
+package simulacion;
+
+/**
+ * Resultado de EstimadorMonteCarlo. Todos los intervalos son de confianza al 95%.
+ */
+public class EstimacionVictoria {
+
+    private final long batallas;
+    private final double probabilidadVictoria;
+    private final double victoriaMin, victoriaMax;
+    private final double rondasMedia;
+    private final double rondasMin, rondasMax;
+    private final double hpRestanteMedio;
+    private final double hpRestanteMin, hpRestanteMax;
+
+    EstimacionVictoria(long batallas, double probabilidadVictoria, double victoriaMin, double victoriaMax,
+                       double rondasMedia, double rondasMin, double rondasMax,
+                       double hpRestanteMedio, double hpRestanteMin, double hpRestanteMax) {
+        this.batallas = batallas;
+        this.probabilidadVictoria = probabilidadVictoria;
+        this.victoriaMin = victoriaMin;
+        this.victoriaMax = victoriaMax;
+        this.rondasMedia = rondasMedia;
+        this.rondasMin = rondasMin;
+        this.rondasMax = rondasMax;
+        this.hpRestanteMedio = hpRestanteMedio;
+        this.hpRestanteMin = hpRestanteMin;
+        this.hpRestanteMax = hpRestanteMax;
+    }
+
+    public long getBatallas() { return batallas; }
+
+    public double getProbabilidadVictoria() { return probabilidadVictoria; }
+    public double getVictoriaMin() { return victoriaMin; }
+    public double getVictoriaMax() { return victoriaMax; }
+
+    public double getRondasMedia() { return rondasMedia; }
+    public double getRondasMin() { return rondasMin; }
+    public double getRondasMax() { return rondasMax; }
+
+    // hp total de los heroes al terminar (0 en las derrotas)
+    public double getHpRestanteMedio() { return hpRestanteMedio; }
+    public double getHpRestanteMin() { return hpRestanteMin; }
+    public double getHpRestanteMax() { return hpRestanteMax; }
+
+    @Override
+    public String toString() {
+        return String.format("Batallas: %d | Victoria: %.4f [%.4f, %.4f] | Rondas: %.2f [%.2f, %.2f] | HP restante: %.2f [%.2f, %.2f]",
+                batallas, probabilidadVictoria, victoriaMin, victoriaMax,
+                rondasMedia, rondasMin, rondasMax,
+                hpRestanteMedio, hpRestanteMin, hpRestanteMax);
+    }
+}
@@ -0,0 +1,190 @@
+package simulacion;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import controlador.MotorBatalla;
+import controlador.PoliticaEnemigo;
+import controlador.PoliticaHeroe;
+import controlador.ResultadoBatalla;
+import modelo.Enemigo;
+import modelo.GeneradorAleatorio;
+import modelo.Heroe;
+
+/**
+ * Estima la probabilidad de victoria de un equipo de heroes contra un equipo de
+ * enemigos simulando muchas batallas independientes. Con las politicas por defecto
+ * se simula sobre EstadoCombate con SimuladorLote; con politicas propias se usa
+ * MotorBatalla sobre copias de los objetos.
+ * El trabajo se reparte con fork-join: cada hoja simula su bloque de batallas
+ * sobre copias propias de los equipos y acumula en variables locales, por lo que
+ * los hilos no comparten nada hasta combinar los totales al final.
+ */
+public class EstimadorMonteCarlo {
+
+    private static final double Z_95 = 1.959963984540054;
+
+    private final Heroe[] heroes;
+    private final Enemigo[] enemigos;
+    private final PoliticaHeroe politicaHeroe;
+    private final PoliticaEnemigo politicaEnemigo;
+    private final ForkJoinPool pool;
+
+    // plantilla para el modo por lotes, null si se simula con objetos
+    private final EstadoCombate plantilla;
+
+    // heroes contra el primer enemigo vivo, enemigos contra un heroe al azar
+    public EstimadorMonteCarlo(Heroe[] heroes, Enemigo[] enemigos) {
+        this(heroes, enemigos, ForkJoinPool.commonPool());
+    }
+
+    public EstimadorMonteCarlo(Heroe[] heroes, Enemigo[] enemigos, ForkJoinPool pool) {
+        this.heroes = heroes;
+        this.enemigos = enemigos;
+        this.politicaHeroe = PoliticaHeroe.PRIMER_ENEMIGO_VIVO;
+        this.politicaEnemigo = PoliticaEnemigo.HEROE_ALEATORIO;
+        this.pool = pool;
+        this.plantilla = new EstadoCombate(heroes, enemigos);
+    }
+
+    // las politicas se comparten entre hilos, deben ser sin estado
+    public EstimadorMonteCarlo(Heroe[] heroes, Enemigo[] enemigos, PoliticaHeroe politicaHeroe,
+                               PoliticaEnemigo politicaEnemigo, ForkJoinPool pool) {
+        this.heroes = heroes;
+        this.enemigos = enemigos;
+        this.politicaHeroe = politicaHeroe;
+        this.politicaEnemigo = politicaEnemigo;
+        this.pool = pool;
+        this.plantilla = null;
+    }
+
+    public EstimacionVictoria estimar(long batallas) {
+        return estimar(batallas, GeneradorAleatorio.delHilo());
+    }
+
+    // con la misma semilla el resultado es identico bit a bit, sin importar cuantos hilos haya;
+    // con politicas propias la semilla no se usa, el azar depende de esas politicas
+    public EstimacionVictoria estimar(long batallas, long semilla) {
+        return estimar(batallas, GeneradorAleatorio.conSemilla(semilla));
+    }
+
+    private EstimacionVictoria estimar(long batallas, GeneradorAleatorio aleatorio) {
+        if (batallas <= 0) {
+            throw new IllegalArgumentException("La cantidad de batallas debe ser positiva.");
+        }
+        // el tamaño de bloque no depende del pool para que la division en tareas,
+        // y con ella los flujos aleatorios de cada hoja, sea siempre la misma
+        long bloque = Math.max(256, batallas / 512);
+        Acumulado total = pool.invoke(new Tarea(0, batallas, bloque, aleatorio));
+        return total.aEstimacion();
+    }
+
+    // simula un bloque de batallas, en modo lote reutilizando un solo estado
+    private Acumulado simularBloque(long batallas, GeneradorAleatorio aleatorio) {
+        Acumulado acc = new Acumulado();
+        if (plantilla == null) {
+            for (long i = 0; i < batallas; i++) simular(acc);
+            return acc;
+        }
+
+        EstadoCombate estado = plantilla.copiar();
+        SimuladorLote simulador = new SimuladorLote(true, aleatorio);
+        for (long i = 0; i < batallas; i++) {
+            estado.copiarDe(plantilla);
+            ResultadoBatalla resultado = simulador.simular(estado);
+            acc.agregar(resultado == ResultadoBatalla.VICTORIA, simulador.getRondas(), estado.getHpHeroes());
+        }
+        return acc;
+    }
+
+    // simula una sola batalla sobre copias de los equipos
+    private void simular(Acumulado acc) {
+        Heroe[] h = new Heroe[heroes.length];
+        for (int i = 0; i < h.length; i++) h[i] = heroes[i].copiar();
+        Enemigo[] e = new Enemigo[enemigos.length];
+        for (int i = 0; i < e.length; i++) e[i] = enemigos[i].copiar();
+
+        MotorBatalla motor = new MotorBatalla(h, e, politicaHeroe, politicaEnemigo);
+        ResultadoBatalla resultado = motor.ejecutar();
+        acc.agregar(resultado == ResultadoBatalla.VICTORIA, motor.getRondas(), motor.getHpHeroes());
+    }
+
+
+    private class Tarea extends RecursiveTask<Acumulado> {
+        private static final long serialVersionUID = 1L;
+
+        private final long desde, hasta, bloque;
+        private final GeneradorAleatorio aleatorio;
+
+        Tarea(long desde, long hasta, long bloque, GeneradorAleatorio aleatorio) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.bloque = bloque;
+            this.aleatorio = aleatorio;
+        }
+
+        @Override
+        protected Acumulado compute() {
+            if (hasta - desde <= bloque) {
+                return simularBloque(hasta - desde, aleatorio);
+            }
+            long medio = (desde + hasta) >>> 1;
+            // la mitad izquierda recibe un flujo propio antes de ir a otro hilo
+            Tarea izquierda = new Tarea(desde, medio, bloque, aleatorio.dividir());
+            izquierda.fork();
+            Acumulado derecha = new Tarea(medio, hasta, bloque, aleatorio).compute();
+            return izquierda.join().combinar(derecha);
+        }
+    }
+
+    // sumas para media y varianza, cada hoja tiene la suya
+    static final class Acumulado {
+        long n, victorias;
+        double sumaRondas, sumaRondas2;
+        double sumaHp, sumaHp2;
+
+        void agregar(boolean victoria, int rondas, int hp) {
+            n++;
+            if (victoria) victorias++;
+            sumaRondas += rondas;
+            sumaRondas2 += (double) rondas * rondas;
+            sumaHp += hp;
+            sumaHp2 += (double) hp * hp;
+        }
+
+        Acumulado combinar(Acumulado otro) {
+            n += otro.n;
+            victorias += otro.victorias;
+            sumaRondas += otro.sumaRondas;
+            sumaRondas2 += otro.sumaRondas2;
+            sumaHp += otro.sumaHp;
+            sumaHp2 += otro.sumaHp2;
+            return this;
+        }
+
+        EstimacionVictoria aEstimacion() {
+            double p = (double) victorias / n;
+
+            // intervalo de Wilson, se comporta bien aunque p este cerca de 0 o 1
+            double z2 = Z_95 * Z_95;
+            double centro = (p + z2 / (2 * n)) / (1 + z2 / n);
+            double radio = Z_95 * Math.sqrt(p * (1 - p) / n + z2 / (4.0 * n * n)) / (1 + z2 / n);
+
+            double mediaRondas = sumaRondas / n;
+            double errorRondas = Z_95 * Math.sqrt(varianza(sumaRondas, sumaRondas2) / n);
+            double mediaHp = sumaHp / n;
+            double errorHp = Z_95 * Math.sqrt(varianza(sumaHp, sumaHp2) / n);
+
+            return new EstimacionVictoria(n, p, Math.max(0, centro - radio), Math.min(1, centro + radio),
+                    mediaRondas, mediaRondas - errorRondas, mediaRondas + errorRondas,
+                    mediaHp, mediaHp - errorHp, mediaHp + errorHp);
+        }
+
+        // varianza muestral a partir de las sumas
+        private double varianza(double suma, double suma2) {
+            if (n < 2) return 0;
+            double media = suma / n;
+            return Math.max(0, (suma2 - n * media * media) / (n - 1));
+        }
+    }
+}
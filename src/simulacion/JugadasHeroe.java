@@ -0,0 +1,110 @@
+package simulacion;
+
+import controlador.DecisionTurno;
+import modelo.Tipo_Efecto;
+import modelo.Tipo_Heroe;
+
+/**
+ * Jugadas de un heroe sobre un EstadoCombate para las busquedas: cada jugada es
+ * un int accion << 8 | objetivo, con la accion de DecisionTurno y el objetivo como
+ * indice dentro de su equipo. Solo se generan jugadas que se pueden aplicar (tipo
+ * de heroe y mana), con los mismos costos que Heroe.
+ *
+ * El turno de los enemigos se juega con una regla fija: golpean a su provocador o
+ * al primer heroe vivo y los jefes usan el especial apenas lo tienen cargado. No es
+ * lo que hace el controlador, que mueve a los jefes con BusquedaJefe; es una
+ * aproximacion barata para las busquedas y simulaciones. Quien esta dormido o
+ * paralizado pierde el turno, y al cerrar cada vuelta del orden de turnos vencen
+ * los efectos de esa ronda.
+ */
+final class JugadasHeroe {
+
+    private static final int GUERRERO = Tipo_Heroe.GUERRERO.ordinal();
+    private static final int PALADIN = Tipo_Heroe.PALADIN.ordinal();
+    private static final int DRUIDA = Tipo_Heroe.DRUIDA.ordinal();
+    private static final int MAGO = Tipo_Heroe.MAGO.ordinal();
+
+    private JugadasHeroe() {
+    }
+
+    // cota de jugadas de un heroe, para dimensionar los buffers
+    static int maximo(EstadoCombate e) {
+        return e.getEnemigos() * 4 + e.getHeroes() * 5;
+    }
+
+    static int jugada(int accion, int objetivo) {
+        return accion << 8 | objetivo;
+    }
+
+    static DecisionTurno aDecision(int jugada) {
+        return DecisionTurno.de(jugada >>> 8, jugada & 0xFF);
+    }
+
+    // deja en destino las jugadas de slot y devuelve cuantas son
+    static int generar(EstadoCombate e, int slot, int[] destino) {
+        int heroes = e.getHeroes(), enemigos = e.getEnemigos();
+        int clase = e.getClase(slot), mp = e.getMp(slot);
+        boolean tanque = clase == GUERRERO || clase == PALADIN;
+        boolean sanador = clase == DRUIDA || clase == PALADIN;
+        boolean hechicero = clase == MAGO || clase == DRUIDA;
+        int n = 0;
+
+        for (int i = 0; i < enemigos; i++) {
+            int s = heroes + i;
+            if (!e.estaVivo(s)) continue;
+            destino[n++] = jugada(DecisionTurno.ATACAR, i);
+            if (tanque && mp >= 5 && e.getProvocador(s) != slot) destino[n++] = jugada(DecisionTurno.PROVOCAR, i);
+            if (hechicero && mp >= 20 && !e.tieneEfecto(s, Tipo_Efecto.SUEÑO)) destino[n++] = jugada(DecisionTurno.DORMIR, i);
+            if (hechicero && mp >= 25 && !e.tieneEfecto(s, Tipo_Efecto.PARALISIS)) destino[n++] = jugada(DecisionTurno.PARALIZAR, i);
+        }
+
+        for (int a = 0; a < heroes; a++) {
+            boolean vivo = e.estaVivo(a);
+            // curar suma vida sin mirar si el aliado esta caido, igual que Heroe.curar
+            if (sanador && mp >= 15) destino[n++] = jugada(DecisionTurno.CURAR, a);
+            if (clase == PALADIN && !vivo && mp >= 25) destino[n++] = jugada(DecisionTurno.REVIVIR, a);
+            if (!vivo) continue;
+            if (clase == DRUIDA && mp >= 20) destino[n++] = jugada(DecisionTurno.RESTAURAR_MANA, a);
+            if (tanque && mp >= 10 && a != slot && e.getDefensor(a) != slot) destino[n++] = jugada(DecisionTurno.DEFENDER, a);
+            if (hechicero && mp >= 20) destino[n++] = jugada(DecisionTurno.REFORZAR, a);
+        }
+        return n;
+    }
+
+    static void aplicar(EstadoCombate e, int slot, int jugada) {
+        int objetivo = jugada & 0xFF;
+        int enemigo = e.getHeroes() + objetivo;
+        switch (jugada >>> 8) {
+            case DecisionTurno.ATACAR: e.atacar(slot, enemigo); break;
+            case DecisionTurno.PROVOCAR: e.provocar(slot, enemigo); break;
+            case DecisionTurno.DORMIR: e.dormir(slot, enemigo); break;
+            case DecisionTurno.PARALIZAR: e.paralizar(slot, enemigo); break;
+            case DecisionTurno.CURAR: e.curar(slot, objetivo); break;
+            case DecisionTurno.REVIVIR: e.revivir(slot, objetivo); break;
+            case DecisionTurno.RESTAURAR_MANA: e.restaurarMana(slot, objetivo); break;
+            case DecisionTurno.DEFENDER: e.defender(slot, objetivo); break;
+            case DecisionTurno.REFORZAR: e.reforzar(slot, objetivo); break;
+            default: break;
+        }
+    }
+
+    /**
+     * Juega los turnos de enemigos que siguen a slot y devuelve el proximo heroe
+     * vivo que actua, o -1 si la batalla termino.
+     */
+    static int avanzar(EstadoCombate e, int slot) {
+        int total = e.getTotal(), heroes = e.getHeroes();
+        for (int i = 1; ; i++) {
+            if (!e.hayHeroesVivos() || !e.hayEnemigosVivos()) return -1;
+            int s = (slot + i) % total;
+            if (s == 0) e.terminarRonda();
+            if (!e.estaVivo(s) || !e.puedeActuar(s)) continue;
+            if (s < heroes) return s;
+
+            int objetivo = e.objetivoDeEnemigo(s);
+            if (e.especialCargado(s)) e.especial(s, objetivo);
+            else e.atacar(s, objetivo);
+            if (e.esJefe(s)) e.terminarTurnoJefe(s);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package simulacion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import controlador.ResultadoBatalla;
+import modelo.Enemigo;
+import modelo.GeneradorAleatorio;
+import modelo.Heroe;
+import modelo.JefeFactory;
+import modelo.Tipo_Enemigo;
+import modelo.Tipo_Heroe;
+import modelo.Tipo_JefeEnemigo;
+import simulacion.BarridoBalance.Atributo;
+
+/**
+ * Algoritmo genetico que busca equipos de 4 heroes (tipos y atributos dentro del
+ * rango de cada tipo) que le ganen a un equipo fijo de enemigos o a un jefe. La
+ * aptitud de un equipo es su tasa de victoria simulada con SimuladorHabilidades
+ * (los heroes usan sus habilidades y el mana, los jefes su especial), mas un poco
+ * por la vida que le queda y la que le saco al rival; sirve para encontrar
+ * combinaciones que rompen el balance antes que los jugadores.
+ *
+ * Cada heroe puede repartir un presupuesto: la suma de cuanto sube cada atributo
+ * dentro de su rango (0 en el minimo, 1 en el maximo) no pasa de presupuesto. Con
+ * presupuesto 4 no hay limite y gana quien tenga todo al maximo.
+ *
+ * Los equipos se evaluan en paralelo por bloques; cada bloque tiene su trabajador
+ * con sus EstadoCombate, que se reutilizan en todas las generaciones. En una misma
+ * generacion todos los equipos juegan con la misma semilla (numeros aleatorios
+ * comunes), asi las diferencias entre ellos no son ruido. Con la misma semilla el
+ * resultado es identico sin importar cuantos hilos haya.
+ *
+ * Uso: java -cp out simulacion.OptimizadorEquipos [clave=valor...]
+ *   enemigos=ORCO,TROLL,GOLEM (tipos de enemigo o de jefe)  poblacion=64  generaciones=40
+ *   batallas=200  presupuesto=2  semilla=1
+ */
+public class OptimizadorEquipos {
+
+    public static final int HEROES = 4;
+
+    // atributos que se reparten; la velocidad no cambia el resultado: se juega en orden de slot
+    private static final Atributo[] REPARTIBLES = { Atributo.HP, Atributo.MP, Atributo.ATAQUE, Atributo.DEFENSA };
+    // genes por heroe: tipo y un valor por atributo repartible
+    private static final int GENES = 1 + REPARTIBLES.length;
+
+    private static final Tipo_Heroe[] TIPOS = Tipo_Heroe.values();
+    private static final int BLOQUE = 4;
+    private static final int ELITE = 2;
+    private static final int TORNEO = 3;
+    private static final double CRUCE = 0.9;
+    private static final double MUTACION = 0.25;
+    // peso de la vida restante y del daño hecho en la aptitud: desempatan entre tasas
+    // parecidas y dan hacia donde ir cuando nadie gana (ej. contra un jefe)
+    private static final double PESO_HP = 0.01;
+
+    private final int poblacion;
+    private final int batallas;
+    private final double presupuesto;
+    private final long semilla;
+    private final ForkJoinPool pool;
+    private final SplittableRandom random;
+
+    // genes de la generacion actual y de la siguiente; se intercambian, no se crean
+    private int[][] genes, siguientes;
+    private final double[] aptitud, tasa, rondas;
+    private final Trabajador[] trabajadores;
+
+    private int generacion;
+    private int mejor = -1;
+
+    public OptimizadorEquipos(Enemigo[] enemigos, int poblacion, int batallas, double presupuesto, long semilla) {
+        this(enemigos, poblacion, batallas, presupuesto, semilla, ForkJoinPool.commonPool());
+    }
+
+    public OptimizadorEquipos(Enemigo[] enemigos, int poblacion, int batallas, double presupuesto, long semilla,
+                              ForkJoinPool pool) {
+        if (enemigos.length == 0) {
+            throw new IllegalArgumentException("Hace falta al menos un enemigo.");
+        }
+        if (poblacion <= ELITE || batallas <= 0) {
+            throw new IllegalArgumentException("La poblacion debe ser mayor que " + ELITE + " y las batallas positivas.");
+        }
+        if (presupuesto <= 0) {
+            throw new IllegalArgumentException("El presupuesto debe ser positivo.");
+        }
+        this.poblacion = poblacion;
+        this.batallas = batallas;
+        this.presupuesto = presupuesto;
+        this.semilla = semilla;
+        this.pool = pool;
+        this.random = new SplittableRandom(semilla);
+
+        genes = new int[poblacion][HEROES * GENES];
+        siguientes = new int[poblacion][HEROES * GENES];
+        aptitud = new double[poblacion];
+        tasa = new double[poblacion];
+        rondas = new double[poblacion];
+
+        // el estado de los trabajadores se arma una vez con heroes cualquiera; cada
+        // equipo reemplaza despues tipo y atributos de los slots de heroes
+        Heroe[] relleno = new Heroe[HEROES];
+        for (int i = 0; i < HEROES; i++) relleno[i] = new Heroe("Heroe " + (i + 1), Tipo_Heroe.GUERRERO, 1, 0, 0, 0, 0);
+        EstadoCombate plantilla = new EstadoCombate(relleno, enemigos);
+        trabajadores = new Trabajador[(poblacion + BLOQUE - 1) / BLOQUE];
+        for (int i = 0; i < trabajadores.length; i++) trabajadores[i] = new Trabajador(plantilla);
+
+        for (int[] g : genes) {
+            for (int h = 0; h < HEROES; h++) {
+                Tipo_Heroe tipo = TIPOS[random.nextInt(TIPOS.length)];
+                g[h * GENES] = tipo.ordinal();
+                for (int a = 0; a < REPARTIBLES.length; a++) {
+                    int[] r = BarridoBalance.rango(tipo, REPARTIBLES[a]);
+                    g[h * GENES + 1 + a] = r[0] + random.nextInt(r[1] - r[0] + 1);
+                }
+                ajustarPresupuesto(g, h);
+            }
+        }
+        evaluar();
+    }
+
+    /**
+     * Arma la siguiente generacion (elite, torneo, cruce por heroe y mutacion) y la
+     * evalua. Los de la elite se vuelven a simular: con otra semilla no arrastran
+     * una tasa que fue suerte.
+     */
+    public void siguienteGeneracion() {
+        Integer[] orden = ordenPorAptitud();
+        for (int i = 0; i < ELITE; i++) System.arraycopy(genes[orden[i]], 0, siguientes[i], 0, HEROES * GENES);
+
+        for (int i = ELITE; i < poblacion; i++) {
+            int[] hijo = siguientes[i];
+            int[] a = genes[torneo()];
+            int[] b = random.nextDouble() < CRUCE ? genes[torneo()] : a;
+            // un heroe es un bloque: sus atributos solo tienen sentido con su tipo
+            for (int h = 0; h < HEROES; h++) {
+                int[] padre = random.nextBoolean() ? a : b;
+                System.arraycopy(padre, h * GENES, hijo, h * GENES, GENES);
+                if (random.nextDouble() < MUTACION) mutar(hijo, h);
+            }
+        }
+
+        int[][] t = genes;
+        genes = siguientes;
+        siguientes = t;
+        generacion++;
+        evaluar();
+    }
+
+    private int torneo() {
+        int ganador = random.nextInt(poblacion);
+        for (int i = 1; i < TORNEO; i++) {
+            int otro = random.nextInt(poblacion);
+            if (aptitud[otro] > aptitud[ganador]) ganador = otro;
+        }
+        return ganador;
+    }
+
+    // cambia el tipo (manteniendo donde cae cada atributo en su rango) o mueve un atributo
+    private void mutar(int[] g, int h) {
+        int base = h * GENES;
+        Tipo_Heroe actual = TIPOS[g[base]];
+        if (random.nextInt(4) == 0) {
+            Tipo_Heroe nuevo = TIPOS[random.nextInt(TIPOS.length)];
+            for (int a = 0; a < REPARTIBLES.length; a++) {
+                int[] antes = BarridoBalance.rango(actual, REPARTIBLES[a]);
+                int[] despues = BarridoBalance.rango(nuevo, REPARTIBLES[a]);
+                double f = fraccion(g[base + 1 + a], antes);
+                g[base + 1 + a] = despues[0] + (int) Math.round(f * (despues[1] - despues[0]));
+            }
+            g[base] = nuevo.ordinal();
+        } else {
+            int a = random.nextInt(REPARTIBLES.length);
+            int[] r = BarridoBalance.rango(actual, REPARTIBLES[a]);
+            int paso = Math.max(1, (r[1] - r[0]) / 5);
+            int v = g[base + 1 + a] + random.nextInt(2 * paso + 1) - paso;
+            g[base + 1 + a] = Math.max(r[0], Math.min(r[1], v));
+        }
+        ajustarPresupuesto(g, h);
+    }
+
+    // si el heroe se pasa del presupuesto, baja todos sus atributos en la misma proporcion
+    private void ajustarPresupuesto(int[] g, int h) {
+        int base = h * GENES;
+        Tipo_Heroe tipo = TIPOS[g[base]];
+        double usado = 0;
+        for (int a = 0; a < REPARTIBLES.length; a++) usado += fraccion(g[base + 1 + a], BarridoBalance.rango(tipo, REPARTIBLES[a]));
+        if (usado <= presupuesto) return;
+
+        double escala = presupuesto / usado;
+        for (int a = 0; a < REPARTIBLES.length; a++) {
+            int[] r = BarridoBalance.rango(tipo, REPARTIBLES[a]);
+            double f = fraccion(g[base + 1 + a], r) * escala;
+            g[base + 1 + a] = r[0] + (int) (f * (r[1] - r[0]));
+        }
+    }
+
+    private static double fraccion(int valor, int[] rango) {
+        return rango[1] == rango[0] ? 0 : (double) (valor - rango[0]) / (rango[1] - rango[0]);
+    }
+
+    // evalua toda la poblacion, un bloque de equipos por tarea
+    private void evaluar() {
+        long semillaGeneracion = BarridoBalance.mezclar(semilla, generacion);
+        List<Callable<Void>> tareas = new ArrayList<>(trabajadores.length);
+        for (int i = 0; i < trabajadores.length; i++) {
+            Trabajador t = trabajadores[i];
+            int desde = i * BLOQUE, hasta = Math.min(poblacion, desde + BLOQUE);
+            tareas.add(() -> {
+                for (int k = desde; k < hasta; k++) t.evaluar(k, semillaGeneracion);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> f : pool.invokeAll(tareas)) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Se interrumpio la evaluacion.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fallo la evaluacion de la poblacion.", e.getCause());
+        }
+
+        mejor = 0;
+        for (int i = 1; i < poblacion; i++) if (aptitud[i] > aptitud[mejor]) mejor = i;
+    }
+
+    private Integer[] ordenPorAptitud() {
+        Integer[] orden = new Integer[poblacion];
+        for (int i = 0; i < poblacion; i++) orden[i] = i;
+        Arrays.sort(orden, (x, y) -> Double.compare(aptitud[y], aptitud[x]));
+        return orden;
+    }
+
+    public int getGeneracion() { return generacion; }
+    public double getMejorAptitud() { return aptitud[mejor]; }
+    public double getMejorTasa() { return tasa[mejor]; }
+
+    public double getAptitudMedia() {
+        double suma = 0;
+        for (double a : aptitud) suma += a;
+        return suma / poblacion;
+    }
+
+    // cuantos heroes de cada tipo hay en toda la poblacion, en el orden de Tipo_Heroe
+    public int[] getConteoTipos() {
+        int[] conteo = new int[TIPOS.length];
+        for (int[] g : genes) {
+            for (int h = 0; h < HEROES; h++) conteo[g[h * GENES]]++;
+        }
+        return conteo;
+    }
+
+    // el mejor equipo de la generacion actual, ej. "GUERRERO(hp 300 mp 10 at 55 def 20) ..."
+    public String describirMejor() {
+        return describir(mejor);
+    }
+
+    private String describir(int individuo) {
+        int[] g = genes[individuo];
+        StringBuilder sb = new StringBuilder();
+        for (int h = 0; h < HEROES; h++) {
+            int base = h * GENES;
+            if (h > 0) sb.append(' ');
+            sb.append(TIPOS[g[base]]).append(String.format(Locale.ROOT, "(hp %d mp %d at %d def %d)",
+                    g[base + 1], g[base + 2], g[base + 3], g[base + 4]));
+        }
+        return sb.append(String.format(Locale.ROOT, " -> victoria %.3f, %.1f rondas",
+                tasa[individuo], rondas[individuo])).toString();
+    }
+
+
+    /**
+     * Estado propio de un bloque de evaluacion. La plantilla tiene a los enemigos y
+     * recibe los heroes de cada equipo; cada batalla copia la plantilla sobre estado.
+     */
+    private final class Trabajador {
+        private final EstadoCombate plantilla;
+        private final EstadoCombate estado;
+
+        Trabajador(EstadoCombate base) {
+            plantilla = base.copiar();
+            estado = base.copiar();
+        }
+
+        void evaluar(int individuo, long semillaGeneracion) {
+            int[] g = genes[individuo];
+            int hpInicial = 0;
+            for (int h = 0; h < HEROES; h++) {
+                int base = h * GENES;
+                Tipo_Heroe tipo = TIPOS[g[base]];
+                plantilla.setClase(h, tipo);
+                plantilla.setAtributos(h, g[base + 1], g[base + 2], g[base + 3], g[base + 4],
+                        BarridoBalance.rango(tipo, Atributo.VELOCIDAD)[0]);
+                hpInicial += g[base + 1];
+            }
+
+            SimuladorHabilidades simulador = new SimuladorHabilidades(GeneradorAleatorio.conSemilla(semillaGeneracion));
+            long victorias = 0;
+            double sumaRondas = 0, sumaHp = 0, sumaDaño = 0;
+            int hpEnemigos = plantilla.getHpEnemigos();
+            for (int b = 0; b < batallas; b++) {
+                estado.copiarDe(plantilla);
+                if (simulador.simular(estado) == ResultadoBatalla.VICTORIA) victorias++;
+                sumaRondas += simulador.getRondas();
+                sumaHp += estado.getHpHeroes();
+                sumaDaño += hpEnemigos - estado.getHpEnemigos();
+            }
+            tasa[individuo] = (double) victorias / batallas;
+            rondas[individuo] = sumaRondas / batallas;
+            double vida = sumaHp / batallas / Math.max(1, hpInicial);
+            double daño = sumaDaño / batallas / Math.max(1, hpEnemigos);
+            aptitud[individuo] = tasa[individuo] + PESO_HP * (vida + daño) / 2;
+        }
+    }
+
+
+    public static void main(String[] args) {
+        Map<String, String> opciones = new LinkedHashMap<>();
+        opciones.put("enemigos", "ORCO,TROLL,GOLEM");
+        opciones.put("poblacion", "64");
+        opciones.put("generaciones", "40");
+        opciones.put("batallas", "200");
+        opciones.put("presupuesto", "2");
+        opciones.put("semilla", "1");
+        BarridoBalance.leerOpciones(args, opciones);
+
+        long semilla = Long.parseLong(opciones.get("semilla"));
+        // el equipo rival se sortea una vez, con la semilla, como en el juego
+        GeneradorAleatorio aleatorio = GeneradorAleatorio.conSemilla(semilla);
+        String[] nombres = opciones.get("enemigos").split(",");
+        Enemigo[] enemigos = new Enemigo[nombres.length];
+        for (int i = 0; i < nombres.length; i++) {
+            Enum<?> tipo = BarridoBalance.tipoDe(nombres[i].trim());
+            String nombre = tipo.name() + " " + (i + 1);
+            if (tipo instanceof Tipo_Enemigo) enemigos[i] = Enemigo.crearEnemigo((Tipo_Enemigo) tipo, nombre, aleatorio);
+            else if (tipo instanceof Tipo_JefeEnemigo) enemigos[i] = JefeFactory.crearJefe((Tipo_JefeEnemigo) tipo, nombre, aleatorio);
+            else throw new IllegalArgumentException(tipo + " no es un tipo de enemigo.");
+        }
+        for (Enemigo e : enemigos) {
+            System.out.printf(Locale.ROOT, "%s: hp %d at %d def %d%n", e.getNombre(), e.getHp(), e.getAtaque(), e.getDefensa());
+        }
+
+        long inicio = System.nanoTime();
+        OptimizadorEquipos optimizador = new OptimizadorEquipos(enemigos, Integer.parseInt(opciones.get("poblacion")),
+                Integer.parseInt(opciones.get("batallas")), Double.parseDouble(opciones.get("presupuesto")), semilla);
+        int generaciones = Integer.parseInt(opciones.get("generaciones"));
+        for (int i = 0; ; i++) {
+            System.out.printf(Locale.ROOT, "gen %3d  mejor %.4f  media %.4f  %s%n", optimizador.getGeneracion(),
+                    optimizador.getMejorAptitud(), optimizador.getAptitudMedia(), optimizador.describirMejor());
+            if (i == generaciones) break;
+            optimizador.siguienteGeneracion();
+        }
+
+        int[] conteo = optimizador.getConteoTipos();
+        StringBuilder tipos = new StringBuilder("tipos en la poblacion final:");
+        for (int i = 0; i < conteo.length; i++) tipos.append(' ').append(TIPOS[i]).append(' ').append(conteo[i]);
+        System.out.println(tipos);
+        System.out.printf(Locale.ROOT, "%d generaciones en %.1f s%n", generaciones, (System.nanoTime() - inicio) / 1e9);
+    }
+}
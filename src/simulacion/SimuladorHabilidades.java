@@ -0,0 +1,133 @@
+package simulacion;
+
+import controlador.DecisionTurno;
+import controlador.MotorBatalla;
+import controlador.ResultadoBatalla;
+import modelo.GeneradorAleatorio;
+import modelo.Tipo_Efecto;
+
+/**
+ * Como SimuladorLote, pero los heroes usan sus habilidades: en cada turno eligen
+ * entre las jugadas de JugadasHeroe con una prioridad simple (revivir, curar al que
+ * esta por debajo de la mitad de su vida maxima, dormir o paralizar o provocar al
+ * enemigo mas peligroso, reforzar al que mas pega y si no atacar al enemigo con
+ * menos vida), y una de cada cuatro veces prueban una jugada cualquiera. Los enemigos juegan como en JugadasHeroe.avanzar, con el
+ * especial de los jefes. Mucho mas barato que BusquedaHeroes, asi sirve para
+ * evaluar miles de equipos, y con el el mana y el tipo de heroe cuentan.
+ *
+ * Tampoco reserva memoria por batalla; el generador es del simulador.
+ */
+final class SimuladorHabilidades {
+
+    // prioridades de cada jugada; entre iguales se queda la primera generada
+    private static final int REVIVIR = 100;
+    private static final int CURAR = 80;
+    private static final int CONTROLAR = 60;
+    private static final int REFORZAR = 50;
+    private static final int ATACAR = 40;
+    private static final int DEFENDER = 20;
+    private static final int OTRA = 10;
+
+    private final GeneradorAleatorio aleatorio;
+    private int[] jugadas = new int[0];
+    private int rondas;
+
+    SimuladorHabilidades(GeneradorAleatorio aleatorio) {
+        this.aleatorio = aleatorio;
+    }
+
+    ResultadoBatalla simular(EstadoCombate estado) {
+        if (jugadas.length < JugadasHeroe.maximo(estado)) jugadas = new int[JugadasHeroe.maximo(estado)];
+
+        int rondaInicial = estado.getRonda();
+        // el primer heroe vivo abre la batalla; avanzar juega todo lo que viene despues
+        int actor = estado.estaVivo(0) && estado.puedeActuar(0) ? 0 : JugadasHeroe.avanzar(estado, 0);
+        while (actor >= 0 && estado.getRonda() - rondaInicial < MotorBatalla.MAX_RONDAS) {
+            JugadasHeroe.aplicar(estado, actor, elegir(estado, actor));
+            actor = JugadasHeroe.avanzar(estado, actor);
+        }
+        rondas = estado.getRonda() - rondaInicial + 1;
+
+        if (!estado.hayEnemigosVivos()) return ResultadoBatalla.VICTORIA;
+        if (!estado.hayHeroesVivos()) return ResultadoBatalla.DERROTA;
+        return ResultadoBatalla.LIMITE_RONDAS;
+    }
+
+    int getRondas() { return rondas; }
+
+    private int elegir(EstadoCombate e, int slot) {
+        int n = JugadasHeroe.generar(e, slot, jugadas);
+        if (aleatorio.siguienteEntero(4) == 0) return jugadas[aleatorio.siguienteEntero(n)];
+
+        int peligroso = enemigoPeligroso(e), debil = enemigoDebil(e), fuerte = aliadoFuerte(e);
+        int mejor = jugadas[0], prioridadMejor = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            int p = prioridad(e, jugadas[i], peligroso, debil, fuerte);
+            if (p > prioridadMejor) {
+                prioridadMejor = p;
+                mejor = jugadas[i];
+            }
+        }
+        return mejor;
+    }
+
+    private int prioridad(EstadoCombate e, int jugada, int peligroso, int debil, int fuerte) {
+        int objetivo = jugada & 0xFF;
+        int enemigo = e.getHeroes() + objetivo;
+        switch (jugada >>> 8) {
+            case DecisionTurno.REVIVIR:
+                return REVIVIR;
+            case DecisionTurno.CURAR:
+                // solo vale la pena con un aliado vivo por debajo de la mitad
+                int maximo = e.getHpMaximo(objetivo);
+                if (!e.estaVivo(objetivo) || e.getHp(objetivo) * 2 > maximo) return -1;
+                return CURAR + (maximo - e.getHp(objetivo)) * 10 / Math.max(1, maximo);
+            case DecisionTurno.DORMIR:
+            case DecisionTurno.PARALIZAR:
+                // solo al mas peligroso, y no se duerme ni paraliza dos veces
+                return enemigo == peligroso && !e.tieneEfecto(enemigo, Tipo_Efecto.SUEÑO)
+                        && !e.tieneEfecto(enemigo, Tipo_Efecto.PARALISIS) ? CONTROLAR : -1;
+            case DecisionTurno.PROVOCAR:
+                return enemigo == peligroso ? CONTROLAR - 1 : -1;
+            case DecisionTurno.REFORZAR:
+                return objetivo == fuerte && !e.tieneEfecto(objetivo, Tipo_Efecto.REFUERZO) ? REFORZAR : -1;
+            case DecisionTurno.DEFENDER:
+                return e.getHp(objetivo) * 2 <= e.getHpMaximo(objetivo) ? DEFENDER : -1;
+            case DecisionTurno.ATACAR:
+                // foco en el que tiene menos vida, asi cae antes y deja de pegar; a uno
+                // dormido no se lo toca mientras haya otro, el golpe lo despertaria
+                if (e.tieneEfecto(enemigo, Tipo_Efecto.SUEÑO) && e.getEnemigosVivos() > 1) return ATACAR - 1;
+                return enemigo == debil ? ATACAR + 1 : ATACAR;
+            default:
+                return OTRA;
+        }
+    }
+
+    // el jefe si hay uno vivo, si no el enemigo vivo con mas ataque
+    private static int enemigoPeligroso(EstadoCombate e) {
+        int mejor = -1;
+        for (int s = e.getHeroes(); s < e.getTotal(); s++) {
+            if (!e.estaVivo(s)) continue;
+            if (e.esJefe(s)) return s;
+            if (mejor < 0 || e.getAtaque(s) > e.getAtaque(mejor)) mejor = s;
+        }
+        return mejor;
+    }
+
+    private static int enemigoDebil(EstadoCombate e) {
+        int mejor = -1;
+        for (int s = e.getHeroes(); s < e.getTotal(); s++) {
+            if (e.estaVivo(s) && (mejor < 0 || e.getHp(s) < e.getHp(mejor))) mejor = s;
+        }
+        return mejor;
+    }
+
+    // el heroe vivo con mas ataque, el que mas aprovecha un refuerzo
+    private static int aliadoFuerte(EstadoCombate e) {
+        int mejor = -1;
+        for (int s = 0; s < e.getHeroes(); s++) {
+            if (e.estaVivo(s) && (mejor < 0 || e.getAtaque(s) > e.getAtaque(mejor))) mejor = s;
+        }
+        return mejor;
+    }
+}
@@ -0,0 +1,71 @@
+package simulacion;
+
+import controlador.MotorBatalla;
+import controlador.ResultadoBatalla;
+import modelo.GeneradorAleatorio;
+
+/**
+ * Version de MotorBatalla que trabaja sobre un EstadoCombate. Juega las politicas
+ * por defecto: los heroes atacan al primer enemigo vivo y los enemigos al primer
+ * heroe vivo o a uno al azar; un jefe con el especial cargado lo usa, como en
+ * JugadasHeroe.avanzar. No reserva memoria por turno, asi que un mismo
+ * simulador y estado se reutilizan para millones de batallas en un hilo.
+ */
+public class SimuladorLote {
+
+    private final boolean enemigosAleatorios;
+    private final GeneradorAleatorio aleatorio;
+    private int rondas;
+
+    public SimuladorLote(boolean enemigosAleatorios) {
+        this(enemigosAleatorios, GeneradorAleatorio.delHilo());
+    }
+
+    // el generador es del simulador, no debe compartirse con otro hilo
+    public SimuladorLote(boolean enemigosAleatorios, GeneradorAleatorio aleatorio) {
+        this.enemigosAleatorios = enemigosAleatorios;
+        this.aleatorio = aleatorio;
+    }
+
+    public ResultadoBatalla simular(EstadoCombate estado) {
+        int heroes = estado.getHeroes();
+        int total = estado.getTotal();
+        rondas = 0;
+
+        while (estado.hayHeroesVivos() && estado.hayEnemigosVivos()) {
+            if (rondas == MotorBatalla.MAX_RONDAS) return ResultadoBatalla.LIMITE_RONDAS;
+            rondas++;
+
+            for (int h = 0; h < heroes; h++) {
+                if (estado.estaVivo(h) && estado.puedeActuar(h)) {
+                    estado.atacar(h, estado.primerEnemigoVivo());
+
+                    if (!estado.hayEnemigosVivos()) return ResultadoBatalla.VICTORIA;
+                }
+            }
+
+            for (int e = heroes; e < total; e++) {
+                if (estado.estaVivo(e) && estado.puedeActuar(e)) {
+                    int objetivo = objetivoEnemigo(estado, e);
+                    if (estado.especialCargado(e)) estado.especial(e, objetivo);
+                    else estado.atacar(e, objetivo);
+                    if (estado.esJefe(e)) estado.terminarTurnoJefe(e);
+
+                    if (!estado.hayHeroesVivos()) return ResultadoBatalla.DERROTA;
+                }
+            }
+            estado.terminarRonda();
+        }
+        return estado.hayHeroesVivos() ? ResultadoBatalla.VICTORIA : ResultadoBatalla.DERROTA;
+    }
+
+    private int objetivoEnemigo(EstadoCombate estado, int enemigo) {
+        // provocado va contra su provocador, como en el motor
+        int provocador = estado.getProvocador(enemigo);
+        if (provocador != EstadoCombate.SIN_ENLACE && estado.estaVivo(provocador)) return provocador;
+        if (!enemigosAleatorios) return estado.primerHeroeVivo();
+        return estado.heroeVivo(aleatorio.siguienteEntero(estado.getHeroesVivos()));
+    }
+
+    public int getRondas() { return rondas; }
+}
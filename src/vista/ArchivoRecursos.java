@@ -0,0 +1,170 @@
+package vista;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+/**
+ * Paquete de recursos armado por EmpaquetadorRecursos: un solo archivo mapeado en
+ * memoria con todos los archivos de src/vista/utilidades y, opcionalmente, los
+ * retratos ya decodificados y escalados. Al abrirlo se lee el indice a un HashMap;
+ * despues pedir un recurso es una busqueda en el mapa y un slice del mapeo, sin
+ * copiar bytes.
+ *
+ * Formato (little-endian, como InstantaneaBatalla):
+ *   cabecera de 24 bytes: magia "PAK1", version, cantidad, reservado, posicion del indice (long)
+ *   datos de cada entrada, alineados a 8
+ *   indice: por entrada u16 largo de la clave, clave UTF-8, u8 tipo, u16 ancho, u16 alto,
+ *           long posicion, int largo
+ */
+public class ArchivoRecursos implements AutoCloseable {
+
+    static final int MAGIA = 0x314B4150; // "PAK1"
+    static final int VERSION = 1;
+    static final int TAMAÑO_CABECERA = 24;
+
+    // el archivo tal cual / pixeles ARGB ya escalados (int por pixel)
+    static final byte CRUDO = 0;
+    static final byte PIXELES = 1;
+
+    private final FileChannel canal;
+    private final MappedByteBuffer mapa;
+    private final HashMap<String, Entrada> indice = new HashMap<>();
+
+    private ArchivoRecursos(FileChannel canal) throws IOException {
+        this.canal = canal;
+        this.mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        mapa.order(ByteOrder.LITTLE_ENDIAN);
+        if (canal.size() < TAMAÑO_CABECERA || mapa.getInt(0) != MAGIA || mapa.getInt(4) != VERSION) {
+            throw new IOException("El archivo no es un paquete de recursos.");
+        }
+
+        int cantidad = mapa.getInt(8);
+        ByteBuffer b = mapa.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        b.position((int) mapa.getLong(16));
+        for (int i = 0; i < cantidad; i++) {
+            byte[] clave = new byte[b.getShort() & 0xFFFF];
+            b.get(clave);
+            byte tipo = b.get();
+            int ancho = b.getShort() & 0xFFFF;
+            int alto = b.getShort() & 0xFFFF;
+            long posicion = b.getLong();
+            int largo = b.getInt();
+            indice.put(new String(clave, StandardCharsets.UTF_8), new Entrada(tipo, ancho, alto, (int) posicion, largo));
+        }
+    }
+
+    public static ArchivoRecursos abrir(Path archivo) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        try {
+            return new ArchivoRecursos(canal);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    // clave de los retratos ya escalados, la misma que usa CacheSprites
+    static String claveImagen(String archivo, int ancho, int alto) {
+        return archivo + '@' + ancho + 'x' + alto;
+    }
+
+    public boolean contiene(String clave) {
+        return indice.containsKey(clave);
+    }
+
+    // vista de solo lectura sobre los bytes del recurso; null si no esta.
+    // asReadOnlyBuffer vuelve a big-endian: el orden se fija despues
+    public ByteBuffer obtener(String clave) {
+        Entrada e = indice.get(clave);
+        if (e == null) return null;
+        return mapa.slice(e.posicion, e.largo).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public InputStream abrirFlujo(String clave) {
+        ByteBuffer datos = obtener(clave);
+        return datos == null ? null : new Flujo(datos);
+    }
+
+    // pixeles ARGB de un retrato pre-escalado, o null si el paquete no lo trae
+    public IntBuffer pixeles(String archivo, int ancho, int alto) {
+        String clave = claveImagen(archivo, ancho, alto);
+        Entrada e = indice.get(clave);
+        if (e == null || e.tipo != PIXELES || e.ancho != ancho || e.alto != alto) return null;
+        return obtener(clave).asIntBuffer();
+    }
+
+    public int getCantidad() {
+        return indice.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+
+    private static final class Entrada {
+        final byte tipo;
+        final int ancho, alto;
+        final int posicion, largo;
+
+        Entrada(byte tipo, int ancho, int alto, int posicion, int largo) {
+            this.tipo = tipo;
+            this.ancho = ancho;
+            this.alto = alto;
+            this.posicion = posicion;
+            this.largo = largo;
+        }
+    }
+
+    // InputStream sobre el slice, para ImageIO y AudioSystem
+    private static final class Flujo extends InputStream {
+        private final ByteBuffer datos;
+
+        Flujo(ByteBuffer datos) {
+            this.datos = datos;
+        }
+
+        @Override
+        public int read() {
+            return datos.hasRemaining() ? datos.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int largo) {
+            if (!datos.hasRemaining()) return -1;
+            int n = Math.min(largo, datos.remaining());
+            datos.get(destino, desde, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return datos.remaining();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int limite) {
+            datos.mark();
+        }
+
+        @Override
+        public synchronized void reset() {
+            datos.reset();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package vista;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import modelo.ObservadorPersonaje;
+import modelo.Personaje;
+
+/**
+ * Barras de vida y mana de la GUI. Cada personaje avisa cuando le cambia la vida
+ * o el mana (ObservadorPersonaje), se anota como sucio y un Timer de Swing
+ * actualiza solo esas barras, como mucho una vez por cuadro. Asi una accion cuesta
+ * lo que cambio y no un recorrido por todos los personajes.
+ */
+class BarrasEstado implements ObservadorPersonaje {
+
+    private static final int MS_POR_CUADRO = 16;
+
+    private final Map<Personaje, JProgressBar> vida = new HashMap<>();
+    private final Map<Personaje, JProgressBar> mana = new HashMap<>();
+
+    private final LinkedHashSet<Personaje> sucios = new LinkedHashSet<>();
+    private boolean programado;
+    private final Timer timer;
+
+    BarrasEstado() {
+        this.timer = new Timer(MS_POR_CUADRO, e -> actualizarSucios());
+        timer.setRepeats(false);
+    }
+
+    // registra las barras del personaje y empieza a escuchar sus cambios
+    void agregar(Personaje p, JProgressBar barraVida, JProgressBar barraMana) {
+        vida.put(p, barraVida);
+        if (barraMana != null) mana.put(p, barraMana);
+        p.setObservador(this);
+    }
+
+    // puede llamarse desde el hilo de la batalla
+    @Override
+    public void alCambiar(Personaje personaje) {
+        boolean programar;
+        synchronized (sucios) {
+            sucios.add(personaje);
+            programar = !programado;
+            programado = true;
+        }
+        if (programar) SwingUtilities.invokeLater(timer::restart);
+    }
+
+    // corre en el hilo de Swing
+    private void actualizarSucios() {
+        ArrayList<Personaje> cambiados;
+        synchronized (sucios) {
+            cambiados = new ArrayList<>(sucios);
+            sucios.clear();
+            programado = false;
+        }
+        for (Personaje p : cambiados) {
+            JProgressBar v = vida.get(p);
+            if (v != null && v.getValue() != p.getHp()) v.setValue(p.getHp());
+            JProgressBar m = mana.get(p);
+            if (m != null && m.getValue() != p.getMp()) m.setValue(p.getMp());
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package vista;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.nio.IntBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+import modelo.Tipo_Enemigo;
+import modelo.Tipo_Heroe;
+
+/**
+ * Retratos de los personajes para la GUI. Los PNG originales pesan varios MB, asi
+ * que nunca se decodifican en el hilo de Swing: un pool de fondo los lee ya
+ * submuestreados al tamaño de la carta, los escala a una imagen compatible con la
+ * pantalla y los guarda en un LRU de referencias suaves (si falta memoria el GC
+ * puede soltarlos y se vuelven a cargar). Mientras tanto la carta muestra un
+ * marcador del mismo tamaño.
+ */
+public class CacheSprites {
+
+    private static final int MAX_VARIANTES = 64;
+
+    private final ExecutorService pool;
+
+    // LRU por archivo y tamaño; solo se accede con el lock del mapa
+    private final LinkedHashMap<String, SoftReference<BufferedImage>> cache =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SoftReference<BufferedImage>> mayor) {
+                    return size() > MAX_VARIANTES;
+                }
+            };
+
+    // cargas en curso, para no decodificar dos veces el mismo retrato
+    private final ConcurrentHashMap<String, CompletableFuture<BufferedImage>> enCurso = new ConcurrentHashMap<>();
+
+    public CacheSprites() {
+        int hilos = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        this.pool = Executors.newFixedThreadPool(hilos, r -> {
+            Thread t = new Thread(r, "sprites");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    public static String archivoDe(Tipo_Heroe tipo) {
+        switch (tipo) {
+            case MAGO: return "Un mago de videojueg.png";
+            case DRUIDA: return "Un druida teriantrop.png";
+            case PALADIN: return "Un paladín de videoj.png";
+            default: return "Un guerrero de video.png";
+        }
+    }
+
+    public static String archivoDe(Tipo_Enemigo tipo) {
+        switch (tipo) {
+            case GOLEM: return "golem de piedra para.png";
+            case ORCO: return "dibuja un orco.png";
+            case TROLL: return "dibuja un troll.png";
+            case DRAGON: return "dragon.png";
+            default: return "Dibuja un nomuerto.png";
+        }
+    }
+
+    // al arrancar: deja decodificando en el fondo todos los retratos a este tamaño
+    public void precargar(int ancho, int alto) {
+        for (Tipo_Heroe t : Tipo_Heroe.values()) cargar(archivoDe(t), ancho, alto);
+        for (Tipo_Enemigo t : Tipo_Enemigo.values()) cargar(archivoDe(t), ancho, alto);
+    }
+
+    /**
+     * Pone el retrato en la etiqueta. Si ya esta en cache se pone en el acto; si no,
+     * queda un marcador y el retrato se pone en el hilo de Swing cuando este listo.
+     */
+    public void mostrarEn(JLabel etiqueta, String archivo, int ancho, int alto) {
+        BufferedImage lista = buscar(clave(archivo, ancho, alto));
+        if (lista != null) {
+            etiqueta.setIcon(new ImageIcon(lista));
+            return;
+        }
+        etiqueta.setIcon(new ImageIcon(marcador(ancho, alto)));
+        cargar(archivo, ancho, alto).thenAccept(imagen -> {
+            if (imagen != null) SwingUtilities.invokeLater(() -> etiqueta.setIcon(new ImageIcon(imagen)));
+        });
+    }
+
+    public CompletableFuture<BufferedImage> cargar(String archivo, int ancho, int alto) {
+        String clave = clave(archivo, ancho, alto);
+        BufferedImage lista = buscar(clave);
+        if (lista != null) return CompletableFuture.completedFuture(lista);
+
+        CompletableFuture<BufferedImage> carga = enCurso.computeIfAbsent(clave, k -> CompletableFuture.supplyAsync(() -> {
+            BufferedImage imagen = decodificar(archivo, ancho, alto);
+            if (imagen != null) {
+                synchronized (cache) {
+                    cache.put(k, new SoftReference<>(imagen));
+                }
+            }
+            return imagen;
+        }, pool));
+        // terminada, la imagen queda solo en el cache (referencia suave)
+        carga.whenComplete((imagen, error) -> enCurso.remove(clave, carga));
+        return carga;
+    }
+
+    private BufferedImage buscar(String clave) {
+        synchronized (cache) {
+            SoftReference<BufferedImage> ref = cache.get(clave);
+            BufferedImage imagen = ref == null ? null : ref.get();
+            if (ref != null && imagen == null) cache.remove(clave);
+            return imagen;
+        }
+    }
+
+    private static String clave(String archivo, int ancho, int alto) {
+        return ArchivoRecursos.claveImagen(archivo, ancho, alto);
+    }
+
+    // con paquete de recursos el retrato ya viene escalado y solo se copian los pixeles;
+    // si no, se decodifica el PNG. null si no esta o no se puede leer
+    static BufferedImage decodificar(String archivo, int ancho, int alto) {
+        IntBuffer pixeles = Recursos.pixeles(archivo, ancho, alto);
+        if (pixeles != null) {
+            int[] argb = new int[ancho * alto];
+            pixeles.get(argb);
+            BufferedImage imagen = compatible(ancho, alto);
+            imagen.setRGB(0, 0, ancho, alto, argb, 0, ancho);
+            return imagen;
+        }
+        try (InputStream in = Recursos.abrir(archivo)) {
+            return in == null ? null : decodificar(in, ancho, alto);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // lee el PNG salteando pixeles para no tener nunca la imagen completa en memoria
+    static BufferedImage decodificar(InputStream in, int ancho, int alto) {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> lectores = ImageIO.getImageReaders(entrada);
+            if (!lectores.hasNext()) return null;
+            ImageReader lector = lectores.next();
+            try {
+                lector.setInput(entrada, true, true);
+                // se deja el doble del tamaño final para que el escalado suavice
+                int paso = Math.max(1, Math.min(lector.getWidth(0) / (ancho * 2), lector.getHeight(0) / (alto * 2)));
+                ImageReadParam param = lector.getDefaultReadParam();
+                param.setSourceSubsampling(paso, paso, 0, 0);
+                return escalar(lector.read(0, param), ancho, alto);
+            } finally {
+                lector.dispose();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static BufferedImage escalar(BufferedImage origen, int ancho, int alto) {
+        BufferedImage destino = compatible(ancho, alto);
+        Graphics2D g = destino.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(origen, 0, 0, ancho, alto, null);
+        g.dispose();
+        return destino;
+    }
+
+    // una imagen en el formato de la pantalla se dibuja sin convertir en cada repaint
+    private static BufferedImage compatible(int ancho, int alto) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(ancho, alto, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    private static BufferedImage marcador(int ancho, int alto) {
+        BufferedImage m = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = m.createGraphics();
+        g.setColor(new Color(60, 60, 70));
+        g.fillRect(0, 0, ancho, alto);
+        g.dispose();
+        return m;
+    }
+
+    public void cerrar() {
+        pool.shutdownNow();
+    }
+}
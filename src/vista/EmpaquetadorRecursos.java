@@ -0,0 +1,165 @@
+package vista;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import modelo.Tipo_Enemigo;
+import modelo.Tipo_Heroe;
+
+/**
+ * Paso de armado: junta todo src/vista/utilidades en un ArchivoRecursos. Ademas
+ * de los archivos tal cual guarda los retratos ya decodificados y escalados a los
+ * tamaños pedidos, asi la GUI no tiene que decodificar PNG de varios MB al arrancar.
+ *
+ * Uso: java -cp out vista.EmpaquetadorRecursos [carpeta] [salida] [tamaño retratos...]
+ *      (por defecto src/vista/utilidades recursos.pak 64)
+ */
+public class EmpaquetadorRecursos {
+
+    public static void main(String[] args) throws IOException {
+        Path carpeta = Paths.get(args.length > 0 ? args[0] : "src/vista/utilidades");
+        Path salida = Paths.get(args.length > 1 ? args[1] : Recursos.PAQUETE_POR_DEFECTO);
+        List<Integer> tamaños = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) tamaños.add(Integer.parseInt(args[i]));
+        if (tamaños.isEmpty()) tamaños.add(64);
+
+        long inicio = System.nanoTime();
+        int entradas = empaquetar(carpeta, salida, tamaños);
+        System.out.printf("%d recursos en %s (%d bytes) en %.1f s%n", entradas, salida, Files.size(salida),
+                (System.nanoTime() - inicio) / 1e9);
+        System.out.printf("%d retratos verificados%n", verificar(carpeta, salida, tamaños));
+    }
+
+    // vuelve a leer el paquete y compara cada retrato con la imagen decodificada,
+    // pixel por pixel; devuelve cuantos reviso
+    public static int verificar(Path carpeta, Path paquete, List<Integer> tamaños) throws IOException {
+        int revisados = 0;
+        try (ArchivoRecursos archivo = ArchivoRecursos.abrir(paquete)) {
+            for (String retrato : retratos()) {
+                for (int tam : tamaños) {
+                    IntBuffer guardado = archivo.pixeles(retrato, tam, tam);
+                    if (guardado == null) continue;
+
+                    BufferedImage imagen;
+                    try (InputStream in = Files.newInputStream(carpeta.resolve(retrato))) {
+                        imagen = CacheSprites.decodificar(in, tam, tam);
+                    }
+                    int[] esperado = imagen.getRGB(0, 0, tam, tam, null, 0, tam);
+                    for (int i = 0; i < esperado.length; i++) {
+                        if (guardado.get(i) != esperado[i]) {
+                            throw new IllegalStateException("El retrato " + retrato + " a " + tam + "px no coincide en el pixel " + i
+                                    + String.format(": %08x en vez de %08x", guardado.get(i), esperado[i]));
+                        }
+                    }
+                    revisados++;
+                }
+            }
+        }
+        return revisados;
+    }
+
+    public static int empaquetar(Path carpeta, Path salida, List<Integer> tamaños) throws IOException {
+        List<Path> archivos;
+        try (Stream<Path> todos = Files.walk(carpeta)) {
+            archivos = todos.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+
+        ByteBuffer indice = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        int cantidad = 0;
+
+        try (FileChannel canal = FileChannel.open(salida, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            canal.position(ArchivoRecursos.TAMAÑO_CABECERA);
+
+            for (Path archivo : archivos) {
+                String clave = carpeta.relativize(archivo).toString().replace('\\', '/');
+                byte[] datos;
+                try {
+                    datos = Files.readAllBytes(archivo);
+                } catch (IOException | InvalidPathException e) {
+                    System.err.println("No se pudo leer " + clave + ": " + e.getMessage());
+                    continue;
+                }
+                indice = entrada(indice, clave, ArchivoRecursos.CRUDO, 0, 0, canal.position(), datos.length);
+                escribirAlineado(canal, ByteBuffer.wrap(datos));
+                cantidad++;
+            }
+
+            for (String retrato : retratos()) {
+                for (int tam : tamaños) {
+                    BufferedImage imagen;
+                    try (InputStream in = Files.newInputStream(carpeta.resolve(retrato))) {
+                        imagen = CacheSprites.decodificar(in, tam, tam);
+                    } catch (IOException | InvalidPathException e) {
+                        // el nombre no se puede abrir con la codificacion del sistema
+                        imagen = null;
+                    }
+                    if (imagen == null) continue;
+
+                    ByteBuffer pixeles = ByteBuffer.allocate(tam * tam * 4).order(ByteOrder.LITTLE_ENDIAN);
+                    pixeles.asIntBuffer().put(imagen.getRGB(0, 0, tam, tam, null, 0, tam));
+                    indice = entrada(indice, ArchivoRecursos.claveImagen(retrato, tam, tam), ArchivoRecursos.PIXELES,
+                            tam, tam, canal.position(), pixeles.capacity());
+                    escribirAlineado(canal, pixeles);
+                    cantidad++;
+                }
+            }
+
+            long posicionIndice = canal.position();
+            indice.flip();
+            while (indice.hasRemaining()) canal.write(indice);
+
+            ByteBuffer cabecera = ByteBuffer.allocate(ArchivoRecursos.TAMAÑO_CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+            cabecera.putInt(ArchivoRecursos.MAGIA).putInt(ArchivoRecursos.VERSION).putInt(cantidad).putInt(0)
+                    .putLong(posicionIndice).flip();
+            canal.write(cabecera, 0);
+        }
+        return cantidad;
+    }
+
+    private static List<String> retratos() {
+        List<String> nombres = new ArrayList<>();
+        for (Tipo_Heroe t : Tipo_Heroe.values()) {
+            if (!nombres.contains(CacheSprites.archivoDe(t))) nombres.add(CacheSprites.archivoDe(t));
+        }
+        for (Tipo_Enemigo t : Tipo_Enemigo.values()) {
+            if (!nombres.contains(CacheSprites.archivoDe(t))) nombres.add(CacheSprites.archivoDe(t));
+        }
+        return nombres;
+    }
+
+    private static ByteBuffer entrada(ByteBuffer indice, String clave, byte tipo, int ancho, int alto, long posicion, int largo) {
+        byte[] k = clave.getBytes(StandardCharsets.UTF_8);
+        if (indice.remaining() < k.length + 19) {
+            ByteBuffer mayor = ByteBuffer.allocate(indice.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+            indice.flip();
+            mayor.put(indice);
+            indice = mayor;
+        }
+        indice.putShort((short) k.length).put(k).put(tipo).putShort((short) ancho).putShort((short) alto)
+                .putLong(posicion).putInt(largo);
+        return indice;
+    }
+
+    // deja la siguiente entrada alineada a 8 bytes, los pixeles se leen como int
+    private static void escribirAlineado(FileChannel canal, ByteBuffer datos) throws IOException {
+        while (datos.hasRemaining()) canal.write(datos);
+        int relleno = (int) (-canal.position() & 7);
+        if (relleno > 0) canal.write(ByteBuffer.allocate(relleno));
+    }
+}
@@ -0,0 +1,47 @@
+package vista;
+
+import java.util.concurrent.CompletableFuture;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Entrega de una eleccion del usuario (un click) a quien la pidio, sin dejar un
+ * hilo esperando: pedir() devuelve un futuro que se completa con el entregar()
+ * que responde a ese pedido.
+ *
+ * Cada pedido abre un turno nuevo. El hilo de Swing se entera del turno en orden
+ * con los clicks, asi cada click lleva el turno que estaba abierto cuando el
+ * usuario lo hizo; uno tardio o perdido (el pedido ya vencio, se cancelo o fue
+ * respondido) no coincide y se descarta, en vez de responder al pedido siguiente.
+ *
+ * pedir() lo llama el hilo de la batalla y entregar() el hilo de Swing.
+ */
+final class EntradaAsincrona {
+
+    private CompletableFuture<Integer> pendiente;
+    // turno del pedido abierto; solo lo cambia pedir()
+    private long turno;
+    // el ultimo turno que vio el hilo de Swing; solo se toca en ese hilo
+    private long turnoVisible;
+
+    synchronized CompletableFuture<Integer> pedir() {
+        if (pendiente != null) pendiente.cancel(false);
+        long propio = ++turno;
+        pendiente = new CompletableFuture<>();
+        SwingUtilities.invokeLater(() -> turnoVisible = propio);
+        return pendiente;
+    }
+
+    void entregar(int valor) {
+        CompletableFuture<Integer> f;
+        synchronized (this) {
+            // el click es de un turno que ya paso, o nadie espera: no es para nadie
+            if (turnoVisible != turno || pendiente == null) return;
+            f = pendiente;
+            pendiente = null;
+        }
+        // fuera del lock: completar corre lo que la batalla encadeno al futuro.
+        // si el pedido ya vencio o se cancelo el click simplemente se pierde
+        f.complete(valor);
+    }
+}
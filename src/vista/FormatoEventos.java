@@ -0,0 +1,75 @@
+package vista;
+
+import eventos.AtaqueResuelto;
+import eventos.AvisoVista;
+import eventos.EfectoVencido;
+import eventos.EstadoAplicado;
+import eventos.EventoBatalla;
+import eventos.PersonajeDerrotado;
+import modelo.Tipo_Efecto;
+
+/**
+ * Textos de los eventos de batalla para las vistas que muestran mensajes.
+ * Solo se llama cuando hay una vista escuchando, el modelo ya no arma strings.
+ */
+public final class FormatoEventos {
+
+    private FormatoEventos() {
+    }
+
+    // null si el evento no se muestra como mensaje (inicio de turno, fin de batalla)
+    public static String texto(EventoBatalla evento) {
+        switch (evento.getTipo()) {
+            case ATAQUE_RESUELTO: {
+                AtaqueResuelto a = (AtaqueResuelto) evento;
+                String accion = a.esEspecial() ? " usó su habilidad especial contra " : " atacó a ";
+                return a.getAtacante().getNombre() + accion + a.getObjetivo().getNombre()
+                        + " causando " + a.getDaño() + " de daño.";
+            }
+            case PERSONAJE_DERROTADO: {
+                PersonajeDerrotado d = (PersonajeDerrotado) evento;
+                return d.getVencedor().getNombre() + " derrotó a " + d.getDerrotado().getNombre() + ".";
+            }
+            case ESTADO_APLICADO: {
+                EstadoAplicado e = (EstadoAplicado) evento;
+                String duracion = e.getTurnos() > 0 ? " por " + e.getTurnos() + " turnos" : "";
+                return e.getObjetivo().getNombre() + " recibe " + nombreEfecto(e.getEfecto()) + duracion + ".";
+            }
+            case EFECTO_VENCIDO: {
+                EfectoVencido v = (EfectoVencido) evento;
+                return v.getPersonaje().getNombre() + " ya no tiene " + nombreEfecto(v.getEfecto()) + ".";
+            }
+            case AVISO_VISTA: {
+                AvisoVista a = (AvisoVista) evento;
+                return a.getAviso() == AvisoVista.Aviso.MENSAJE ? a.getTexto() : null;
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static String nombreEfecto(Tipo_Efecto efecto) {
+        switch (efecto) {
+            case SUEÑO: return "sueño";
+            case PARALISIS: return "parálisis";
+            case PROVOCACION: return "provocación";
+            case DEFENDIDO: return "defensor";
+            case REFUERZO: return "refuerzo";
+            default: return "defensa extra";
+        }
+    }
+
+    private static String nombreEfecto(EstadoAplicado.Efecto efecto) {
+        switch (efecto) {
+            case PARALISIS: return "parálisis";
+            case SUEÑO: return "sueño";
+            case PROVOCACION: return "provocación";
+            case DEFENSA: return "defensa";
+            case REFUERZO: return "refuerzo";
+            case CURACION: return "curación";
+            case RESURRECCION: return "resurrección";
+            case MANA: return "maná";
+            default: return "limpieza de efectos";
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package vista;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.AbstractListModel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Modelo del registro de la batalla para un JList: guarda como mucho las ultimas
+ * capacidad lineas en un arreglo circular, asi una pelea larga no crece sin fin.
+ *
+ * agregar() se puede llamar desde cualquier hilo; las lineas esperan en una lista
+ * y un Timer de Swing las pasa al modelo juntas, como mucho una vez por cuadro,
+ * con un solo aviso al JList por tanda en vez de uno por linea.
+ */
+public class ModeloRegistro extends AbstractListModel<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    // un cuadro a 60 Hz
+    private static final int MS_POR_CUADRO = 16;
+
+    private final String[] lineas;
+    private int inicio;
+    private int tamaño;
+
+    private final ArrayList<String> pendientes = new ArrayList<>();
+    private final AtomicBoolean programado = new AtomicBoolean();
+    private final Timer timer;
+
+    public ModeloRegistro(int capacidad) {
+        this.lineas = new String[capacidad];
+        this.timer = new Timer(MS_POR_CUADRO, e -> vaciarPendientes());
+        timer.setRepeats(false);
+    }
+
+    // un mensaje con saltos de linea ocupa varias filas; las vacias se descartan
+    public void agregar(String mensaje) {
+        synchronized (pendientes) {
+            for (String linea : mensaje.split("\n")) {
+                if (!linea.isEmpty()) pendientes.add(linea);
+            }
+        }
+        if (programado.compareAndSet(false, true)) SwingUtilities.invokeLater(timer::restart);
+    }
+
+    // corre en el hilo de Swing
+    private void vaciarPendientes() {
+        String[] nuevas;
+        synchronized (pendientes) {
+            programado.set(false);
+            nuevas = pendientes.toArray(new String[0]);
+            pendientes.clear();
+        }
+        if (nuevas.length == 0) return;
+
+        // si llegaron mas de las que entran solo importan las ultimas
+        int desde = Math.max(0, nuevas.length - lineas.length);
+        int agregadas = nuevas.length - desde;
+        int quitadas = Math.max(0, tamaño + agregadas - lineas.length);
+
+        inicio = (inicio + quitadas) % lineas.length;
+        tamaño -= quitadas;
+        for (int i = desde; i < nuevas.length; i++) {
+            lineas[(inicio + tamaño) % lineas.length] = nuevas[i];
+            tamaño++;
+        }
+
+        if (quitadas > 0) fireIntervalRemoved(this, 0, quitadas - 1);
+        fireIntervalAdded(this, tamaño - agregadas, tamaño - 1);
+    }
+
+    @Override
+    public int getSize() {
+        return tamaño;
+    }
+
+    @Override
+    public String getElementAt(int indice) {
+        return lineas[(inicio + indice) % lineas.length];
+    }
+
+    public int getCapacidad() {
+        return lineas.length;
+    }
+}
@@ -0,0 +1,202 @@
+package vista;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import eventos.AtaqueResuelto;
+import eventos.EventoBatalla;
+import eventos.OyenteBatalla;
+import eventos.PersonajeDerrotado;
+import modelo.Enemigo;
+import modelo.GeneradorAleatorio;
+import modelo.Tipo_Enemigo;
+
+/**
+ * Efectos de sonido de la batalla con el RPG Sound Pack. Todo se carga al crear el
+ * motor: cada variante de cada efecto queda abierta en un grupo de Clips listos,
+ * asi dos golpes seguidos suenan a la vez en Clips distintos sin abrir lineas
+ * nuevas, y disparar un efecto es solo rebobinar y start(). La mezcla de los que
+ * suenan juntos la hace el mezclador del sistema.
+ *
+ * Se registra como oyente directo del controlador (no por el publicador) para que
+ * el sonido salga en el mismo momento del evento. Sin dispositivo de audio (ej.
+ * Linux sin cabeza) crear() devuelve un motor mudo que no hace nada.
+ */
+public class MotorSonido implements OyenteBatalla, AutoCloseable {
+
+    public enum Sonido {
+        GOLPE(3, "battle/swing.wav", "battle/swing2.wav", "battle/swing3.wav"),
+        ESPECIAL(2, "battle/magic1.wav"),
+        HECHIZO(2, "battle/spell.wav"),
+        DESENVAINAR(1, "battle/sword-unsheathe.wav", "battle/sword-unsheathe2.wav", "battle/sword-unsheathe3.wav"),
+        CAE_OGRO(2, "NPC/ogre/ogre1.wav", "NPC/ogre/ogre2.wav", "NPC/ogre/ogre3.wav", "NPC/ogre/ogre4.wav", "NPC/ogre/ogre5.wav"),
+        CAE_SLIME(2, "NPC/slime/slime1.wav", "NPC/slime/slime2.wav", "NPC/slime/slime3.wav", "NPC/slime/slime4.wav", "NPC/slime/slime5.wav"),
+        CAE_HEROE(1, "battle/sword-unsheathe5.wav"),
+        VICTORIA(1, "inventory/coin.wav", "inventory/coin2.wav", "inventory/coin3.wav"),
+        DERROTA(1, "interface/interface6.wav"),
+        CLICK(2, "interface/interface1.wav", "interface/interface2.wav", "interface/interface3.wav");
+
+        // Clips abiertos por variante: cuantos pueden sonar superpuestos
+        final int superpuestos;
+        final String[] variantes;
+
+        Sonido(int superpuestos, String... variantes) {
+            this.superpuestos = superpuestos;
+            this.variantes = variantes;
+        }
+    }
+
+    private static final String CARPETA = "RPG Sound Pack/";
+
+    private final EnumMap<Sonido, Grupo> grupos = new EnumMap<>(Sonido.class);
+    private final GeneradorAleatorio aleatorio = GeneradorAleatorio.delHilo();
+
+    private MotorSonido() {
+    }
+
+    // intenta abrir el audio; si no hay dispositivo el motor queda mudo
+    public static MotorSonido crear() {
+        MotorSonido motor = new MotorSonido();
+        try {
+            for (Sonido s : Sonido.values()) {
+                Grupo g = Grupo.cargar(s);
+                if (g != null) motor.grupos.put(s, g);
+            }
+        } catch (LineUnavailableException | RuntimeException e) {
+            // sin lineas de audio (servidor, contenedor, sin placa): sin sonido y sin errores
+            motor.close();
+        }
+        return motor;
+    }
+
+    // motor que nunca suena, para pruebas o si el usuario lo desactiva
+    public static MotorSonido mudo() {
+        return new MotorSonido();
+    }
+
+    public boolean estaActivo() {
+        return !grupos.isEmpty();
+    }
+
+    public void reproducir(Sonido sonido) {
+        Grupo g = grupos.get(sonido);
+        if (g != null) g.reproducir(aleatorio);
+    }
+
+    @Override
+    public void alEvento(EventoBatalla evento) {
+        if (grupos.isEmpty()) return;
+        switch (evento.getTipo()) {
+            case ATAQUE_RESUELTO:
+                reproducir(((AtaqueResuelto) evento).esEspecial() ? Sonido.ESPECIAL : Sonido.GOLPE);
+                break;
+            case ESTADO_APLICADO:
+                reproducir(Sonido.HECHIZO);
+                break;
+            case PERSONAJE_DERROTADO: {
+                Object caido = ((PersonajeDerrotado) evento).getDerrotado();
+                if (caido instanceof Enemigo) {
+                    Tipo_Enemigo tipo = ((Enemigo) caido).getTipo();
+                    reproducir(tipo == Tipo_Enemigo.ORCO || tipo == Tipo_Enemigo.TROLL ? Sonido.CAE_OGRO : Sonido.CAE_SLIME);
+                } else {
+                    reproducir(Sonido.CAE_HEROE);
+                }
+                break;
+            }
+            case BATALLA_TERMINADA:
+                reproducir(((eventos.BatallaTerminada) evento).esVictoria() ? Sonido.VICTORIA : Sonido.DERROTA);
+                break;
+            default:
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Grupo g : grupos.values()) g.cerrar();
+        grupos.clear();
+    }
+
+
+    // las variantes de un efecto, cada una con sus Clips ya abiertos
+    private static final class Grupo {
+        private final Clip[][] clips;
+        private final int[] siguiente;
+
+        private Grupo(Clip[][] clips) {
+            this.clips = clips;
+            this.siguiente = new int[clips.length];
+        }
+
+        // null si ninguna variante se pudo leer; LineUnavailableException si no hay audio
+        static Grupo cargar(Sonido sonido) throws LineUnavailableException {
+            Clip[][] clips = new Clip[sonido.variantes.length][];
+            int cargadas = 0;
+            for (String archivo : sonido.variantes) {
+                Clip[] pool = abrir(archivo, sonido.superpuestos);
+                if (pool != null) clips[cargadas++] = pool;
+            }
+            if (cargadas == 0) return null;
+            Clip[][] listas = new Clip[cargadas][];
+            System.arraycopy(clips, 0, listas, 0, cargadas);
+            return new Grupo(listas);
+        }
+
+        // lee el archivo una vez y abre varios Clips con los mismos bytes
+        private static Clip[] abrir(String archivo, int cantidad) throws LineUnavailableException {
+            try (InputStream in = Recursos.abrir(CARPETA + archivo)) {
+                if (in == null) return null;
+                AudioInputStream original = AudioSystem.getAudioInputStream(new BufferedInputStream(in));
+                // el pack viene en 24 bits, que muchas lineas no aceptan: se pasa a 16 al cargar
+                AudioFormat origen = original.getFormat();
+                AudioFormat formato = new AudioFormat(origen.getSampleRate(), 16, origen.getChannels(), true, false);
+                AudioInputStream audio = AudioSystem.getAudioInputStream(formato, original);
+                byte[] pcm = audio.readAllBytes();
+
+                Clip[] pool = new Clip[cantidad];
+                for (int i = 0; i < cantidad; i++) {
+                    pool[i] = AudioSystem.getClip();
+                    pool[i].open(formato, pcm, 0, pcm.length);
+                }
+                return pool;
+            } catch (IOException | UnsupportedAudioFileException | IllegalArgumentException e) {
+                // formato que la linea no soporta: esa variante no suena
+                return null;
+            }
+        }
+
+        // suena en un Clip libre; si todos estan sonando se reusa el que empezo antes
+        synchronized void reproducir(GeneradorAleatorio aleatorio) {
+            int v = clips.length == 1 ? 0 : aleatorio.siguienteEntero(clips.length);
+            Clip[] pool = clips[v];
+            int elegido = siguiente[v];
+            for (int i = 0; i < pool.length; i++) {
+                int c = (siguiente[v] + i) % pool.length;
+                if (!pool[c].isRunning()) {
+                    elegido = c;
+                    break;
+                }
+            }
+            siguiente[v] = (elegido + 1) % pool.length;
+
+            Clip clip = pool[elegido];
+            clip.stop();
+            clip.setFramePosition(0);
+            clip.start();
+        }
+
+        void cerrar() {
+            for (Clip[] pool : clips) {
+                for (Clip c : pool) c.close();
+            }
+        }
+    }
+}
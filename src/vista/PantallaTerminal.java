@@ -0,0 +1,144 @@
+package vista;
+
+import java.util.Arrays;
+
+/**
+ * Modelo de la pantalla de la terminal: una grilla de caracteres para el cuadro que
+ * se esta armando y otra con lo que ya se mando. volcar() compara las dos y genera
+ * solo los cambios, con movimientos de cursor ANSI, en un unico texto para
+ * escribir de una vez.
+ */
+public class PantallaTerminal {
+
+    private static final String ESC = "\u001b[";
+
+    // si dos cambios de una fila estan a menos de esto se reescribe lo del medio:
+    // sale mas barato que mover el cursor (ESC[fila;colH son 6 a 8 bytes)
+    private static final int HUECO_MAXIMO = 6;
+
+    private final int filas, columnas;
+    private final char[] actual;
+    private final char[] mostrado;
+    private final boolean[] borrar;
+    private final StringBuilder desplazamientos = new StringBuilder();
+    private boolean primerCuadro = true;
+
+    // posicion del cursor de la terminal despues del ultimo volcado, -1 si no se sabe
+    private int filaCursor = -1, columnaCursor = -1;
+
+    public PantallaTerminal(int filas, int columnas) {
+        this.filas = filas;
+        this.columnas = columnas;
+        this.actual = new char[filas * columnas];
+        this.mostrado = new char[filas * columnas];
+        this.borrar = new boolean[filas];
+        Arrays.fill(actual, ' ');
+        Arrays.fill(mostrado, ' ');
+    }
+
+    public int getFilas() { return filas; }
+    public int getColumnas() { return columnas; }
+
+    public void limpiar() {
+        Arrays.fill(actual, ' ');
+    }
+
+    // escribe el texto desde (fila, columna); lo que no entra en la fila se corta
+    public void escribir(int fila, int columna, String texto) {
+        if (fila < 0 || fila >= filas) return;
+        int base = fila * columnas;
+        for (int i = 0; i < texto.length() && columna + i < columnas; i++) {
+            char c = texto.charAt(i);
+            actual[base + columna + i] = c < ' ' ? ' ' : c;
+        }
+    }
+
+    /**
+     * Agrega a destino las secuencias que llevan la terminal del cuadro anterior al
+     * actual y deja el cursor en (filaCursor, columnaCursor). El primer cuadro borra
+     * la pantalla y se manda completo.
+     */
+    public void volcar(StringBuilder destino, int filaFinal, int columnaFinal) {
+        if (primerCuadro) {
+            destino.append(ESC).append("2J");
+            Arrays.fill(mostrado, '\0');
+            Arrays.fill(borrar, false);
+            desplazamientos.setLength(0);
+            primerCuadro = false;
+            filaCursor = -1;
+        }
+        if (desplazamientos.length() > 0) {
+            destino.append(desplazamientos);
+            desplazamientos.setLength(0);
+        }
+
+        for (int f = 0; f < filas; f++) {
+            int base = f * columnas;
+            if (borrar[f]) {
+                mover(destino, f, 0);
+                destino.append(ESC).append('K');
+                Arrays.fill(mostrado, base, base + columnas, ' ');
+                borrar[f] = false;
+            }
+            int c = 0;
+            while (c < columnas) {
+                if (actual[base + c] == mostrado[base + c]) {
+                    c++;
+                    continue;
+                }
+                // tramo con cambios, estirado sobre huecos chicos sin cambios
+                int fin = c + 1, ultimoCambio = c;
+                while (fin < columnas && fin - ultimoCambio <= HUECO_MAXIMO) {
+                    if (actual[base + fin] != mostrado[base + fin]) ultimoCambio = fin;
+                    fin++;
+                }
+                mover(destino, f, c);
+                destino.append(actual, base + c, ultimoCambio + 1 - c);
+                System.arraycopy(actual, base + c, mostrado, base + c, ultimoCambio + 1 - c);
+                columnaCursor = ultimoCambio + 1;
+                c = ultimoCambio + 1;
+            }
+        }
+        mover(destino, filaFinal, columnaFinal);
+    }
+
+    // la terminal cambio esa fila por fuera (ej. el eco de lo que escribio el usuario):
+    // en el proximo volcado se borra con ESC[K y se vuelve a escribir lo que haga falta
+    public void ensuciarFila(int fila) {
+        borrar[fila] = true;
+        filaCursor = -1;
+    }
+
+    /**
+     * Sube n lineas el contenido de las filas [desde, hasta] en la terminal, con una
+     * region de desplazamiento, en vez de reescribirlas todas. Sirve para el registro:
+     * cuando entra una linea nueva solo hay que escribir esa.
+     */
+    public void desplazar(int desde, int hasta, int n) {
+        if (primerCuadro || n <= 0) return;
+        int alto = hasta - desde + 1;
+        if (n >= alto) {
+            Arrays.fill(mostrado, desde * columnas, (hasta + 1) * columnas, '\0');
+            return;
+        }
+        desplazamientos.append(ESC).append(desde + 1).append(';').append(hasta + 1).append('r')
+                .append(ESC).append(n).append('S')
+                .append(ESC).append('r');
+        System.arraycopy(mostrado, (desde + n) * columnas, mostrado, desde * columnas, (alto - n) * columnas);
+        Arrays.fill(mostrado, (hasta + 1 - n) * columnas, (hasta + 1) * columnas, ' ');
+        // cambiar la region manda el cursor al inicio
+        filaCursor = -1;
+    }
+
+    // se vuelve a mandar toda la pantalla (ej. si la terminal se limpio)
+    public void invalidar() {
+        primerCuadro = true;
+    }
+
+    private void mover(StringBuilder destino, int fila, int columna) {
+        if (fila == filaCursor && columna == columnaCursor) return;
+        destino.append(ESC).append(fila + 1).append(';').append(columna + 1).append('H');
+        filaCursor = fila;
+        columnaCursor = columna;
+    }
+}
@@ -0,0 +1,63 @@
+package vista;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Abre los archivos de src/vista/utilidades (imagenes y sonidos). Si hay un
+ * paquete armado con EmpaquetadorRecursos (recursos.pak, o el indicado en la
+ * propiedad recursos.paquete) se sirven de ahi; si no, del classpath, como quedan
+ * al empaquetar, y por ultimo de la carpeta del codigo.
+ */
+public final class Recursos {
+
+    public static final String CARPETA = "vista/utilidades/";
+    public static final String PAQUETE_POR_DEFECTO = "recursos.pak";
+    private static final Path CARPETA_FUENTES = Paths.get("src", "vista", "utilidades");
+
+    private Recursos() {
+    }
+
+    // el paquete se abre una sola vez, la primera vez que se pide un recurso
+    private static final class Paquete {
+        static final ArchivoRecursos ABIERTO = abrirPaquete();
+
+        private static ArchivoRecursos abrirPaquete() {
+            Path archivo = Paths.get(System.getProperty("recursos.paquete", PAQUETE_POR_DEFECTO));
+            if (!Files.isRegularFile(archivo)) return null;
+            try {
+                return ArchivoRecursos.abrir(archivo);
+            } catch (IOException e) {
+                System.err.println("Paquete de recursos invalido, se usan los archivos sueltos: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    // pixeles ARGB de un retrato ya escalado en el paquete; null si no hay paquete o no lo trae
+    static IntBuffer pixeles(String archivo, int ancho, int alto) {
+        ArchivoRecursos paquete = Paquete.ABIERTO;
+        return paquete == null ? null : paquete.pixeles(archivo, ancho, alto);
+    }
+
+    // nombre relativo a la carpeta, con / como separador (ej. "RPG Sound Pack/battle/swing.wav");
+    // null si no se encuentra
+    public static InputStream abrir(String nombre) {
+        ArchivoRecursos paquete = Paquete.ABIERTO;
+        if (paquete != null && paquete.contiene(nombre)) return paquete.abrirFlujo(nombre);
+
+        InputStream in = Recursos.class.getClassLoader().getResourceAsStream(CARPETA + nombre);
+        if (in != null) return in;
+        try {
+            Path archivo = CARPETA_FUENTES.resolve(nombre);
+            return Files.isRegularFile(archivo) ? Files.newInputStream(archivo) : null;
+        } catch (IOException | RuntimeException e) {
+            // nombres que el sistema de archivos no puede representar cuentan como ausentes
+            return null;
+        }
+    }
+}
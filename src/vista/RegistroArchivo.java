@@ -0,0 +1,51 @@
+package vista;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import eventos.BatallaTerminada;
+import eventos.EventoBatalla;
+import eventos.OyenteBatalla;
+
+/**
+ * Escribe en un archivo de texto los mismos mensajes que mostraria una vista.
+ * Vacia el buffer al terminar cada batalla, no por linea.
+ */
+public class RegistroArchivo implements OyenteBatalla, AutoCloseable {
+
+    private final BufferedWriter salida;
+
+    public RegistroArchivo(Path archivo) throws IOException {
+        salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void alEvento(EventoBatalla evento) {
+        try {
+            if (evento.getTipo() == EventoBatalla.Tipo.BATALLA_TERMINADA) {
+                salida.write(((BatallaTerminada) evento).esVictoria() ? "Victoria" : "Derrota");
+                salida.newLine();
+                salida.flush();
+                return;
+            }
+            String texto = FormatoEventos.texto(evento);
+            if (texto != null) {
+                salida.write(texto);
+                salida.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el registro de batalla.", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        salida.close();
+    }
+}
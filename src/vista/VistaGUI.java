@@ -4,6 +4,8 @@ import modelo.*;
 import java.awt.*;
 
 import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
 
 import controlador.ControladorBatalla;
 
@@ -13,6 +15,7 @@ import java.awt.event.*;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 
 public class VistaGUI extends JFrame implements VistaJuego{
@@ -20,12 +23,19 @@ public class VistaGUI extends JFrame implements VistaJuego{
     private JFrame frame;
 
     private ControladorBatalla controlador;
+    // el heroe al que se le esta pidiendo la accion; null si no se espera a nadie
+    private volatile Heroe heroeEnTurno;
+    private JButton btnSugerir;
 
     private Map<Heroe, Integer> hpMaxHeroes = new HashMap<>();
     private Map<Enemigo, Integer> hpMaxEnemigos = new HashMap<>();
 
-    private Map<Heroe, JProgressBar> barrasHeroes = new HashMap<>();
-    private Map<Enemigo, JProgressBar> barrasEnemigos = new HashMap<>();
+    // barras de vida y mana, se actualizan solas cuando cambia un personaje
+    private final BarrasEstado barras = new BarrasEstado();
+
+    // retratos de las cartas, decodificados en segundo plano
+    private static final int TAM_RETRATO = 64;
+    private final CacheSprites sprites = new CacheSprites();
 
     private JPanel panelHeroes;
     private JPanel panelEnemigos;
@@ -35,18 +45,24 @@ public class VistaGUI extends JFrame implements VistaJuego{
     private JButton btnatacar;
     private JButton btnhabilidad;
     private JPanel panelEstado;
-    private JTextArea areaLog;
+    private JList<String> areaLog;
+
+    // ultimas lineas del registro; las mas viejas se descartan
+    private static final int LINEAS_REGISTRO = 2000;
+    private final ModeloRegistro registro = new ModeloRegistro(LINEAS_REGISTRO);
+    // el que baja la lista del registro al final; uno solo aunque se rearme la ventana
+    private ListDataListener seguirRegistro;
     
     private JButton btnVolverMenu;
-    private int accionElegida = -1;
-    private int enemigoElegido = -1;
-
-    private final Object lockAccion = new Object();
-    private final Object lockEnemigo = new Object();
+    private final EntradaAsincrona acciones = new EntradaAsincrona();
+    private final EntradaAsincrona enemigosElegidos = new EntradaAsincrona();
 
 
     public VistaGUI(){
 
+        // los retratos empiezan a cargarse antes de armar las cartas
+        sprites.precargar(TAM_RETRATO, TAM_RETRATO);
+
         //cremaos lo que tendra nuestra interfaz
         setTitle("Dragon Quest VIII");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -69,11 +85,7 @@ public class VistaGUI extends JFrame implements VistaJuego{
                 panelEstado = new JPanel(new GridLayout(2, 4, 10, 10));
                 panelEstado.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
-                areaLog = new JTextArea();
-                areaLog.setEditable(false);
-                areaLog.setFont(new Font("Consolas", Font.PLAIN, 12));
-                areaLog.setBackground(new Color(12, 12, 18));
-                areaLog.setForeground(Color.WHITE);
+                areaLog = crearListaLog(new Font("Consolas", Font.PLAIN, 12), new Color(12, 12, 18), Color.WHITE);
 
                 JScrollPane scroll = new JScrollPane(areaLog);
                 scroll.setPreferredSize(new Dimension(400, 200));
@@ -116,7 +128,11 @@ public class VistaGUI extends JFrame implements VistaJuego{
                 btnVolverMenu = new JButton("Salir");
                 btnVolverMenu.addActionListener(e -> dispose());
 
+                btnSugerir = new JButton("Sugerir");
+                btnSugerir.addActionListener(e -> sugerir());
+
                 JPanel bottom = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+                bottom.add(btnSugerir);
                 bottom.add(btnVolverMenu);
 
                 add(panelEstado, BorderLayout.CENTER);
@@ -155,10 +171,16 @@ public class VistaGUI extends JFrame implements VistaJuego{
         vida.setValue(h.getHp());
         vida.setStringPainted(true);
 
-        barrasHeroes.put(h, vida);
+        JProgressBar mana = crearBarraMana(h);
+        barras.agregar(h, vida, mana);
+
+        JLabel retrato = new JLabel();
+        sprites.mostrarEn(retrato, CacheSprites.archivoDe(h.getTipo()), TAM_RETRATO, TAM_RETRATO);
 
+        card.add(retrato, BorderLayout.WEST);
         card.add(nombre, BorderLayout.NORTH);
         card.add(vida, BorderLayout.CENTER);
+        if (mana != null) card.add(mana, BorderLayout.SOUTH);
         
         return card;
     }
@@ -194,49 +216,78 @@ public class VistaGUI extends JFrame implements VistaJuego{
         vida.setValue(e.getHp());
         vida.setStringPainted(true);
     
-        barrasEnemigos.put(e, vida);
+        JProgressBar mana = crearBarraMana(e);
+        barras.agregar(e, vida, mana);
 
+        JLabel retrato = new JLabel();
+        sprites.mostrarEn(retrato, CacheSprites.archivoDe(e.getTipo()), TAM_RETRATO, TAM_RETRATO);
+
+        card.add(retrato, BorderLayout.WEST);
         card.add(nombre, BorderLayout.NORTH);
         card.add(vida, BorderLayout.CENTER);
+        if (mana != null) card.add(mana, BorderLayout.SOUTH);
 
         card.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e1) {
-                synchronized (lockEnemigo) {
-                    enemigoElegido = index;
-                    lockEnemigo.notify();
-                }
+                enemigosElegidos.entregar(index);
             }
         });
         
         return card;
     }
 
-    // funcion que actualiza las barras segun la vida del personaje 
-    public void actualizarBarras(){
-        for (Heroe h : barrasHeroes.keySet()){
-            barrasHeroes.get(h).setValue(h.getHp());
-        }
+    // el mana arranca lleno; quien empieza sin mana no tiene barra
+    private JProgressBar crearBarraMana(Personaje p){
+        if (p.getMp() <= 0) return null;
 
-        for (Enemigo e : barrasEnemigos.keySet()){
-            barrasEnemigos.get(e).setValue(e.getHp());
-        }
+        JProgressBar mana = new JProgressBar(0, p.getMp());
+        mana.setValue(p.getMp());
+        mana.setStringPainted(true);
+        mana.setForeground(new Color(60, 110, 220));
+        return mana;
+    }
+
+    // las barras ya se actualizan cuando cambia cada personaje (BarrasEstado),
+    // no hace falta recorrerlas todas despues de cada accion
+    public void actualizarBarras(){
     }
 
 
 
     private void crearPanelLog(){
-        areaLog = new JTextArea();
-        areaLog.setEditable(false);
-        areaLog.setFont(new Font("Consolas", Font.PLAIN, 14));
-        areaLog.setBackground(new Color(20,20,20));
-        areaLog.setForeground(Color.GREEN);
+        areaLog = crearListaLog(new Font("Consolas", Font.PLAIN, 14), new Color(20,20,20), Color.GREEN);
 
         scroll = new JScrollPane(areaLog);
 
         frame.add(scroll, BorderLayout.CENTER);
     }
 
+    // el JList solo pinta las filas visibles; con alto fijo no mide todas las lineas
+    private JList<String> crearListaLog(Font fuente, Color fondo, Color texto){
+        JList<String> lista = new JList<>(registro);
+        lista.setFont(fuente);
+        lista.setBackground(fondo);
+        lista.setForeground(texto);
+        lista.setFocusable(false);
+        lista.setPrototypeCellValue("X".repeat(60));
+
+        // cada tanda nueva se muestra al final, solo en la lista actual
+        if (seguirRegistro != null) registro.removeListDataListener(seguirRegistro);
+        seguirRegistro = new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                lista.ensureIndexIsVisible(e.getIndex1());
+            }
+            @Override
+            public void intervalRemoved(ListDataEvent e) {}
+            @Override
+            public void contentsChanged(ListDataEvent e) {}
+        };
+        registro.addListDataListener(seguirRegistro);
+        return lista;
+    }
+
     private void crearPanelBotones(){
         JPanel panel = new JPanel();
 
@@ -256,17 +307,45 @@ public class VistaGUI extends JFrame implements VistaJuego{
     }
 
     private void elegir(int n) {
-        synchronized (lockAccion) {
-            accionElegida = n;
-            lockAccion.notify();
+        acciones.entregar(n);
+    }
+
+    // la busqueda piensa un rato: corre fuera del hilo de Swing y deja la jugada en el registro.
+    // la batalla espera la accion y los botones quedan apagados hasta el final, asi nadie
+    // mueve a los personajes mientras la busqueda los lee
+    private void sugerir() {
+        Heroe heroe = heroeEnTurno;
+        if (controlador == null || heroe == null) {
+            mostrarMensaje("No hay un heroe esperando una accion.");
+            return;
         }
+        habilitarAcciones(false);
+        CompletableFuture.supplyAsync(() -> controlador.sugerirJugada(heroe)).whenComplete((jugada, error) ->
+            SwingUtilities.invokeLater(() -> {
+                habilitarAcciones(true);
+                // el turno ya paso (ej. se vencio el tiempo): la sugerencia no es para nadie
+                if (heroeEnTurno != heroe) return;
+                if (error != null) mostrarMensaje("No se pudo sugerir una jugada: " + error.getMessage());
+                else mostrarMensaje("Sugerencia para " + heroe.getNombre() + ": " + jugada);
+            }));
+    }
+
+    private void habilitarAcciones(boolean habilitar) {
+        btnatacar.setEnabled(habilitar);
+        btnhabilidad.setEnabled(habilitar);
+        btnSugerir.setEnabled(habilitar);
+    }
+
+    // para el boton de sugerencia cuando la batalla se juega con iniciarBatallaAsync
+    public void setControlador(ControladorBatalla controlador) {
+        this.controlador = controlador;
     }
 
     // aqui estan las funciones del VistaJuego, no usa Todas ya que la GUI no necesiat ciertas funciones que la terminal si 
     @Override
     public void mostrarMensaje(String mensaje) {
-        areaLog.append(mensaje + "\n");
-        areaLog.setCaretPosition(areaLog.getDocument().getLength());
+        // puede llegar desde cualquier hilo: el modelo junta las lineas y las pinta por cuadro
+        registro.agregar(mensaje);
     }
 
     @Override
@@ -313,32 +392,33 @@ public class VistaGUI extends JFrame implements VistaJuego{
         throw new UnsupportedOperationException("Unimplemented method 'esperarEnter'");
     }
 
+    // las versiones bloqueantes quedan para quien use iniciarBatalla; la GUI juega con las async
     @Override
     public int elegirAccion(Heroe heroe) {
-        mostrarMensaje("Tunrno de " + heroe.getNombre());
-
-        accionElegida = -1;
-        mostrarMensaje("Elige una accion");
+        return elegirAccionAsync(heroe).join();
+    }
 
+    @Override
+    public int seleccionarEnemigo(Enemigo[] enemigos) {
+        return seleccionarEnemigoAsync(enemigos).join();
+    }
 
-        synchronized (lockAccion) {
-            while (accionElegida == -1) {
-                try { lockAccion.wait(); } catch (InterruptedException e) {}
-            }
-        }
-        return accionElegida;
+    @Override
+    public CompletableFuture<Integer> elegirAccionAsync(Heroe heroe) {
+        mostrarMensaje("Tunrno de " + heroe.getNombre());
+        mostrarMensaje("Elige una accion");
+        CompletableFuture<Integer> accion = acciones.pedir();
+        heroeEnTurno = heroe;
+        accion.whenComplete((valor, error) -> {
+            if (heroeEnTurno == heroe) heroeEnTurno = null;
+        });
+        return accion;
     }
 
     @Override
-    public int seleccionarEnemigo(Enemigo[] enemigos) {
-        enemigoElegido = -1;
+    public CompletableFuture<Integer> seleccionarEnemigoAsync(Enemigo[] enemigos) {
         mostrarMensaje("Selecciona a un enemigo para atacarlo");
-        synchronized (lockEnemigo) {
-            while (enemigoElegido == -1) {
-                try { lockEnemigo.wait(); } catch (InterruptedException e) {}
-            }
-        }
-        return enemigoElegido;
+        return enemigosElegidos.pedir();
     }
 
     @Override
@@ -2,9 +2,14 @@ package vista;
 
 import modelo.Heroe;
 import modelo.Enemigo;
+import java.util.concurrent.CompletableFuture;
+
 import controlador.ControladorBatalla;
+import eventos.AvisoVista;
+import eventos.EventoBatalla;
+import eventos.OyenteBatalla;
 
-public interface VistaJuego {
+public interface VistaJuego extends OyenteBatalla {
 
     // funciones que la vista se encargara de mostrar
     public void iniciar(ControladorBatalla controlador);
@@ -27,5 +32,35 @@ public interface VistaJuego {
 
     int leerEntero();
 
+    // versiones sin bloqueo para ControladorBatalla.iniciarBatallaAsync: la vista completa
+    // el futuro cuando el usuario decide. Por defecto se responde en el momento con la
+    // version bloqueante, que es lo que sirve para la terminal
+    default CompletableFuture<Integer> elegirAccionAsync(Heroe heroe) {
+        return CompletableFuture.completedFuture(elegirAccion(heroe));
+    }
+
+    default CompletableFuture<Integer> seleccionarEnemigoAsync(Enemigo[] enemigos) {
+        return CompletableFuture.completedFuture(seleccionarEnemigo(enemigos));
+    }
+
+    // por defecto los eventos de la batalla se muestran como mensajes y los avisos
+    // del controlador llaman al metodo que corresponde
+    @Override
+    default void alEvento(EventoBatalla evento) {
+        if (evento.getTipo() == EventoBatalla.Tipo.AVISO_VISTA) {
+            AvisoVista aviso = (AvisoVista) evento;
+            switch (aviso.getAviso()) {
+                case MENSAJE: mostrarMensaje(aviso.getTexto()); break;
+                case BARRAS: actualizarBarras(); break;
+                case VICTORIA: mostrarVictoria(); break;
+                case DERROTA: mostrarDerrota(); break;
+                default: break;
+            }
+            return;
+        }
+        String texto = FormatoEventos.texto(evento);
+        if (texto != null) mostrarMensaje(texto);
+    }
+
 
 }
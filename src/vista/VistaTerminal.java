@@ -1,5 +1,10 @@
 package vista;
 
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
 
 import controlador.ControladorBatalla;
@@ -7,54 +12,70 @@ import modelo.*;
 
 public class VistaTerminal implements VistaJuego {
     
-    private Scanner sc = new Scanner(System.in);
+    private final Scanner sc;
+    protected final PrintStream out;
+
+    public VistaTerminal() {
+        this.sc = new Scanner(System.in);
+        this.out = System.out;
+    }
+
+    // permite usar la misma vista sobre otros flujos, por ejemplo un socket;
+    // la salida se vacia solo antes de esperar una respuesta
+    public VistaTerminal(InputStream entrada, OutputStream salida) {
+        this.sc = new Scanner(entrada, StandardCharsets.UTF_8);
+        this.out = new PrintStream(new BufferedOutputStream(salida), false, StandardCharsets.UTF_8);
+    }
 
     // metodos de VistaJuego
     @Override
     public void mostrarMensaje(String mensaje) {
-        System.out.println(mensaje);
+        out.println(mensaje);
     }
 
     @Override
     public void mostrarEstado(Heroe heroe, Enemigo enemigo) {
-        System.out.println("-------------- HEROES -----------\n");
-        System.out.println(heroe.getNombre() + " //HP " + heroe.getHp() + " //MP " + heroe.getMp() + " //Ataque " + heroe.getAtaque());
+        out.println("-------------- HEROES -----------\n");
+        out.println(heroe.getNombre() + " //HP " + heroe.getHp() + " //MP " + heroe.getMp() + " //Ataque " + heroe.getAtaque());
 
-        System.out.println("-------- ENEMGIOS ---------\n");
-        System.out.println(enemigo.getNombre() + " //HP " + enemigo.getHp() + " //MP " + enemigo.getMp() + " //Ataque " + enemigo.getAtaque());
+        out.println("-------- ENEMGIOS ---------\n");
+        out.println(enemigo.getNombre() + " //HP " + enemigo.getHp() + " //MP " + enemigo.getMp() + " //Ataque " + enemigo.getAtaque());
     }
 
     @Override
     public void mostrarVictoria() {
-        System.out.println("Has derrotado a todos los enemigos, FELICIDADES HAS GANADO");
+        out.println("Has derrotado a todos los enemigos, FELICIDADES HAS GANADO");
+        out.flush();
     }
 
     @Override
     public void mostrarDerrota() {
-        System.out.println("Han derrotado a todos los heroes, NOS CONDENASTE A TODOS");
+        out.println("Han derrotado a todos los heroes, NOS CONDENASTE A TODOS");
+        out.flush();
     }
 
     @Override
     public void esperarEnter() {
-        System.out.println("Presiona ENTER para continuar");
-        sc.nextLine();
+        out.println("Presiona ENTER para continuar");
+        out.flush();
+        leerLinea();
     }
 
     @Override
     public int elegirAccion(Heroe heroe) {
-        System.out.println("Elige una accion para " + heroe.getNombre() +"\n");
-        System.out.println("1. Atacar\n");
-        System.out.println("2. Habilidad");
+        out.println("Elige una accion para " + heroe.getNombre() +"\n");
+        out.println("1. Atacar\n");
+        out.println("2. Habilidad");
         return leerEntero();
     }
 
     @Override
     public int seleccionarEnemigo(Enemigo[] enemigos) {
 
-        System.out.println("\nElige un enemigo:");
+        out.println("\nElige un enemigo:");
         for (int i = 0; i < enemigos.length; i++) {
             if (enemigos[i].getHp() > 0) {
-                System.out.println((i + 1) + ". " + enemigos[i].getNombre() + " (HP: " + enemigos[i].getHp() + ")");
+                out.println((i + 1) + ". " + enemigos[i].getNombre() + " (HP: " + enemigos[i].getHp() + ")");
             }
         }
         return leerEntero() - 1; 
@@ -63,10 +84,10 @@ public class VistaTerminal implements VistaJuego {
     @Override
     public int seleccionarHeroe(Heroe[] heroes) {
 
-        System.out.println("\nElige un héroe:");
+        out.println("\nElige un héroe:");
         for (int i = 0; i < heroes.length; i++) {
             if (heroes[i].getHp() > 0) {
-                System.out.println((i + 1) + ". " + heroes[i].getNombre() + " (HP: " + heroes[i].getHp() + ")");
+                out.println((i + 1) + ". " + heroes[i].getNombre() + " (HP: " + heroes[i].getHp() + ")");
             }
         }
         return leerEntero() - 1;
@@ -75,10 +96,10 @@ public class VistaTerminal implements VistaJuego {
     @Override
     public int seleccionarHeroeMuerto(Heroe[] heroes) {
 
-        System.out.println("\nElige un héroe muerto:");
+        out.println("\nElige un héroe muerto:");
         for (int i = 0; i < heroes.length; i++) {
             if (heroes[i].getHp() <= 0) {
-                System.out.println((i + 1) + ". " + heroes[i].getNombre() + " (HP: 0)");
+                out.println((i + 1) + ". " + heroes[i].getNombre() + " (HP: 0)");
             }
         }
         return leerEntero() - 1;
@@ -88,27 +109,37 @@ public class VistaTerminal implements VistaJuego {
     public int leerEntero() {
         while (true) {
             try {
-                System.out.print("→ ");
-                return Integer.parseInt(sc.nextLine());
+                pedirEntrada();
+                return Integer.parseInt(leerLinea());
             } catch (NumberFormatException e) {
-                System.out.println("Ingresa un número válido.");
+                mostrarMensaje("Ingresa un número válido.");
             }
         }
     }
 
+    protected String leerLinea() {
+        return sc.nextLine();
+    }
+
+    // marca que se espera una respuesta y vacia lo pendiente
+    protected void pedirEntrada() {
+        out.print("→ ");
+        out.flush();
+    }
+
     @Override
     public void mostrarHeroes(Heroe[] heroe) {
-        System.out.println(" --------- Heroes -------");
+        out.println(" --------- Heroes -------");
         for ( Heroe h : heroe){
-            System.out.println(h.getNombre() + " - " + h.getTipo() + "\n");
+            out.println(h.getNombre() + " - " + h.getTipo() + "\n");
         }   
     }
 
     @Override
     public void mostrarEnemigos(Enemigo[] enemigo) {
-        System.out.println(" --------- Enemigos -------");
+        out.println(" --------- Enemigos -------");
         for ( Enemigo e : enemigo){
-            System.out.println(e.getNombre() + " - " + e.getTipo() + "\n");
+            out.println(e.getNombre() + " - " + e.getTipo() + "\n");
         }  
     }
 
@@ -0,0 +1,201 @@
+package vista;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+import modelo.Enemigo;
+import modelo.Heroe;
+import modelo.Personaje;
+
+/**
+ * Vista de terminal que dibuja la batalla como una pantalla fija: los dos equipos
+ * con sus barras de vida arriba, las ultimas lineas del registro en el medio y el
+ * menu abajo. En vez de imprimir cada linea, arma el cuadro en una PantallaTerminal
+ * y antes de cada pregunta manda solo lo que cambio, en una sola escritura.
+ * Necesita una terminal que entienda ANSI.
+ */
+public class VistaTerminalAnsi extends VistaTerminal {
+
+    private static final int FILAS = 24, COLUMNAS = 80;
+    private static final int MAX_POR_EQUIPO = 8;
+    private static final int FILAS_MENU = 6;
+    private static final int ANCHO_BARRA = 10;
+
+    private final PantallaTerminal pantalla = new PantallaTerminal(FILAS, COLUMNAS);
+    private final StringBuilder cuadro = new StringBuilder(FILAS * COLUMNAS);
+
+    private Heroe[] heroes = new Heroe[0];
+    private Enemigo[] enemigos = new Enemigo[0];
+    private final Map<Personaje, Integer> hpMaximo = new HashMap<>();
+    private Personaje enTurno;
+
+    private final ArrayDeque<String> registro = new ArrayDeque<>();
+    // lineas que se fueron por arriba desde el ultimo cuadro: el registro se desplaza eso
+    private int descartadas;
+    private String[] menu = new String[0];
+
+    // filas de cada zona
+    private final int filaSeparador = 1 + MAX_POR_EQUIPO;
+    private final int filaPregunta = FILAS - 2;
+    private final int inicioMenu = filaPregunta - FILAS_MENU;
+    private final int lineasRegistro = inicioMenu - filaSeparador - 1;
+
+    public VistaTerminalAnsi() {
+        super();
+    }
+
+    public VistaTerminalAnsi(InputStream entrada, OutputStream salida) {
+        super(entrada, salida);
+    }
+
+    @Override
+    public void mostrarMensaje(String mensaje) {
+        if (mensaje == null) return;
+        for (String linea : mensaje.split("\n")) {
+            if (linea.isEmpty()) continue;
+            if (registro.size() == lineasRegistro) {
+                registro.removeFirst();
+                descartadas++;
+            }
+            registro.addLast(linea);
+        }
+    }
+
+    // los paneles siempre muestran a todos; solo se marca quien juega
+    @Override
+    public void mostrarEstado(Heroe heroe, Enemigo enemigo) {
+        enTurno = heroe;
+    }
+
+    @Override
+    public void mostrarHeroes(Heroe[] heroes) {
+        this.heroes = heroes;
+        for (Heroe h : heroes) hpMaximo.putIfAbsent(h, Math.max(1, h.getHp()));
+    }
+
+    @Override
+    public void mostrarEnemigos(Enemigo[] enemigos) {
+        this.enemigos = enemigos;
+        for (Enemigo e : enemigos) hpMaximo.putIfAbsent(e, Math.max(1, e.getHp()));
+    }
+
+    @Override
+    public void mostrarVictoria() {
+        terminar("Has derrotado a todos los enemigos, FELICIDADES HAS GANADO");
+    }
+
+    @Override
+    public void mostrarDerrota() {
+        terminar("Han derrotado a todos los heroes, NOS CONDENASTE A TODOS");
+    }
+
+    @Override
+    public void esperarEnter() {
+        menu = new String[] { "Presiona ENTER para continuar" };
+        pedirEntrada();
+        leerLinea();
+    }
+
+    @Override
+    public int elegirAccion(Heroe heroe) {
+        enTurno = heroe;
+        menu = new String[] { "Elige una accion para " + heroe.getNombre(), "1. Atacar", "2. Habilidad" };
+        return leerEntero();
+    }
+
+    @Override
+    public int seleccionarEnemigo(Enemigo[] enemigos) {
+        menu = opciones("Elige un enemigo:", enemigos, true);
+        return leerEntero() - 1;
+    }
+
+    @Override
+    public int seleccionarHeroe(Heroe[] heroes) {
+        menu = opciones("Elige un héroe:", heroes, true);
+        return leerEntero() - 1;
+    }
+
+    @Override
+    public int seleccionarHeroeMuerto(Heroe[] heroes) {
+        menu = opciones("Elige un héroe muerto:", heroes, false);
+        return leerEntero() - 1;
+    }
+
+    // arma el cuadro, manda la diferencia y deja el cursor en la linea de la pregunta
+    @Override
+    protected void pedirEntrada() {
+        dibujar();
+        pantalla.escribir(filaPregunta, 0, "> ");
+        enviar(filaPregunta, 2);
+    }
+
+    // lo que el usuario escribio quedo en la pantalla: esa fila se reescribe en el proximo cuadro
+    @Override
+    protected String leerLinea() {
+        String linea = super.leerLinea();
+        pantalla.ensuciarFila(filaPregunta);
+        pantalla.ensuciarFila(filaPregunta + 1);
+        return linea;
+    }
+
+    private void terminar(String mensaje) {
+        mostrarMensaje(mensaje);
+        menu = new String[0];
+        enTurno = null;
+        dibujar();
+        enviar(FILAS - 1, 0);
+        out.println();
+        out.flush();
+    }
+
+    private String[] opciones(String titulo, Personaje[] personajes, boolean vivos) {
+        String[] lineas = new String[1 + personajes.length];
+        int n = 0;
+        lineas[n++] = titulo;
+        for (int i = 0; i < personajes.length; i++) {
+            if (personajes[i].esta_vivo() == vivos) {
+                lineas[n++] = (i + 1) + ". " + personajes[i].getNombre() + " (HP: " + personajes[i].getHp() + ")";
+            }
+        }
+        String[] usadas = new String[n];
+        System.arraycopy(lineas, 0, usadas, 0, n);
+        return usadas;
+    }
+
+    private void dibujar() {
+        pantalla.limpiar();
+        int mitad = COLUMNAS / 2;
+
+        pantalla.escribir(0, 0, " HEROES");
+        pantalla.escribir(0, mitad, " ENEMIGOS");
+        for (int i = 0; i < Math.min(heroes.length, MAX_POR_EQUIPO); i++) pantalla.escribir(1 + i, 0, panel(heroes[i]));
+        for (int i = 0; i < Math.min(enemigos.length, MAX_POR_EQUIPO); i++) pantalla.escribir(1 + i, mitad, panel(enemigos[i]));
+        pantalla.escribir(filaSeparador, 0, "-".repeat(COLUMNAS));
+
+        int fila = filaSeparador + 1;
+        pantalla.desplazar(fila, fila + lineasRegistro - 1, descartadas);
+        descartadas = 0;
+        for (String linea : registro) pantalla.escribir(fila++, 0, linea);
+
+        for (int i = 0; i < Math.min(menu.length, FILAS_MENU); i++) pantalla.escribir(inicioMenu + i, 0, menu[i]);
+    }
+
+    // "> Nombre      [#####.....]  25/50"
+    private String panel(Personaje p) {
+        int max = hpMaximo.getOrDefault(p, Math.max(1, p.getHp()));
+        int llenos = Math.min(ANCHO_BARRA, (p.getHp() * ANCHO_BARRA + max - 1) / max);
+        String nombre = p.getNombre().length() > 10 ? p.getNombre().substring(0, 10) : p.getNombre();
+        return String.format("%s%-10s [%s%s] %3d/%-3d", p == enTurno ? ">" : " ", nombre,
+                "#".repeat(llenos), ".".repeat(ANCHO_BARRA - llenos), p.getHp(), max);
+    }
+
+    private void enviar(int fila, int columna) {
+        cuadro.setLength(0);
+        pantalla.volcar(cuadro, fila, columna);
+        out.append(cuadro);
+        out.flush();
+    }
+}